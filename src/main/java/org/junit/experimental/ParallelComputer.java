@@ -10,15 +10,33 @@ import org.junit.runners.ParentRunner;
 import org.junit.runners.model.InitializationError;
 import org.junit.runners.model.RunnerBuilder;
 import org.junit.runners.model.RunnerScheduler;
+import org.junit.runners.model.SharedRunnerScheduler;
 
 public class ParallelComputer extends Computer {
     private final boolean classes;
 
     private final boolean methods;
 
+    private final RunnerScheduler sharedScheduler;
+
     public ParallelComputer(boolean classes, boolean methods) {
         this.classes = classes;
         this.methods = methods;
+        this.sharedScheduler = null;
+    }
+
+    /**
+     * Creates a computer whose parallelized runners all submit their children
+     * into one {@link SharedRunnerScheduler}, so that no more than
+     * {@code parallelism} children run at the same time, no matter how many
+     * classes and methods are run in parallel.
+     *
+     * @since 4.13
+     */
+    public ParallelComputer(boolean classes, boolean methods, int parallelism) {
+        this.classes = classes;
+        this.methods = methods;
+        this.sharedScheduler = new SharedRunnerScheduler(parallelism);
     }
 
     public static Computer classes() {
@@ -29,26 +47,33 @@ public class ParallelComputer extends Computer {
         return new ParallelComputer(false, true);
     }
 
-    private static Runner parallelize(Runner runner) {
+    private Runner parallelize(Runner runner) {
         if (runner instanceof ParentRunner) {
-            ((ParentRunner<?>) runner).setScheduler(new RunnerScheduler() {
-                private final ExecutorService fService = Executors.newCachedThreadPool();
+            ((ParentRunner<?>) runner).setScheduler(newScheduler());
+        }
+        return runner;
+    }
 
-                public void schedule(Runnable childStatement) {
-                    fService.submit(childStatement);
-                }
+    private RunnerScheduler newScheduler() {
+        if (sharedScheduler != null) {
+            return sharedScheduler;
+        }
+        return new RunnerScheduler() {
+            private final ExecutorService fService = Executors.newCachedThreadPool();
 
-                public void finished() {
-                    try {
-                        fService.shutdown();
-                        fService.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace(System.err);
-                    }
+            public void schedule(Runnable childStatement) {
+                fService.submit(childStatement);
+            }
+
+            public void finished() {
+                try {
+                    fService.shutdown();
+                    fService.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    e.printStackTrace(System.err);
                 }
-            });
-        }
-        return runner;
+            }
+        };
     }
 
     @Override
@@ -0,0 +1,96 @@
+package org.junit.experimental;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.runner.Description;
+import org.junit.runner.FilterFactory;
+import org.junit.runner.FilterFactoryParams;
+import org.junit.runner.RerunManifest;
+import org.junit.runner.manipulation.Filter;
+
+/**
+ * {@link FilterFactory} that only runs the tests with the given display
+ * names, for example to rerun the tests that failed in an earlier run. The
+ * names are either given as a comma separated list or read from a file
+ * with one name per line, ignoring empty lines and lines starting with
+ * {@code #}, as {@link RerunManifest#readDisplayNames(File)} reads it. In a
+ * list, commas and backslashes that are part of a name, e.g. of a
+ * parameterized test like {@code test[1, 2]}, are escaped with a backslash.
+ *
+ * Usage from command line:
+ * <code>
+ *     --filter=org.junit.experimental.SelectedTestsFilterFactory=testA(org.example.ExampleTest),testB(org.example.ExampleTest)
+ *     --filter=org.junit.experimental.SelectedTestsFilterFactory=test[1\, 2](org.example.ParameterizedTest)
+ *     --filter=org.junit.experimental.SelectedTestsFilterFactory=file=failed-tests.txt
+ * </code>
+ *
+ * Usage from API:
+ * <code>
+ *     request.filterWith(Filter.matchMethodDescriptions(descriptions));
+ * </code>
+ *
+ * @see Filter#matchMethodDescriptions(Collection)
+ * @see RerunManifest#readDisplayNames(File)
+ * @since 4.13
+ */
+public final class SelectedTestsFilterFactory implements FilterFactory {
+    private static final String FILE_ARG = "file=";
+
+    public Filter createFilter(FilterFactoryParams params) throws FilterNotCreatedException {
+        String args = params.getArgs();
+        try {
+            Collection<String> names = args.startsWith(FILE_ARG)
+                    ? RerunManifest.readDisplayNames(new File(args.substring(FILE_ARG.length())))
+                    : splitNames(args);
+            return createFilter(names);
+        } catch (IOException e) {
+            throw new FilterNotCreatedException(e);
+        }
+    }
+
+    /**
+     * Creates a {@link Filter} that only runs the tests with the given
+     * display names.
+     */
+    public Filter createFilter(Collection<String> displayNames) {
+        List<Description> descriptions = new ArrayList<Description>(displayNames.size());
+        for (String each : displayNames) {
+            // descriptions are equal if they have the same display name
+            descriptions.add(Description.createSuiteDescription(each));
+        }
+        return Filter.matchMethodDescriptions(descriptions);
+    }
+
+    private List<String> splitNames(String args) {
+        List<String> names = new ArrayList<String>();
+        StringBuilder name = new StringBuilder();
+        boolean escaped = false;
+        for (int i = 0; i < args.length(); i++) {
+            char c = args.charAt(i);
+            if (escaped) {
+                name.append(c);
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == ',') {
+                addName(names, name);
+            } else {
+                name.append(c);
+            }
+        }
+        addName(names, name);
+        return names;
+    }
+
+    private void addName(List<String> names, StringBuilder name) {
+        String trimmed = name.toString().trim();
+        if (trimmed.length() != 0) {
+            names.add(trimmed);
+        }
+        name.setLength(0);
+    }
+}
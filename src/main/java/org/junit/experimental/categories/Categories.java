@@ -2,9 +2,13 @@ package org.junit.experimental.categories;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.runner.Description;
 import org.junit.runner.manipulation.Filter;
@@ -116,6 +120,20 @@ public class Categories extends Suite {
         private final boolean includedAny;
         private final boolean excludedAny;
 
+        // Each category of included and excluded is identified by its index
+        // in these arrays, which is its bit in CategoryMatches.
+        private final Class<?>[] includedCategories;
+        private final Class<?>[] excludedCategories;
+        private final Map<Class<?>, CategoryMatches> matchesByCategory =
+                new ConcurrentHashMap<Class<?>, CategoryMatches>();
+        private final Map<Class<?>, CategoryMatches> matchesByTestClass =
+                new ConcurrentHashMap<Class<?>, CategoryMatches>();
+        // The descriptions of runners don't change until they are filtered,
+        // so each suite is only evaluated once, even if it is asked for at
+        // every level of the suite.
+        private final Map<Description, Boolean> suiteCache =
+                Collections.synchronizedMap(new IdentityHashMap<Description, Boolean>());
+
         public static CategoryFilter include(boolean matchAny, Class<?>... categories) {
             if (hasNull(categories)) {
                 throw new NullPointerException("has null category");
@@ -157,6 +175,8 @@ public class Categories extends Suite {
             excludedAny = matchAnyExcludes;
             included = copyAndRefine(includes);
             excluded = copyAndRefine(excludes);
+            includedCategories = included.toArray(new Class<?>[included.size()]);
+            excludedCategories = excluded.toArray(new Class<?>[excluded.size()]);
         }
 
         /**
@@ -191,34 +211,68 @@ public class Categories extends Suite {
 
         @Override
         public boolean shouldRun(Description description) {
-            if (hasCorrectCategoryAnnotation(description)) {
-                return true;
+            if (description.isTest()) {
+                return hasCorrectCategoryAnnotation(description);
             }
-
-            for (Description each : description.getChildren()) {
-                if (shouldRun(each)) {
-                    return true;
+            Boolean result = suiteCache.get(description);
+            if (result == null) {
+                result = hasCorrectCategoryAnnotation(description);
+                if (!result) {
+                    for (Description each : description.getChildren()) {
+                        if (shouldRun(each)) {
+                            result = true;
+                            break;
+                        }
+                    }
                 }
+                suiteCache.put(description, result);
             }
-
-            return false;
+            return result;
         }
 
         private boolean hasCorrectCategoryAnnotation(Description description) {
-            final Set<Class<?>> childCategories= categories(description);
+            Category annotation = description.getAnnotation(Category.class);
+            Class<?> testClass = description.getTestClass();
+            CategoryMatches classMatches = testClass == null ? null : matchesOfTestClass(testClass);
+            if (annotation == null) {
+                return classMatches == null ? included.isEmpty() : shouldRunWith(classMatches);
+            }
+            Class<?>[] categories = annotation.value();
+            if (categories.length == 1 && (classMatches == null || !classMatches.hasCategories)) {
+                // the common case of a test in a single category
+                return shouldRunWith(matchesOfCategory(categories[0]));
+            }
+            CategoryMatches matches = new CategoryMatches();
+            matches.addAll(this, categories);
+            if (classMatches != null) {
+                matches.add(classMatches);
+            }
+            return hasCorrectCategoryAnnotation(matches);
+        }
+
+        private boolean shouldRunWith(CategoryMatches matches) {
+            Boolean shouldRun = matches.shouldRun;
+            if (shouldRun == null) {
+                shouldRun = hasCorrectCategoryAnnotation(matches);
+                matches.shouldRun = shouldRun;
+            }
+            return shouldRun;
+        }
+
+        private boolean hasCorrectCategoryAnnotation(CategoryMatches matches) {
 
             // If a child has no categories, immediately return.
-            if (childCategories.isEmpty()) {
+            if (!matches.hasCategories) {
                 return included.isEmpty();
             }
 
             if (!excluded.isEmpty()) {
                 if (excludedAny) {
-                    if (matchesAnyParentCategories(childCategories, excluded)) {
+                    if (!matches.excluded.isEmpty()) {
                         return false;
                     }
                 } else {
-                    if (matchesAllParentCategories(childCategories, excluded)) {
+                    if (matches.excluded.cardinality() == excludedCategories.length) {
                         return false;
                     }
                 }
@@ -229,58 +283,44 @@ public class Categories extends Suite {
                 return true;
             } else {
                 if (includedAny) {
-                    return matchesAnyParentCategories(childCategories, included);
+                    return !matches.included.isEmpty();
                 } else {
-                    return matchesAllParentCategories(childCategories, included);
+                    return matches.included.cardinality() == includedCategories.length;
                 }
             }
         }
 
-        /**
-         * @return <tt>true</tt> if at least one (any) parent category match a child, otherwise <tt>false</tt>.
-         * If empty <tt>parentCategories</tt>, returns <tt>false</tt>.
-         */
-        private boolean matchesAnyParentCategories(Set<Class<?>> childCategories, Set<Class<?>> parentCategories) {
-            for (Class<?> parentCategory : parentCategories) {
-                if (hasAssignableTo(childCategories, parentCategory)) {
-                    return true;
+        private CategoryMatches matchesOfTestClass(Class<?> testClass) {
+            CategoryMatches matches = matchesByTestClass.get(testClass);
+            if (matches == null) {
+                matches = new CategoryMatches();
+                Category annotation = testClass.getAnnotation(Category.class);
+                if (annotation != null) {
+                    matches.addAll(this, annotation.value());
                 }
+                matchesByTestClass.put(testClass, matches);
             }
-            return false;
+            return matches;
         }
 
-        /**
-         * @return <tt>false</tt> if at least one parent category does not match children, otherwise <tt>true</tt>.
-         * If empty <tt>parentCategories</tt>, returns <tt>true</tt>.
-         */
-        private boolean matchesAllParentCategories(Set<Class<?>> childCategories, Set<Class<?>> parentCategories) {
-            for (Class<?> parentCategory : parentCategories) {
-                if (!hasAssignableTo(childCategories, parentCategory)) {
-                    return false;
+        private CategoryMatches matchesOfCategory(Class<?> category) {
+            CategoryMatches matches = matchesByCategory.get(category);
+            if (matches == null) {
+                matches = new CategoryMatches();
+                matches.hasCategories = true;
+                for (int i = 0; i < includedCategories.length; i++) {
+                    if (includedCategories[i].isAssignableFrom(category)) {
+                        matches.included.set(i);
+                    }
                 }
+                for (int i = 0; i < excludedCategories.length; i++) {
+                    if (excludedCategories[i].isAssignableFrom(category)) {
+                        matches.excluded.set(i);
+                    }
+                }
+                matchesByCategory.put(category, matches);
             }
-            return true;
-        }
-
-        private static Set<Class<?>> categories(Description description) {
-            Set<Class<?>> categories= new HashSet<Class<?>>();
-            Collections.addAll(categories, directCategories(description));
-            Collections.addAll(categories, directCategories(parentDescription(description)));
-            return categories;
-        }
-
-        private static Description parentDescription(Description description) {
-            Class<?> testClass= description.getTestClass();
-            return testClass == null ? null : Description.createSuiteDescription(testClass);
-        }
-
-        private static Class<?>[] directCategories(Description description) {
-            if (description == null) {
-                return new Class<?>[0];
-            }
-
-            Category annotation= description.getAnnotation(Category.class);
-            return annotation == null ? new Class<?>[0] : annotation.value();
+            return matches;
         }
 
         private static Set<Class<?>> copyAndRefine(Set<Class<?>> classes) {
@@ -301,6 +341,31 @@ public class Categories extends Suite {
             }
             return false;
         }
+
+        /**
+         * The included and excluded categories that are matched by a
+         * category, a test class or a test.
+         */
+        private static class CategoryMatches {
+            boolean hasCategories = false;
+            final BitSet included = new BitSet();
+            final BitSet excluded = new BitSet();
+            // whether a test with exactly these matches should run, if known;
+            // only used for the cached matches of categories and classes
+            volatile Boolean shouldRun = null;
+
+            void addAll(CategoryFilter filter, Class<?>[] categories) {
+                for (Class<?> each : categories) {
+                    add(filter.matchesOfCategory(each));
+                }
+            }
+
+            void add(CategoryMatches other) {
+                hasCategories |= other.hasCategories;
+                included.or(other.included);
+                excluded.or(other.excluded);
+            }
+        }
     }
 
     public Categories(Class<?> klass, RunnerBuilder builder) throws InitializationError {
@@ -337,15 +402,6 @@ public class Categories extends Suite {
         return annotation == null || annotation.matchAny();
     }
 
-    private static boolean hasAssignableTo(Set<Class<?>> assigns, Class<?> to) {
-        for (final Class<?> from : assigns) {
-            if (to.isAssignableFrom(from)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     private static Set<Class<?>> createSet(Class<?>... t) {
         final Set<Class<?>> set= new HashSet<Class<?>>();
         if (t != null) {
@@ -0,0 +1,145 @@
+package org.junit.experimental.max;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.junit.runner.Description;
+
+/**
+ * Predicts the duration of the tests of a {@link Description} tree from the
+ * durations recorded in a {@link MaxHistory}.
+ *
+ * <p>A test is expected to take as long as the moving average of its
+ * recorded durations. A test without a recorded duration is expected to take as long as the
+ * average recorded test of its class, or, if no test of its class has been
+ * recorded, as long as the average recorded test of the whole tree. A suite
+ * is expected to take as long as all of its tests together.
+ */
+class DurationPredictor {
+    private final MaxHistory history;
+
+    private final List<Description> leaves = new ArrayList<Description>();
+
+    private final Map<String, Average> classAverages = new HashMap<String, Average>();
+
+    private final Average overallAverage = new Average();
+
+    private final Map<Description, Long> expectedDurations = new HashMap<Description, Long>();
+
+    DurationPredictor(MaxHistory history, Description root) {
+        this.history = history;
+        collectLeaves(root);
+        for (Description each : leaves) {
+            Long duration = history.getExpectedDuration(each);
+            if (duration != null) {
+                classAverage(each).add(duration);
+                overallAverage.add(duration);
+            }
+        }
+    }
+
+    private void collectLeaves(Description description) {
+        if (description.getChildren().isEmpty()) {
+            leaves.add(description);
+        } else {
+            for (Description each : description.getChildren()) {
+                collectLeaves(each);
+            }
+        }
+    }
+
+    private Average classAverage(Description leaf) {
+        Average average = classAverages.get(leaf.getClassName());
+        if (average == null) {
+            average = new Average();
+            classAverages.put(leaf.getClassName(), average);
+        }
+        return average;
+    }
+
+    /**
+     * Returns the expected duration of {@code description} in nanoseconds.
+     */
+    long getExpectedDuration(Description description) {
+        Long expected = expectedDurations.get(description);
+        if (expected == null) {
+            expected = computeExpectedDuration(description);
+            expectedDurations.put(description, expected);
+        }
+        return expected;
+    }
+
+    private long computeExpectedDuration(Description description) {
+        if (description.getChildren().isEmpty()) {
+            Long duration = history.getExpectedDuration(description);
+            if (duration != null) {
+                return duration;
+            }
+            Average classAverage = classAverages.get(description.getClassName());
+            if (classAverage != null) {
+                return classAverage.get();
+            }
+            return overallAverage.get();
+        }
+        long sum = 0;
+        for (Description each : description.getChildren()) {
+            sum += getExpectedDuration(each);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns a comparator that ranks the tests that are expected to take
+     * longest first.
+     */
+    Comparator<Description> longestFirst() {
+        return new Comparator<Description>() {
+            public int compare(Description o1, Description o2) {
+                long expected1 = getExpectedDuration(o1);
+                long expected2 = getExpectedDuration(o2);
+                return expected1 > expected2 ? -1 : (expected1 == expected2 ? 0 : 1);
+            }
+        };
+    }
+
+    /**
+     * Returns the expected wall time in nanoseconds of running all tests on
+     * {@code parallelism} threads, if each test is given to the thread that
+     * becomes idle first and the longest tests are started first.
+     */
+    long predictWallTime(int parallelism) {
+        List<Description> longestFirst = new ArrayList<Description>(leaves);
+        Collections.sort(longestFirst, longestFirst());
+        PriorityQueue<Long> threadLoads = new PriorityQueue<Long>();
+        for (int i = 0; i < parallelism; i++) {
+            threadLoads.add(0L);
+        }
+        long wallTime = 0;
+        for (Description each : longestFirst) {
+            long load = threadLoads.poll() + getExpectedDuration(each);
+            threadLoads.add(load);
+            wallTime = Math.max(wallTime, load);
+        }
+        return wallTime;
+    }
+
+    private static class Average {
+        private long sum = 0;
+
+        private int count = 0;
+
+        void add(long value) {
+            sum += value;
+            count++;
+        }
+
+        long get() {
+            return count == 0 ? 0 : sum / count;
+        }
+    }
+}
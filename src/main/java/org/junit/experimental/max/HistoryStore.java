@@ -0,0 +1,417 @@
+package org.junit.experimental.max;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads and writes the recorded tests of a {@link MaxHistory} in a compact
+ * binary file.
+ *
+ * <p>The file starts with a magic number and a format version, followed by
+ * records of two kinds. A string record adds a class or method name to the
+ * string table of the file. A test record refers to the names of its test by
+ * their index in the string table and ends with the nonempty buckets of the
+ * histogram of its durations. If a file contains several records of a test,
+ * the last one is valid.
+ *
+ * <p>After a run only the records of the changed tests are appended. The
+ * whole file is rewritten, by writing a temporary file and renaming it, when
+ * it is created, when it has grown to more than twice the size needed for
+ * its tests or when its end is damaged, for example because a process has
+ * been killed while appending to it. A damaged end is ignored when reading.
+ *
+ * <p>Files of earlier versions, whose test records lack some of the values,
+ * are read as well and rewritten in the current version when the history is
+ * saved.
+ */
+final class HistoryStore {
+    private static final int MAGIC = 0x4A4D4158; // "JMAX"
+
+    private static final int VERSION = 5;
+
+    private static final int HEADER_LENGTH = 8;
+
+    private static final byte STRING_RECORD = 1;
+
+    private static final byte TEST_RECORD = 2;
+
+    // versions 2 to 4 recorded the last durations instead of a histogram
+    private static final int RECENT_DURATIONS = 8;
+
+    // the lengths of the test records of versions 1 to 5, without the
+    // buckets of version 5; versions 1 to 3 recorded a CPU time, which is
+    // skipped
+    private static final int[] TEST_RECORD_LENGTHS = {
+            1 + 4 + 4 + 8 + 8 + 8,
+            1 + 4 + 4 + 8 + 8 + 8 + 4 + 4 + 8 + 8 + 1 + 1 + 4 * RECENT_DURATIONS,
+            1 + 4 + 4 + 8 + 8 + 8 + 4 + 4 + 4 + 8 + 8 + 8 + 1 + 1 + 4 * RECENT_DURATIONS,
+            1 + 4 + 4 + 8 + 8 + 4 + 4 + 4 + 8 + 8 + 8 + 1 + 1 + 4 * RECENT_DURATIONS,
+            1 + 4 + 4 + 8 + 8 + 4 + 4 + 4 + 8 + 8 + 8 + 1 + 1};
+
+    private static final int BUCKET_LENGTH = 1 + 4;
+
+    private static final int REGRESSION_FLAG = 1;
+
+    private static final int NO_METHOD = -1;
+
+    private static final long NO_VALUE = Long.MIN_VALUE;
+
+    private static final TestStatistics NO_STATISTICS = new TestStatistics();
+
+    private static final int MIN_RECORDS_FOR_COMPACTION = 1024;
+
+    private final File file;
+
+    private final Map<String, Integer> stringIndices = new HashMap<String, Integer>();
+
+    private long validLength = 0;
+
+    private int testRecords = 0;
+
+    HistoryStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns whether {@code file} has been written by Java serialization,
+     * as all versions of {@link MaxHistory} before the binary format did.
+     */
+    static boolean isSerializedHistory(File file) {
+        try {
+            DataInputStream stream = new DataInputStream(new FileInputStream(file));
+            try {
+                return stream.readShort() == (short) 0xACED;
+            } finally {
+                stream.close();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Adds the tests recorded in the file to {@code durations},
+     * {@code failureTimestamps} and {@code statistics}. A damaged end of the
+     * file is ignored.
+     */
+    void load(Map<String, Long> durations, Map<String, Long> failureTimestamps,
+            Map<String, TestStatistics> statistics) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(readFile());
+        if (buffer.remaining() < HEADER_LENGTH || buffer.getInt() != MAGIC) {
+            throw new IOException(file + " is not a MaxHistory file");
+        }
+        int version = buffer.getInt();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported version " + version + " of " + file);
+        }
+        int testRecordLength = TEST_RECORD_LENGTHS[version - 1];
+        List<String> strings = new ArrayList<String>();
+        validLength = HEADER_LENGTH;
+        while (buffer.hasRemaining()) {
+            byte type = buffer.get();
+            if (type == STRING_RECORD && buffer.remaining() >= 4) {
+                int length = buffer.getInt();
+                if (length < 0 || buffer.remaining() < length) {
+                    break;
+                }
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                String string = new String(bytes, "UTF-8");
+                stringIndices.put(string, strings.size());
+                strings.add(string);
+            } else if (type == TEST_RECORD && buffer.remaining() >= testRecordLength - 1) {
+                int classIndex = buffer.getInt();
+                int methodIndex = buffer.getInt();
+                long duration = buffer.getLong();
+                long failureTimestamp = buffer.getLong();
+                if (version <= 3) {
+                    buffer.getLong(); // the CPU time
+                }
+                TestStatistics testStatistics = version == 1 ? statisticsOf(duration)
+                        : readStatistics(buffer, version);
+                if (classIndex < 0 || classIndex >= strings.size()
+                        || methodIndex < NO_METHOD || methodIndex >= strings.size()
+                        || testStatistics == null) {
+                    break;
+                }
+                String key = methodIndex == NO_METHOD ? strings.get(classIndex)
+                        : strings.get(methodIndex) + "(" + strings.get(classIndex) + ")";
+                put(durations, key, duration);
+                put(failureTimestamps, key, failureTimestamp);
+                if (testStatistics != NO_STATISTICS) {
+                    statistics.put(key, testStatistics);
+                } else if (!statistics.isEmpty()) {
+                    statistics.remove(key);
+                }
+                testRecords++;
+            } else {
+                break;
+            }
+            validLength = buffer.position();
+        }
+        if (version != VERSION) {
+            // records of the current version must not be appended
+            validLength = 0;
+        }
+    }
+
+    /**
+     * Reads the whole file into memory. It is not mapped, because a mapped
+     * file cannot be replaced on Windows until the mapping has been garbage
+     * collected.
+     */
+    private byte[] readFile() throws IOException {
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            long length = input.length();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large");
+            }
+            byte[] bytes = new byte[(int) length];
+            input.readFully(bytes);
+            return bytes;
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Returns the statistics of a test of a version 1 file, which only
+     * recorded the last duration of a test.
+     */
+    private static TestStatistics statisticsOf(long duration) {
+        if (duration == NO_VALUE) {
+            return NO_STATISTICS;
+        }
+        TestStatistics statistics = new TestStatistics();
+        statistics.addDuration(duration);
+        return statistics;
+    }
+
+    /**
+     * Reads the statistics of a test record, returning
+     * {@link #NO_STATISTICS} for a test without runs and failures and
+     * {@code null} if the values are invalid. Version 2 records lack the
+     * values about flaky runs, and the last durations of version 2 to 4
+     * records are added to an empty histogram.
+     */
+    private static TestStatistics readStatistics(ByteBuffer buffer, int version) {
+        int runCount = buffer.getInt();
+        int failureCount = buffer.getInt();
+        int flakyCount = version == 2 ? 0 : buffer.getInt();
+        double flakiness = version == 2 ? 0 : buffer.getDouble();
+        double mean = buffer.getDouble();
+        double variance = buffer.getDouble();
+        byte flags = buffer.get();
+        int count = buffer.get() & 0xFF;
+        int[] recentMicros = new int[0];
+        int[] buckets = new int[0];
+        float[] bucketWeights = new float[0];
+        if (version < 5) {
+            recentMicros = new int[RECENT_DURATIONS];
+            for (int i = 0; i < recentMicros.length; i++) {
+                recentMicros[i] = buffer.getInt();
+            }
+            if (count > RECENT_DURATIONS) {
+                return null;
+            }
+        } else {
+            if (count > TestStatistics.BUCKETS || buffer.remaining() < count * BUCKET_LENGTH) {
+                return null;
+            }
+            buckets = new int[count];
+            bucketWeights = new float[count];
+            for (int i = 0; i < count; i++) {
+                buckets[i] = buffer.get() & 0xFF;
+                bucketWeights[i] = buffer.getFloat();
+                if (buckets[i] >= TestStatistics.BUCKETS || (i > 0 && buckets[i] <= buckets[i - 1])
+                        || !(bucketWeights[i] > 0)) {
+                    return null;
+                }
+            }
+        }
+        if (runCount < 0 || failureCount < 0 || flakyCount < 0) {
+            return null;
+        }
+        if (runCount == 0 && failureCount == 0) {
+            return NO_STATISTICS;
+        }
+        TestStatistics statistics = new TestStatistics(runCount, failureCount, flakyCount,
+                flakiness, mean, variance, (flags & REGRESSION_FLAG) != 0, buckets, bucketWeights);
+        for (int i = 0; i < count && version < 5; i++) {
+            statistics.addToHistogram(recentMicros[i] * 1000L);
+        }
+        return statistics;
+    }
+
+    private static void put(Map<String, Long> values, String key, long value) {
+        if (value == NO_VALUE) {
+            if (!values.isEmpty()) {
+                values.remove(key);
+            }
+        } else {
+            values.put(key, value);
+        }
+    }
+
+    /**
+     * Writes the {@code changedTests} to the file, or rewrites the file with
+     * all tests if it should be compacted.
+     */
+    void save(Map<String, Long> durations, Map<String, Long> failureTimestamps,
+            Map<String, TestStatistics> statistics, Collection<String> changedTests)
+            throws IOException {
+        Set<String> allTests = new HashSet<String>(durations.keySet());
+        allTests.addAll(failureTimestamps.keySet());
+        allTests.addAll(statistics.keySet());
+        if (validLength == 0 || validLength != file.length()
+                || shouldCompact(allTests.size(), changedTests.size())) {
+            rewrite(durations, failureTimestamps, statistics, allTests);
+        } else {
+            append(durations, failureTimestamps, statistics, changedTests);
+        }
+    }
+
+    private boolean shouldCompact(int tests, int changedTests) {
+        int records = testRecords + changedTests;
+        return records > MIN_RECORDS_FOR_COMPACTION && records > 2 * tests;
+    }
+
+    private void append(Map<String, Long> durations, Map<String, Long> failureTimestamps,
+            Map<String, TestStatistics> statistics, Collection<String> tests)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        writeTests(output, durations, failureTimestamps, statistics, tests);
+        output.flush();
+        // a single write, so that a damaged end is only a part of this run
+        long lengthBefore = validLength;
+        validLength = 0; // rewrite if the file cannot be appended to
+        FileOutputStream stream = new FileOutputStream(file, true);
+        try {
+            bytes.writeTo(stream);
+        } finally {
+            stream.close();
+        }
+        validLength = lengthBefore + bytes.size();
+    }
+
+    private void rewrite(Map<String, Long> durations, Map<String, Long> failureTimestamps,
+            Map<String, TestStatistics> statistics, Collection<String> tests)
+            throws IOException {
+        stringIndices.clear();
+        testRecords = 0;
+        validLength = 0;
+        File tmp = new File(file.getPath() + ".tmp");
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(tmp)));
+        try {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            writeTests(output, durations, failureTimestamps, statistics, tests);
+        } finally {
+            output.close();
+        }
+        if (!tmp.renameTo(file)) {
+            // renaming doesn't replace existing files on all platforms
+            file.delete();
+            if (!tmp.renameTo(file)) {
+                throw new IOException("Could not replace " + file);
+            }
+        }
+        validLength = file.length();
+    }
+
+    private void writeTests(DataOutputStream output, Map<String, Long> durations,
+            Map<String, Long> failureTimestamps, Map<String, TestStatistics> statistics,
+            Collection<String> tests) throws IOException {
+        for (String each : tests) {
+            int classIndex;
+            int methodIndex;
+            int classStart = classStart(each);
+            if (classStart == -1) {
+                classIndex = writeString(output, each);
+                methodIndex = NO_METHOD;
+            } else {
+                classIndex = writeString(output, each.substring(classStart, each.length() - 1));
+                methodIndex = writeString(output, each.substring(0, classStart - 1));
+            }
+            output.writeByte(TEST_RECORD);
+            output.writeInt(classIndex);
+            output.writeInt(methodIndex);
+            output.writeLong(get(durations, each));
+            output.writeLong(get(failureTimestamps, each));
+            writeStatistics(output, statistics.get(each));
+            testRecords++;
+        }
+    }
+
+    private static void writeStatistics(DataOutputStream output, TestStatistics statistics)
+            throws IOException {
+        if (statistics == null) {
+            statistics = NO_STATISTICS;
+        }
+        // the values of a test that is being run must be consistent
+        synchronized (statistics) {
+            int[] buckets = statistics.getBuckets();
+            float[] bucketWeights = statistics.getBucketWeights();
+            output.writeInt(statistics.getRunCount());
+            output.writeInt(statistics.getFailureCount());
+            output.writeInt(statistics.getFlakyCount());
+            output.writeDouble(statistics.getFlakiness());
+            output.writeDouble(statistics.getMean());
+            output.writeDouble(statistics.getVariance());
+            output.writeByte(statistics.isRegression() ? REGRESSION_FLAG : 0);
+            output.writeByte(buckets.length);
+            for (int i = 0; i < buckets.length; i++) {
+                output.writeByte(buckets[i]);
+                output.writeFloat(bucketWeights[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the class name in a key of the form
+     * {@code method(class)}, or {@code -1} if the key has another form.
+     */
+    private static int classStart(String key) {
+        if (!key.endsWith(")")) {
+            return -1;
+        }
+        int start = key.lastIndexOf('(') + 1;
+        return start == 0 ? -1 : start;
+    }
+
+    private static long get(Map<String, Long> values, String key) {
+        Long value = values.get(key);
+        return value == null ? NO_VALUE : value;
+    }
+
+    private int writeString(DataOutputStream output, String string) throws IOException {
+        Integer index = stringIndices.get(string);
+        if (index == null) {
+            index = stringIndices.size();
+            stringIndices.put(string, index);
+            byte[] bytes = string.getBytes("UTF-8");
+            output.writeByte(STRING_RECORD);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+        return index;
+    }
+}
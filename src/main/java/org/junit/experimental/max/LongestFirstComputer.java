@@ -0,0 +1,87 @@
+package org.junit.experimental.max;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.runner.Computer;
+import org.junit.runner.Result;
+import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Sortable;
+import org.junit.runner.manipulation.Sorter;
+import org.junit.runner.notification.RunListener;
+import org.junit.runners.ParentRunner;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerBuilder;
+import org.junit.runners.model.SharedRunnerScheduler;
+
+/**
+ * A {@link Computer} that runs classes and methods in parallel and starts the
+ * tests that are expected to take longest first, which keeps the slowest
+ * tests from delaying the end of the run. The expected durations are taken
+ * from a {@link MaxHistory}; a test that has not been run before is expected
+ * to take as long as the average test of its class.
+ *
+ * <pre>
+ * MaxHistory history = MaxHistory.forFolder(new File("max-history.ser"));
+ * LongestFirstComputer computer = new LongestFirstComputer(history, 8);
+ * JUnitCore core = new JUnitCore();
+ * core.addListener(history.listener());
+ * core.addListener(computer.reporter(System.out));
+ * core.run(computer, classes);
+ * </pre>
+ *
+ * @since 4.13
+ */
+public class LongestFirstComputer extends Computer {
+    private final MaxHistory history;
+
+    private final SharedRunnerScheduler scheduler;
+
+    private volatile long predictedRunTime = 0;
+
+    public LongestFirstComputer(MaxHistory history, int parallelism) {
+        this.history = history;
+        this.scheduler = new SharedRunnerScheduler(parallelism);
+    }
+
+    @Override
+    public Runner getSuite(RunnerBuilder builder, Class<?>[] classes)
+            throws InitializationError {
+        Runner suite = super.getSuite(builder, classes);
+        DurationPredictor predictor = new DurationPredictor(history, suite.getDescription());
+        if (suite instanceof Sortable) {
+            ((Sortable) suite).sort(new Sorter(predictor.longestFirst()));
+        }
+        predictedRunTime = TimeUnit.NANOSECONDS.toMillis(
+                predictor.predictWallTime(scheduler.getParallelism()));
+        if (suite instanceof ParentRunner) {
+            ((ParentRunner<?>) suite).setScheduler(scheduler);
+        }
+        return suite;
+    }
+
+    @Override
+    protected Runner getRunner(RunnerBuilder builder, Class<?> testClass)
+            throws Throwable {
+        Runner runner = super.getRunner(builder, testClass);
+        if (runner instanceof ParentRunner) {
+            ((ParentRunner<?>) runner).setScheduler(scheduler);
+        }
+        return runner;
+    }
+
+    /**
+     * Returns a listener that prints, when the run has finished, how many
+     * milliseconds the last suite created by this computer was expected to
+     * run, based on the recorded durations, and how long the run took.
+     */
+    public RunListener reporter(final PrintStream writer) {
+        return new RunListener() {
+            @Override
+            public void testRunFinished(Result result) {
+                writer.println("Predicted time: " + predictedRunTime + " ms, actual time: "
+                        + result.getRunTime() + " ms");
+            }
+        };
+    }
+}
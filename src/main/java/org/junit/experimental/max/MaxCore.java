@@ -3,7 +3,18 @@ package org.junit.experimental.max;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import junit.framework.TestSuite;
 import org.junit.internal.requests.SortingRequest;
@@ -14,8 +25,17 @@ import org.junit.runner.JUnitCore;
 import org.junit.runner.Request;
 import org.junit.runner.Result;
 import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.Filterable;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.manipulation.Sortable;
+import org.junit.runner.manipulation.Sorter;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.ParentRunner;
 import org.junit.runners.Suite;
 import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.SharedRunnerScheduler;
 
 /**
  * A replacement for JUnitCore, which keeps track of runtime and failure history, and reorders tests
@@ -28,6 +48,26 @@ import org.junit.runners.model.InitializationError;
  * <li> Sort groups such that the most recent failure date is first, and never-failing tests are at the end.
  * <li> Within a group, run the fastest tests first.
  * </ol>
+ *
+ * The tests of a class that are in the same group are run by a single runner
+ * for the class, so that its class fixtures ({@code @BeforeClass},
+ * {@code @ClassRule}) are set up once per group and not once per test. Within
+ * a group, the classes are ordered by their first test, so the tests of
+ * different classes are not interleaved.
+ *
+ * If a class has tests in several groups, its tests of a later group are
+ * either run by a runner of their own, which sets up the class fixtures
+ * again, or run right after the tests of the class in its previous group, which
+ * delays the tests in between. The tests are moved if setting up the
+ * fixtures again is expected to cost more than the delay of the first failure
+ * in between: the expected duration of the moved tests times the probability
+ * that any test in between fails. The cost of the fixtures of a class is
+ * recorded whenever MaxCore runs it, and the probability that a test fails is
+ * estimated from its recorded runs and failures.
+ *
+ * Tests that are {@link MaxHistory#isQuarantined(Description) quarantined}
+ * because they are chronically flaky are run after all other tests, in
+ * parallel, so that they don't delay the results of the other tests.
  */
 public class MaxCore {
     private static final String MALFORMED_JUNIT_3_TEST_CLASS_PREFIX = "malformed JUnit 3 test class: ";
@@ -97,15 +137,35 @@ public class MaxCore {
             // We'll pay big karma points for this
             return request;
         }
-        List<Description> leaves = findLeaves(request);
+        Description root = request.getRunner().getDescription();
+        List<Description> leaves = findLeaves(root);
         Collections.sort(leaves, history.testComparator());
-        return constructLeafRequest(leaves);
+        List<Description> quarantinedLeaves = new ArrayList<Description>();
+        for (Iterator<Description> iterator = leaves.iterator(); iterator.hasNext(); ) {
+            Description each = iterator.next();
+            if (history.isQuarantined(each)) {
+                quarantinedLeaves.add(each);
+                iterator.remove();
+            }
+        }
+        return constructLeafRequest(leaves, quarantinedLeaves,
+                new DurationPredictor(history, root));
     }
 
-    private Request constructLeafRequest(List<Description> leaves) {
-        final List<Runner> runners = new ArrayList<Runner>();
-        for (Description each : leaves) {
-            runners.add(buildRunner(each));
+    private Request constructLeafRequest(List<Description> leaves,
+            List<Description> quarantinedLeaves, DurationPredictor predictor) {
+        final List<Runner> runners = buildRunners(groupLeaves(leaves, predictor));
+        if (!quarantinedLeaves.isEmpty()) {
+            try {
+                ParentRunner<?> quarantine = new Suite((Class<?>) null,
+                        buildRunners(groupLeaves(quarantinedLeaves, predictor))) {
+                };
+                quarantine.setScheduler(new SharedRunnerScheduler(
+                        Runtime.getRuntime().availableProcessors()));
+                runners.add(quarantine);
+            } catch (InitializationError e) {
+                runners.add(new ErrorReportingRunner(null, e));
+            }
         }
         return new Request() {
             @Override
@@ -120,6 +180,342 @@ public class MaxCore {
         };
     }
 
+    private List<Runner> buildRunners(List<LeafGroup> groups) {
+        List<Runner> runners = new ArrayList<Runner>();
+        for (LeafGroup each : groups) {
+            runners.add(each.buildRunner());
+        }
+        return runners;
+    }
+
+    /**
+     * Groups the sorted leaves by class within each group of equally ranked
+     * tests, keeping the order of the leaves within each class. Then moves
+     * the tests of a class in a later group to its first group where the
+     * cost model favours it.
+     */
+    private List<LeafGroup> groupLeaves(List<Description> sortedLeaves,
+            DurationPredictor predictor) {
+        List<LeafGroup> groups = groupLeavesByRank(sortedLeaves);
+        mergeWhereCheaper(groups, predictor);
+        return groups;
+    }
+
+    private List<LeafGroup> groupLeavesByRank(List<Description> sortedLeaves) {
+        List<LeafGroup> groups = new ArrayList<LeafGroup>();
+        Map<Class<?>, List<ClassLeaves>> groupsOfRank = new LinkedHashMap<Class<?>, List<ClassLeaves>>();
+        Description previous = null;
+        for (Description each : sortedLeaves) {
+            if (previous != null && !isEquallyRanked(previous, each)) {
+                addAll(groupsOfRank, groups);
+            }
+            previous = each;
+            Class<?> type = each.getTestClass();
+            if (type == null || each.getMethodName() == null) {
+                // cannot be filtered from a runner for its class
+                addAll(groupsOfRank, groups);
+                groups.add(new SingleLeaf(each));
+                continue;
+            }
+            List<ClassLeaves> groupsOfClass = groupsOfRank.get(type);
+            if (groupsOfClass == null) {
+                groupsOfClass = new ArrayList<ClassLeaves>();
+                groupsOfRank.put(type, groupsOfClass);
+            }
+            addToFirstGroupWithout(groupsOfClass, type, each);
+        }
+        addAll(groupsOfRank, groups);
+        return groups;
+    }
+
+    private void mergeWhereCheaper(List<LeafGroup> groups, DurationPredictor predictor) {
+        Map<Class<?>, Integer> previousGroups = new HashMap<Class<?>, Integer>();
+        for (int i = 0; i < groups.size(); i++) {
+            if (!(groups.get(i) instanceof ClassLeaves)) {
+                continue;
+            }
+            ClassLeaves group = (ClassLeaves) groups.get(i);
+            Integer previous = previousGroups.get(group.type);
+            if (previous != null && ((ClassLeaves) groups.get(previous)).isSortable()
+                    && isMergeCheaper(groups, previous, i, predictor)
+                    && ((ClassLeaves) groups.get(previous)).addAll(group)) {
+                groups.remove(i);
+                i--;
+            } else {
+                previousGroups.put(group.type, i);
+            }
+        }
+    }
+
+    /**
+     * Returns whether running the group {@code later} right after the group
+     * {@code previous} of the same class is expected to cost less than
+     * setting up the fixtures of the class again.
+     */
+    private boolean isMergeCheaper(List<LeafGroup> groups, int previous, int later,
+            DurationPredictor predictor) {
+        Long fixtureDuration = history.getExpectedFixtureDuration(
+                ((ClassLeaves) groups.get(later)).type.getName());
+        if (fixtureDuration == null) {
+            return false;
+        }
+        double failureProbability = 0;
+        for (int i = previous + 1; i < later && failureProbability < 1; i++) {
+            for (Description each : groups.get(i).getLeaves()) {
+                failureProbability += getFailureProbability(each);
+            }
+        }
+        long delay = 0;
+        for (Description each : groups.get(later).getLeaves()) {
+            delay += predictor.getExpectedDuration(each);
+        }
+        return fixtureDuration > delay * Math.min(1, failureProbability);
+    }
+
+    private double getFailureProbability(Description leaf) {
+        if (history.isNewTest(leaf)) {
+            return 0.5;
+        }
+        // with a uniform prior, so that a test that has never failed may still fail
+        return (history.getFailureCount(leaf) + 1.0) / (history.getRunCount(leaf) + 2.0);
+    }
+
+    private boolean isEquallyRanked(Description first, Description second) {
+        if (history.isNewTest(first) || history.isNewTest(second)) {
+            return history.isNewTest(first) && history.isNewTest(second);
+        }
+        Long firstFailure = history.getFailureTimestamp(first);
+        Long secondFailure = history.getFailureTimestamp(second);
+        return firstFailure == null ? secondFailure == null : firstFailure.equals(secondFailure);
+    }
+
+    private void addToFirstGroupWithout(List<ClassLeaves> groupsOfClass, Class<?> type,
+            Description leaf) {
+        for (ClassLeaves each : groupsOfClass) {
+            if (each.add(leaf)) {
+                return;
+            }
+        }
+        // the request contains the test more than once
+        ClassLeaves group = new ClassLeaves(type);
+        group.add(leaf);
+        groupsOfClass.add(group);
+    }
+
+    private void addAll(Map<Class<?>, List<ClassLeaves>> groupsOfRank, List<LeafGroup> groups) {
+        for (List<ClassLeaves> each : groupsOfRank.values()) {
+            groups.addAll(each);
+        }
+        groupsOfRank.clear();
+    }
+
+    private interface LeafGroup {
+        List<Description> getLeaves();
+
+        Runner buildRunner();
+    }
+
+    private class SingleLeaf implements LeafGroup {
+        private final Description leaf;
+
+        SingleLeaf(Description leaf) {
+            this.leaf = leaf;
+        }
+
+        public List<Description> getLeaves() {
+            return Collections.singletonList(leaf);
+        }
+
+        public Runner buildRunner() {
+            return MaxCore.this.buildRunner(leaf);
+        }
+    }
+
+    /**
+     * Leaves of a class that are run by a single runner, in the order in
+     * which they have been added.
+     */
+    private class ClassLeaves implements LeafGroup {
+        private final Class<?> type;
+
+        private final List<Description> leaves = new ArrayList<Description>();
+
+        private final Set<Description> leafSet = new HashSet<Description>();
+
+        private Runner runner;
+
+        ClassLeaves(Class<?> type) {
+            this.type = type;
+        }
+
+        boolean add(Description leaf) {
+            if (leafSet.add(leaf)) {
+                leaves.add(leaf);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Adds all leaves of {@code other}, unless one of them has already
+         * been added.
+         */
+        boolean addAll(ClassLeaves other) {
+            if (!Collections.disjoint(leafSet, other.leafSet)) {
+                return false;
+            }
+            for (Description each : other.leaves) {
+                add(each);
+            }
+            return true;
+        }
+
+        public List<Description> getLeaves() {
+            return leaves;
+        }
+
+        /**
+         * Returns whether the runner of this group runs the tests in the
+         * order of their {@link LeafOrder}, which is only guaranteed for a
+         * {@link ParentRunner}.
+         */
+        boolean isSortable() {
+            return getClassRunner() instanceof ParentRunner;
+        }
+
+        private Runner getClassRunner() {
+            if (runner == null) {
+                runner = Request.aClass(type).getRunner();
+            }
+            return runner;
+        }
+
+        public Runner buildRunner() {
+            return new FixtureTimingRunner(type, Request.runner(getClassRunner())
+                    .filterWith(Filter.matchMethodDescriptions(leaves))
+                    .sortWith(new LeafOrder(leaves))
+                    .getRunner());
+        }
+    }
+
+    /**
+     * Runs the tests of a class and records how much longer that takes than
+     * the tests themselves, which is the cost of setting up and tearing down
+     * the fixtures of the class.
+     */
+    private class FixtureTimingRunner extends Runner implements Filterable, Sortable {
+        private final Class<?> type;
+
+        private final Runner runner;
+
+        FixtureTimingRunner(Class<?> type, Runner runner) {
+            this.type = type;
+            this.runner = runner;
+        }
+
+        @Override
+        public Description getDescription() {
+            return runner.getDescription();
+        }
+
+        @Override
+        public void run(RunNotifier notifier) {
+            TestTimeListener listener = new TestTimeListener(type.getName());
+            notifier.addListener(listener);
+            long start = System.nanoTime();
+            try {
+                runner.run(notifier);
+            } finally {
+                long duration = System.nanoTime() - start;
+                notifier.removeListener(listener);
+                if (listener.testCount.get() > 0) {
+                    history.putFixtureDuration(type.getName(),
+                            Math.max(0, duration - listener.testDuration.get()));
+                }
+            }
+        }
+
+        public void filter(Filter filter) throws NoTestsRemainException {
+            filter.apply(runner);
+        }
+
+        public void sort(Sorter sorter) {
+            sorter.apply(runner);
+        }
+    }
+
+    /**
+     * Sums up the durations of the tests of a class.
+     */
+    @RunListener.ThreadSafe
+    private static class TestTimeListener extends RunListener {
+        private final String className;
+
+        private final Map<Description, Long> starts = new ConcurrentHashMap<Description, Long>();
+
+        final AtomicInteger testCount = new AtomicInteger();
+
+        final AtomicLong testDuration = new AtomicLong();
+
+        TestTimeListener(String className) {
+            this.className = className;
+        }
+
+        @Override
+        public void testStarted(Description description) {
+            if (className.equals(description.getClassName())) {
+                starts.put(description, System.nanoTime());
+            }
+        }
+
+        @Override
+        public void testFinished(Description description) {
+            Long start = starts.remove(description);
+            if (start != null) {
+                testCount.incrementAndGet();
+                testDuration.addAndGet(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Orders descriptions by the position of their first leaf in a list of
+     * leaves.
+     */
+    private static class LeafOrder implements Comparator<Description> {
+        private final Map<Description, Integer> leafPositions = new HashMap<Description, Integer>();
+
+        private final Map<Description, Integer> suitePositions = new IdentityHashMap<Description, Integer>();
+
+        LeafOrder(List<Description> leaves) {
+            for (int i = 0; i < leaves.size(); i++) {
+                leafPositions.put(leaves.get(i), i);
+            }
+        }
+
+        public int compare(Description o1, Description o2) {
+            int position1 = getPosition(o1);
+            int position2 = getPosition(o2);
+            return position1 < position2 ? -1 : (position1 == position2 ? 0 : 1);
+        }
+
+        private int getPosition(Description description) {
+            if (description.isTest()) {
+                Integer position = leafPositions.get(description);
+                return position == null ? Integer.MAX_VALUE : position;
+            }
+            Integer position = suitePositions.get(description);
+            if (position == null) {
+                position = Integer.MAX_VALUE;
+                for (Description each : description.getChildren()) {
+                    position = Math.min(position, getPosition(each));
+                }
+                suitePositions.put(description, position);
+            }
+            return position;
+        }
+    }
+
     private Runner buildRunner(Description each) {
         if (each.toString().equals("TestSuite with 0 tests")) {
             return Suite.emptySuite();
@@ -160,8 +556,12 @@ public class MaxCore {
     }
 
     private List<Description> findLeaves(Request request) {
+        return findLeaves(request.getRunner().getDescription());
+    }
+
+    private List<Description> findLeaves(Description root) {
         List<Description> results = new ArrayList<Description>();
-        findLeaves(null, request.getRunner().getDescription(), results);
+        findLeaves(null, root, results);
         return results;
     }
 
@@ -2,14 +2,15 @@ package org.junit.experimental.max;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.junit.runner.Description;
 import org.junit.runner.Result;
@@ -21,25 +22,48 @@ import org.junit.runner.notification.RunListener;
  * <ul>
  * <li>Last failure timestamp
  * <li>Duration of last execution
+ * <li>Expected duration, variance and a histogram of durations over all executions
+ * <li>Number of executions, failures and flaky executions, and flakiness
  * </ul>
+ *
+ * The history is stored in a compact binary file, to which only the changes
+ * of each run are appended. Files written by Java serialization, as earlier
+ * versions did, are still read and replaced by the binary format when the
+ * history is saved.
  */
 public class MaxHistory implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    // distinguishes the durations of class fixtures from those of tests,
+    // whose keys are display names like "method(org.example.ExampleTest)"
+    private static final String FIXTURE_KEY_PREFIX = "fixture of ";
+
     /**
      * Loads a {@link MaxHistory} from {@code file}, or generates a new one that
      * will be saved to {@code file}.
      */
     public static MaxHistory forFolder(File file) {
+        MaxHistory history = new MaxHistory(file);
         if (file.exists()) {
             try {
-                return readHistory(file);
+                if (HistoryStore.isSerializedHistory(file)) {
+                    MaxHistory serialized = readHistory(file);
+                    for (Map.Entry<String, Long> each : serialized.fDurations.entrySet()) {
+                        history.putTestDuration(each.getKey(), each.getValue());
+                    }
+                    history.fFailureTimestamps.putAll(serialized.fFailureTimestamps);
+                } else {
+                    history.store.load(history.fDurations, history.fFailureTimestamps,
+                            history.fStatistics);
+                }
             } catch (CouldNotReadCoreException e) {
+                // the file is replaced when the history is saved
+                e.printStackTrace();
+            } catch (IOException e) {
                 e.printStackTrace();
-                file.delete();
             }
         }
-        return new MaxHistory(file);
+        return history;
     }
 
     private static MaxHistory readHistory(File storedResults)
@@ -66,19 +90,33 @@ public class MaxHistory implements Serializable {
      * serialization compatibility. 
      * See https://github.com/junit-team/junit/issues/976
      */
-    private final Map<String, Long> fDurations = new HashMap<String, Long>();
-    private final Map<String, Long> fFailureTimestamps = new HashMap<String, Long>();
+    private final Map<String, Long> fDurations = new ConcurrentHashMap<String, Long>();
+    private final Map<String, Long> fFailureTimestamps = new ConcurrentHashMap<String, Long>();
+    private final ConcurrentMap<String, TestStatistics> fStatistics =
+            new ConcurrentHashMap<String, TestStatistics>();
     private final File fHistoryStore;
+    private transient HistoryStore store;
+    private transient Map<String, Boolean> changedTests;
 
     private MaxHistory(File storedResults) {
         fHistoryStore = storedResults;
+        initTransientFields();
+    }
+
+    private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        initTransientFields();
+    }
+
+    private void initTransientFields() {
+        store = new HistoryStore(fHistoryStore);
+        changedTests = new ConcurrentHashMap<String, Boolean>();
     }
 
-    private void save() throws IOException {
-        ObjectOutputStream stream = new ObjectOutputStream(new FileOutputStream(
-                fHistoryStore));
-        stream.writeObject(this);
-        stream.close();
+    private synchronized void save() throws IOException {
+        List<String> savedTests = new ArrayList<String>(changedTests.keySet());
+        store.save(fDurations, fFailureTimestamps, fStatistics, savedTests);
+        changedTests.keySet().removeAll(savedTests);
     }
 
     Long getFailureTimestamp(Description key) {
@@ -87,6 +125,8 @@ public class MaxHistory implements Serializable {
 
     void putTestFailureTimestamp(Description key, long end) {
         fFailureTimestamps.put(key.toString(), end);
+        getStatistics(key.toString()).addFailure();
+        changedTests.put(key.toString(), Boolean.TRUE);
     }
 
     boolean isNewTest(Description key) {
@@ -98,25 +138,170 @@ public class MaxHistory implements Serializable {
     }
 
     void putTestDuration(Description description, long duration) {
-        fDurations.put(description.toString(), duration);
+        putTestDuration(description.toString(), duration);
+    }
+
+    private void putTestDuration(String key, long duration) {
+        fDurations.put(key, duration);
+        getStatistics(key).addDuration(duration);
+        changedTests.put(key, Boolean.TRUE);
+    }
+
+    private TestStatistics getStatistics(String key) {
+        TestStatistics statistics = fStatistics.get(key);
+        if (statistics == null) {
+            TestStatistics created = new TestStatistics();
+            statistics = fStatistics.putIfAbsent(key, created);
+            if (statistics == null) {
+                statistics = created;
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Returns the expected duration of {@code test} in nanoseconds, which is
+     * an exponentially weighted moving average of its recorded durations, or
+     * {@code null} if no duration has been recorded.
+     *
+     * @since 4.13
+     */
+    public Long getExpectedDuration(Description test) {
+        return getExpectedDuration(test.toString());
+    }
+
+    private Long getExpectedDuration(String key) {
+        TestStatistics statistics = fStatistics.get(key);
+        if (statistics == null || statistics.getRunCount() == 0) {
+            return null;
+        }
+        return Math.round(statistics.getMean());
+    }
+
+    /**
+     * Returns the expected time in nanoseconds that running the tests of the
+     * class {@code className} takes in addition to the tests themselves, e.g.
+     * for its {@code @BeforeClass} methods and class rules, or {@code null}
+     * if it has not been recorded.
+     */
+    Long getExpectedFixtureDuration(String className) {
+        return getExpectedDuration(FIXTURE_KEY_PREFIX + className);
+    }
+
+    void putFixtureDuration(String className, long duration) {
+        putTestDuration(FIXTURE_KEY_PREFIX + className, duration);
+    }
+
+    /**
+     * Returns an estimate of the given quantile of the durations of
+     * {@code test} in nanoseconds, for example the 95th percentile for a
+     * {@code quantile} of {@code 0.95}, or {@code null} if no duration has
+     * been recorded. Recent durations weigh more than earlier ones, and the
+     * estimate is at most 19% off.
+     *
+     * @since 4.13
+     */
+    public Long getDurationQuantile(Description test, double quantile) {
+        TestStatistics statistics = fStatistics.get(test.toString());
+        if (statistics == null || statistics.getRunCount() == 0) {
+            return null;
+        }
+        return statistics.getQuantile(quantile);
     }
 
+    /**
+     * Returns the number of recorded runs of {@code test}.
+     *
+     * @since 4.13
+     */
+    public int getRunCount(Description test) {
+        TestStatistics statistics = fStatistics.get(test.toString());
+        return statistics == null ? 0 : statistics.getRunCount();
+    }
+
+    /**
+     * Returns the number of recorded failures of {@code test}.
+     *
+     * @since 4.13
+     */
+    public int getFailureCount(Description test) {
+        TestStatistics statistics = fStatistics.get(test.toString());
+        return statistics == null ? 0 : statistics.getFailureCount();
+    }
+
+    /**
+     * Returns the number of recorded runs of {@code test} that failed, but
+     * passed when the test was run again.
+     *
+     * @since 4.13
+     */
+    public int getFlakyCount(Description test) {
+        TestStatistics statistics = fStatistics.get(test.toString());
+        return statistics == null ? 0 : statistics.getFlakyCount();
+    }
+
+    /**
+     * Returns whether {@code test} is chronically flaky. {@link MaxCore} runs
+     * such tests last and in parallel, so that they don't delay the results
+     * of the other tests. A test is quarantined if it has been flaky at least
+     * three times, and in a significant share of its recent runs: the moving
+     * average of its runs being flaky is at least 0.15.
+     *
+     * @since 4.13
+     */
+    public boolean isQuarantined(Description test) {
+        TestStatistics statistics = fStatistics.get(test.toString());
+        return statistics != null && statistics.isQuarantined();
+    }
+
+    void putTestFlakiness(Description test, boolean flaky) {
+        getStatistics(test.toString()).addFlakiness(flaky);
+        changedTests.put(test.toString(), Boolean.TRUE);
+    }
+
+    /**
+     * Returns whether the latest duration of {@code test} is a significant
+     * regression: it is more than three standard deviations and more than
+     * half of the expected duration longer than the durations before. At
+     * least five earlier durations are needed to detect a regression.
+     *
+     * @since 4.13
+     */
+    public boolean isDurationRegression(Description test) {
+        TestStatistics statistics = fStatistics.get(test.toString());
+        return statistics != null && statistics.isRegression();
+    }
+
+    /**
+     * Records the tests of a run. The tests may be run in parallel.
+     */
+    @RunListener.ThreadSafe
     private final class RememberingListener extends RunListener {
-        private long overallStart = System.currentTimeMillis();
+        private final long overallStart = System.currentTimeMillis();
 
-        private Map<Description, Long> starts = new HashMap<Description, Long>();
+        private final Map<Description, Long> startTimes = new ConcurrentHashMap<Description, Long>();
+
+        private final Map<Description, Boolean> flakyTests = new ConcurrentHashMap<Description, Boolean>();
 
         @Override
         public void testStarted(Description description) throws Exception {
-            starts.put(description, System.nanoTime()); // Get most accurate
-            // possible time
+            startTimes.put(description, System.nanoTime());
         }
 
         @Override
         public void testFinished(Description description) throws Exception {
-            long end = System.nanoTime();
-            long start = starts.get(description);
+            long end = System.nanoTime(); // Get most accurate possible time
+            Long start = startTimes.remove(description);
+            if (start == null) {
+                return;
+            }
             putTestDuration(description, end - start);
+            putTestFlakiness(description, flakyTests.remove(description) != null);
+        }
+
+        @Override
+        public void testFlaky(Failure failure) throws Exception {
+            flakyTests.put(failure.getDescription(), Boolean.TRUE);
         }
 
         @Override
@@ -143,7 +328,12 @@ public class MaxHistory implements Serializable {
             int result = getFailure(o2).compareTo(getFailure(o1));
             return result != 0 ? result
                     // Then shorter tests first
-                    : getTestDuration(o1).compareTo(getTestDuration(o2));
+                    : getDuration(o1).compareTo(getDuration(o2));
+        }
+
+        private Long getDuration(Description key) {
+            Long result = getExpectedDuration(key);
+            return result == null ? getTestDuration(key) : result;
         }
 
         private Long getFailure(Description key) {
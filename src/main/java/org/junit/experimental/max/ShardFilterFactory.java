@@ -0,0 +1,231 @@
+package org.junit.experimental.max;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.junit.runner.Description;
+import org.junit.runner.FilterFactory;
+import org.junit.runner.FilterFactoryParams;
+import org.junit.runner.manipulation.Filter;
+
+/**
+ * {@link FilterFactory} that splits the tests of a run into a number of
+ * shards and keeps only the tests of one of them, so that a suite can be
+ * spread over several processes or machines.
+ *
+ * <p>Each shard computes the same partition on its own, without any
+ * coordination: if a {@link MaxHistory} is given, the tests are distributed
+ * longest first to the shard with the least expected duration so far, so that
+ * all shards take about the same time. All shards must then read the same
+ * history. Without a history, each test is assigned by a stable hash of its
+ * name.
+ *
+ * Usage from command line (shard indices start at {@code 0}):
+ * <code>
+ *     --filter=org.junit.experimental.max.ShardFilterFactory=shard=3/16
+ *     --filter=org.junit.experimental.max.ShardFilterFactory=shard=3/16,history=max.ser
+ * </code>
+ *
+ * Usage from API:
+ * <code>
+ *     new ShardFilterFactory().createFilter(request.getRunner().getDescription(), 3, 16, history);
+ * </code>
+ *
+ * @since 4.13
+ */
+public final class ShardFilterFactory implements FilterFactory {
+    private static final String SHARD_ARG = "shard";
+
+    private static final String HISTORY_ARG = "history";
+
+    public Filter createFilter(FilterFactoryParams params) throws FilterNotCreatedException {
+        try {
+            int shardIndex = -1;
+            int shardCount = -1;
+            MaxHistory history = null;
+            for (String arg : params.getArgs().split(",")) {
+                String[] keyAndValue = arg.trim().split("=", 2);
+                if (keyAndValue.length == 1 || keyAndValue[0].equals(SHARD_ARG)) {
+                    String[] shard = keyAndValue[keyAndValue.length - 1].split("/", 2);
+                    if (shard.length != 2) {
+                        throw new IllegalArgumentException("Expected shard=<index>/<count> but was " + arg);
+                    }
+                    shardIndex = Integer.parseInt(shard[0].trim());
+                    shardCount = Integer.parseInt(shard[1].trim());
+                } else if (keyAndValue[0].equals(HISTORY_ARG)) {
+                    File historyFile = new File(keyAndValue[1]);
+                    if (historyFile.exists()) {
+                        history = MaxHistory.forFolder(historyFile);
+                    }
+                } else {
+                    throw new IllegalArgumentException("Unknown argument " + arg);
+                }
+            }
+            if (shardCount == -1) {
+                throw new IllegalArgumentException("Expected shard=<index>/<count> but was "
+                        + params.getArgs());
+            }
+            return createFilter(params.getTopLevelDescription(), shardIndex, shardCount, history);
+        } catch (IllegalArgumentException e) {
+            throw new FilterNotCreatedException(e);
+        }
+    }
+
+    /**
+     * Creates a {@link Filter} which is only passed by the tests of
+     * {@code topLevelDescription} that belong to the given shard.
+     *
+     * @param topLevelDescription the description of all tests of the run
+     * @param shardIndex the index of the shard to run, from {@code 0} to
+     * {@code shardCount - 1}
+     * @param shardCount the number of shards
+     * @param history the recorded test durations used to balance the shards,
+     * or {@code null} to assign tests by a hash of their names
+     */
+    public Filter createFilter(Description topLevelDescription, int shardIndex,
+            int shardCount, MaxHistory history) {
+        if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("Invalid shard " + shardIndex + "/" + shardCount);
+        }
+        return new ShardFilter(topLevelDescription, shardIndex, shardCount, history);
+    }
+
+    private static class ShardFilter extends Filter {
+        private final int shardIndex;
+
+        private final int shardCount;
+
+        private final Set<Description> selectedTests = new HashSet<Description>();
+
+        private final Set<Description> suitesWithSelectedTests = new HashSet<Description>();
+
+        private final Set<Description> knownTests = new HashSet<Description>();
+
+        private final Set<Description> knownSuites = new HashSet<Description>();
+
+        ShardFilter(Description topLevelDescription, int shardIndex, int shardCount,
+                MaxHistory history) {
+            this.shardIndex = shardIndex;
+            this.shardCount = shardCount;
+            List<Description> tests = new ArrayList<Description>();
+            collectTests(topLevelDescription, tests);
+            if (history == null) {
+                for (Description each : tests) {
+                    if (hashShard(each) == shardIndex) {
+                        selectedTests.add(each);
+                    }
+                }
+            } else {
+                selectBalanced(tests, new DurationPredictor(history, topLevelDescription));
+            }
+            collectSuitesWithSelectedTests(topLevelDescription);
+        }
+
+        private void collectTests(Description description, List<Description> tests) {
+            if (description.isTest()) {
+                if (knownTests.add(description)) {
+                    tests.add(description);
+                }
+            } else {
+                knownSuites.add(description);
+                for (Description each : description.getChildren()) {
+                    collectTests(each, tests);
+                }
+            }
+        }
+
+        private void selectBalanced(List<Description> tests, DurationPredictor predictor) {
+            final Comparator<Description> longestFirst = predictor.longestFirst();
+            Collections.sort(tests, new Comparator<Description>() {
+                public int compare(Description o1, Description o2) {
+                    int result = longestFirst.compare(o1, o2);
+                    return result != 0 ? result
+                            : o1.getDisplayName().compareTo(o2.getDisplayName());
+                }
+            });
+            PriorityQueue<Shard> shards = new PriorityQueue<Shard>();
+            for (int i = 0; i < shardCount; i++) {
+                shards.add(new Shard(i));
+            }
+            for (Description each : tests) {
+                Shard shard = shards.poll();
+                // count unknown tests as well, so that they are spread evenly
+                shard.load += Math.max(predictor.getExpectedDuration(each), 1);
+                shards.add(shard);
+                if (shard.index == shardIndex) {
+                    selectedTests.add(each);
+                }
+            }
+        }
+
+        private boolean collectSuitesWithSelectedTests(Description description) {
+            if (description.isTest()) {
+                return selectedTests.contains(description);
+            }
+            boolean selected = false;
+            for (Description each : description.getChildren()) {
+                selected |= collectSuitesWithSelectedTests(each);
+            }
+            if (selected) {
+                suitesWithSelectedTests.add(description);
+            }
+            return selected;
+        }
+
+        private int hashShard(Description test) {
+            int hash = test.getDisplayName().hashCode();
+            // spread the bits of the string hash before taking the remainder
+            hash ^= hash >>> 16;
+            hash *= 0x85ebca6b;
+            hash ^= hash >>> 13;
+            return (hash & Integer.MAX_VALUE) % shardCount;
+        }
+
+        @Override
+        public boolean shouldRun(Description description) {
+            if (description.isTest()) {
+                if (knownTests.contains(description)) {
+                    return selectedTests.contains(description);
+                }
+                return hashShard(description) == shardIndex;
+            }
+            if (knownSuites.contains(description)) {
+                return suitesWithSelectedTests.contains(description);
+            }
+            for (Description each : description.getChildren()) {
+                if (shouldRun(each)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String describe() {
+            return "shard " + shardIndex + "/" + shardCount;
+        }
+    }
+
+    private static class Shard implements Comparable<Shard> {
+        final int index;
+
+        long load = 0;
+
+        Shard(int index) {
+            this.index = index;
+        }
+
+        public int compareTo(Shard other) {
+            if (load != other.load) {
+                return load < other.load ? -1 : 1;
+            }
+            return index - other.index;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package org.junit.experimental.max;
+
+import java.io.Serializable;
+
+/**
+ * The durations and failures of a test over all recorded runs.
+ *
+ * <p>The expected duration is an exponentially weighted moving average, so
+ * that a single slow run only has a limited and decaying influence. Its
+ * variance is weighted the same way.
+ *
+ * <p>Quantiles are estimated from a histogram of the durations. Its buckets
+ * grow exponentially, four per doubling of the duration, so that an estimate
+ * is at most 19% off. With every run the weights of the earlier durations
+ * decay by 5%, and buckets whose weight has become negligible are dropped, so
+ * that the histogram follows changes of the test and only keeps a few
+ * buckets.
+ *
+ * <p>The flakiness of a test is the moving average, weighted the same way,
+ * of its runs being flaky (1) or not (0). A chronically flaky test is
+ * quarantined.
+ */
+final class TestStatistics implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The weight of the latest duration in the moving average.
+     */
+    static final double WEIGHT = 0.2;
+
+    /**
+     * The number of buckets of the histogram of durations. The first bucket
+     * holds the durations below a microsecond, the last one those of more
+     * than an hour.
+     */
+    static final int BUCKETS = 1 + 32 * 4;
+
+    private static final int BUCKETS_PER_DOUBLING = 4;
+
+    /**
+     * The weight of the latest duration in the histogram of durations.
+     */
+    static final double HISTOGRAM_WEIGHT = 0.05;
+
+    // the weight of a duration after about 90 later runs
+    private static final float MIN_BUCKET_WEIGHT = (float) (HISTOGRAM_WEIGHT / 100);
+
+    private static final int MIN_RUNS_FOR_REGRESSION = 5;
+
+    private static final double REGRESSION_DEVIATIONS = 3;
+
+    private static final double REGRESSION_RATIO = 0.5;
+
+    private static final double QUARANTINE_FLAKINESS = 0.15;
+
+    private static final int MIN_FLAKY_RUNS_FOR_QUARANTINE = 3;
+
+    private int runCount = 0;
+
+    private int failureCount = 0;
+
+    private int flakyCount = 0;
+
+    private double flakiness = 0;
+
+    private double mean = 0;
+
+    private double variance = 0;
+
+    private boolean regression = false;
+
+    // the nonempty buckets of the histogram in ascending order
+    private int[] buckets = new int[0];
+
+    private float[] bucketWeights = new float[0];
+
+    TestStatistics() {
+    }
+
+    /**
+     * Creates statistics from stored values; the nonempty buckets of the
+     * histogram are given in ascending order.
+     */
+    TestStatistics(int runCount, int failureCount, int flakyCount, double flakiness,
+            double mean, double variance, boolean regression, int[] buckets,
+            float[] bucketWeights) {
+        this.runCount = runCount;
+        this.failureCount = failureCount;
+        this.flakyCount = flakyCount;
+        this.flakiness = flakiness;
+        this.mean = mean;
+        this.variance = variance;
+        this.regression = regression;
+        this.buckets = buckets;
+        this.bucketWeights = bucketWeights;
+    }
+
+    /**
+     * Adds the duration of a run in nanoseconds.
+     */
+    synchronized void addDuration(long duration) {
+        if (runCount == 0) {
+            mean = duration;
+            variance = 0;
+            regression = false;
+        } else {
+            regression = runCount >= MIN_RUNS_FOR_REGRESSION
+                    && duration - mean > Math.max(REGRESSION_DEVIATIONS * Math.sqrt(variance),
+                            REGRESSION_RATIO * mean);
+            double difference = duration - mean;
+            double increment = WEIGHT * difference;
+            mean += increment;
+            variance = (1 - WEIGHT) * (variance + difference * increment);
+        }
+        runCount++;
+        addToHistogram(duration);
+    }
+
+    /**
+     * Adds the duration of a run in nanoseconds to the histogram of
+     * durations only.
+     */
+    synchronized void addToHistogram(long duration) {
+        int bucket = bucketOf(duration / 1000);
+        int[] newBuckets = new int[buckets.length + 1];
+        float[] newWeights = new float[buckets.length + 1];
+        int size = 0;
+        boolean added = false;
+        for (int i = 0; i < buckets.length; i++) {
+            float weight = (float) (bucketWeights[i] * (1 - HISTOGRAM_WEIGHT));
+            if (!added && buckets[i] >= bucket) {
+                newBuckets[size] = bucket;
+                newWeights[size++] = (float) HISTOGRAM_WEIGHT;
+                added = true;
+                if (buckets[i] == bucket) {
+                    newWeights[size - 1] += weight;
+                    continue;
+                }
+            }
+            if (weight >= MIN_BUCKET_WEIGHT) {
+                newBuckets[size] = buckets[i];
+                newWeights[size++] = weight;
+            }
+        }
+        if (!added) {
+            newBuckets[size] = bucket;
+            newWeights[size++] = (float) HISTOGRAM_WEIGHT;
+        }
+        buckets = new int[size];
+        bucketWeights = new float[size];
+        System.arraycopy(newBuckets, 0, buckets, 0, size);
+        System.arraycopy(newWeights, 0, bucketWeights, 0, size);
+    }
+
+    /**
+     * Returns the bucket of the histogram that holds {@code micros}.
+     */
+    static int bucketOf(long micros) {
+        if (micros < 1) {
+            return 0;
+        }
+        int doublings = 63 - Long.numberOfLeadingZeros(micros);
+        double remainder = micros / (double) (1L << doublings);
+        int step = (int) (BUCKETS_PER_DOUBLING * Math.log(remainder) / Math.log(2));
+        int bucket = 1 + doublings * BUCKETS_PER_DOUBLING + Math.min(step, BUCKETS_PER_DOUBLING - 1);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    /**
+     * Returns the duration in microseconds at {@code fraction} of the
+     * bucket, interpolated exponentially between its bounds.
+     */
+    private static double durationIn(int bucket, double fraction) {
+        if (bucket == 0) {
+            return fraction;
+        }
+        return Math.pow(2, (bucket - 1 + fraction) / BUCKETS_PER_DOUBLING);
+    }
+
+    synchronized void addFailure() {
+        failureCount++;
+    }
+
+    /**
+     * Adds whether a run of the test has been flaky.
+     */
+    synchronized void addFlakiness(boolean flaky) {
+        if (flaky) {
+            flakyCount++;
+        }
+        flakiness += WEIGHT * ((flaky ? 1 : 0) - flakiness);
+    }
+
+    synchronized int getFlakyCount() {
+        return flakyCount;
+    }
+
+    synchronized double getFlakiness() {
+        return flakiness;
+    }
+
+    /**
+     * Returns whether the test is chronically flaky: it has been flaky at
+     * least three times, and often enough recently.
+     */
+    synchronized boolean isQuarantined() {
+        return flakyCount >= MIN_FLAKY_RUNS_FOR_QUARANTINE && flakiness >= QUARANTINE_FLAKINESS;
+    }
+
+    synchronized int getRunCount() {
+        return runCount;
+    }
+
+    synchronized int getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * Returns the expected duration in nanoseconds.
+     */
+    synchronized double getMean() {
+        return mean;
+    }
+
+    synchronized double getVariance() {
+        return variance;
+    }
+
+    /**
+     * Returns whether the latest duration is significantly longer than the
+     * durations before: more than three standard deviations and more than
+     * half of the expected duration longer.
+     */
+    synchronized boolean isRegression() {
+        return regression;
+    }
+
+    /**
+     * Returns the nonempty buckets of the histogram of durations in
+     * ascending order.
+     */
+    synchronized int[] getBuckets() {
+        return buckets.clone();
+    }
+
+    /**
+     * Returns the weights of the buckets returned by {@link #getBuckets()}.
+     */
+    synchronized float[] getBucketWeights() {
+        return bucketWeights.clone();
+    }
+
+    /**
+     * Returns the estimated {@code quantile} of the durations in
+     * nanoseconds, or {@code -1} if no duration is known.
+     */
+    synchronized long getQuantile(double quantile) {
+        if (buckets.length == 0) {
+            return -1;
+        }
+        double total = 0;
+        for (float each : bucketWeights) {
+            total += each;
+        }
+        double rank = quantile * total;
+        double cumulative = 0;
+        int i = 0;
+        while (i < buckets.length - 1 && cumulative + bucketWeights[i] < rank) {
+            cumulative += bucketWeights[i];
+            i++;
+        }
+        double fraction = (rank - cumulative) / bucketWeights[i];
+        return Math.round(1000 * durationIn(buckets[i], Math.min(Math.max(fraction, 0), 1)));
+    }
+}
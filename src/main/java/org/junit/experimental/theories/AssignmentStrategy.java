@@ -0,0 +1,453 @@
+package org.junit.experimental.theories;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.experimental.theories.internal.GeneratedValuesSupplier;
+
+/**
+ * Chooses the combinations of potential parameter values that a theory is
+ * tried with. Select a strategy with {@link Theory#strategy()}; it must have
+ * a public zero-argument constructor.
+ *
+ * <p>A strategy only sees the number of potential values of each parameter.
+ * Strategies that use randomness must only use the given {@code Random}, so
+ * that a run can be reproduced from its seed.
+ *
+ * @see Theory
+ * @since 4.13
+ */
+public abstract class AssignmentStrategy {
+    /**
+     * Returns the combinations to try. Each combination holds, for each
+     * parameter, the index of one of its potential values.
+     *
+     * @param valueCounts the number of potential values of each parameter;
+     * all of them are positive
+     * @param random the source of all randomness of the strategy
+     */
+    public abstract Iterator<int[]> combinations(int[] valueCounts, Random random);
+
+    /**
+     * Tries every combination of the potential values, i.e. their cartesian
+     * product. This is the default strategy.
+     */
+    public static class Exhaustive extends AssignmentStrategy {
+        @Override
+        public Iterator<int[]> combinations(final int[] valueCounts, Random random) {
+            return new CombinationIterator() {
+                private int[] next = new int[valueCounts.length];
+
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                public int[] next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    int[] result = next.clone();
+                    advance();
+                    return result;
+                }
+
+                private void advance() {
+                    for (int i = next.length - 1; i >= 0; i--) {
+                        if (++next[i] < valueCounts[i]) {
+                            return;
+                        }
+                        next[i] = 0;
+                    }
+                    next = null;
+                }
+            };
+        }
+    }
+
+    /**
+     * Tries the first potential value of every parameter, then the second
+     * value of every parameter, and so on, starting again with the first
+     * value of parameters that have fewer values. The number of cases is the
+     * largest number of potential values of any parameter. This strategy
+     * suits parameters with {@link ForAll generated} values.
+     */
+    public static class Diagonal extends AssignmentStrategy {
+        @Override
+        public Iterator<int[]> combinations(final int[] valueCounts, Random random) {
+            int max = 1;
+            for (int each : valueCounts) {
+                max = Math.max(max, each);
+            }
+            final int caseCount = max;
+            return new CombinationIterator() {
+                private int next = 0;
+
+                public boolean hasNext() {
+                    return next < caseCount;
+                }
+
+                public int[] next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int[] combination = new int[valueCounts.length];
+                    for (int i = 0; i < combination.length; i++) {
+                        combination[i] = next % valueCounts[i];
+                    }
+                    next++;
+                    return combination;
+                }
+            };
+        }
+    }
+
+    /**
+     * Tries randomly chosen combinations, each of them at most once. A theory
+     * with this strategy must limit the number of cases or the time, see
+     * {@link Theory#maxCases()} and {@link Theory#maxMillis()}.
+     */
+    public static class RandomSampling extends AssignmentStrategy {
+        @Override
+        public Iterator<int[]> combinations(final int[] valueCounts, final Random random) {
+            final long combinationCount = combinationCount(valueCounts);
+            if (combinationCount == -1) {
+                // too many combinations to repeat one by chance
+                return new CombinationIterator() {
+                    public boolean hasNext() {
+                        return true;
+                    }
+
+                    public int[] next() {
+                        int[] combination = new int[valueCounts.length];
+                        for (int i = 0; i < combination.length; i++) {
+                            combination[i] = random.nextInt(valueCounts[i]);
+                        }
+                        return combination;
+                    }
+                };
+            }
+            final IndexPermutation permutation = new IndexPermutation(combinationCount, random);
+            return new CombinationIterator() {
+                private long next = 0;
+
+                public boolean hasNext() {
+                    return next < combinationCount;
+                }
+
+                public int[] next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    long index = permutation.get(next++);
+                    int[] combination = new int[valueCounts.length];
+                    for (int i = combination.length - 1; i >= 0; i--) {
+                        combination[i] = (int) (index % valueCounts[i]);
+                        index /= valueCounts[i];
+                    }
+                    return combination;
+                }
+            };
+        }
+
+        /**
+         * Returns the number of combinations, or {@code -1} if it does not fit
+         * into a {@code long}.
+         */
+        private static long combinationCount(int[] valueCounts) {
+            long count = 1;
+            for (int each : valueCounts) {
+                if (count > Long.MAX_VALUE / each) {
+                    return -1;
+                }
+                count *= each;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * A random permutation of the indices from {@code 0} to
+     * {@code size - 1} that is computed index by index, so that it needs
+     * neither memory for the indices nor retries for those already chosen. A
+     * Feistel network permutes the smallest range of an even number of bits
+     * that holds the indices; an index that it maps outside of them is
+     * permuted again until it is inside.
+     */
+    private static final class IndexPermutation {
+        private static final int ROUNDS = 4;
+
+        private final long size;
+
+        private final int halfBits;
+
+        private final long mask;
+
+        private final long[] keys = new long[ROUNDS];
+
+        IndexPermutation(long size, Random random) {
+            this.size = size;
+            int bits = 64 - Long.numberOfLeadingZeros(size - 1);
+            halfBits = Math.max(1, (bits + 1) / 2);
+            mask = (1L << halfBits) - 1;
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextLong();
+            }
+        }
+
+        long get(long index) {
+            long result = index;
+            do {
+                result = permute(result);
+            } while (result < 0 || result >= size);
+            return result;
+        }
+
+        private long permute(long value) {
+            long left = value >>> halfBits;
+            long right = value & mask;
+            for (long each : keys) {
+                long next = left ^ (GeneratedValuesSupplier.mix(each, right) & mask);
+                left = right;
+                right = next;
+            }
+            return left << halfBits | right;
+        }
+    }
+
+    /**
+     * Tries combinations until every combination of the values of any
+     * {@code strength} parameters has been tried at least once. The number of
+     * cases grows with the number of values to the power of the strength, but
+     * only logarithmically with the number of parameters.
+     *
+     * <p>The combinations are chosen greedily: each one starts with a tuple of
+     * values that has not been tried yet, and the other parameters get the
+     * value that completes the most untried tuples. Which tuples have been
+     * tried is kept in memory, so at most {@value #MAX_VALUE_TUPLES} tuples of
+     * values are supported.
+     */
+    public static class CoveringArray extends AssignmentStrategy {
+        /**
+         * The largest number of tuples of values that a covering array can
+         * keep track of.
+         */
+        public static final int MAX_VALUE_TUPLES = 1 << 24;
+
+        private final int strength;
+
+        /**
+         * Creates a strategy that covers all combinations of the values of any
+         * {@code strength} parameters.
+         */
+        protected CoveringArray(int strength) {
+            if (strength < 1) {
+                throw new IllegalArgumentException("strength must be positive but was "
+                        + strength);
+            }
+            this.strength = strength;
+        }
+
+        @Override
+        public Iterator<int[]> combinations(int[] valueCounts, Random random) {
+            return new CoveringArrayIterator(valueCounts,
+                    Math.min(strength, valueCounts.length), random);
+        }
+    }
+
+    /**
+     * Tries every combination of the values of any two parameters at least
+     * once.
+     */
+    public static class Pairwise extends CoveringArray {
+        public Pairwise() {
+            super(2);
+        }
+    }
+
+    /**
+     * Tries every combination of the values of any three parameters at least
+     * once.
+     */
+    public static class ThreeWise extends CoveringArray {
+        public ThreeWise() {
+            super(3);
+        }
+    }
+
+    private abstract static class CombinationIterator implements Iterator<int[]> {
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class CoveringArrayIterator extends CombinationIterator {
+        private final int[] valueCounts;
+
+        private final Random random;
+
+        // the parameters of each tuple of parameters
+        private final int[][] tuples;
+
+        // the tuples that contain each parameter
+        private final int[][] tuplesOfParameter;
+
+        // for each tuple of parameters, which of its value tuples have been tried
+        private final boolean[][] covered;
+
+        private long uncoveredCount = 0;
+
+        private int firstUncoveredTuple = 0;
+
+        CoveringArrayIterator(int[] valueCounts, int strength, Random random) {
+            this.valueCounts = valueCounts;
+            this.random = random;
+            List<int[]> allTuples = new ArrayList<int[]>();
+            collectTuples(new int[strength], 0, 0, allTuples);
+            tuples = allTuples.toArray(new int[allTuples.size()][]);
+            long[] sizes = new long[tuples.length];
+            for (int i = 0; i < tuples.length; i++) {
+                sizes[i] = 1;
+                for (int parameter : tuples[i]) {
+                    sizes[i] *= valueCounts[parameter];
+                    if (sizes[i] > CoveringArray.MAX_VALUE_TUPLES) {
+                        break;
+                    }
+                }
+                uncoveredCount += sizes[i];
+                if (uncoveredCount > CoveringArray.MAX_VALUE_TUPLES) {
+                    throw new IllegalArgumentException("The parameters have more than "
+                            + CoveringArray.MAX_VALUE_TUPLES + " tuples of " + strength
+                            + " values to cover; use fewer potential values or another strategy");
+                }
+            }
+            covered = new boolean[tuples.length][];
+            for (int i = 0; i < tuples.length; i++) {
+                covered[i] = new boolean[(int) sizes[i]];
+            }
+            tuplesOfParameter = new int[valueCounts.length][];
+            for (int parameter = 0; parameter < valueCounts.length; parameter++) {
+                List<Integer> containing = new ArrayList<Integer>();
+                for (int i = 0; i < tuples.length; i++) {
+                    for (int each : tuples[i]) {
+                        if (each == parameter) {
+                            containing.add(i);
+                        }
+                    }
+                }
+                tuplesOfParameter[parameter] = new int[containing.size()];
+                for (int i = 0; i < containing.size(); i++) {
+                    tuplesOfParameter[parameter][i] = containing.get(i);
+                }
+            }
+        }
+
+        private void collectTuples(int[] tuple, int size, int nextParameter,
+                List<int[]> allTuples) {
+            if (size == tuple.length) {
+                allTuples.add(tuple.clone());
+                return;
+            }
+            for (int parameter = nextParameter; parameter < valueCounts.length; parameter++) {
+                tuple[size] = parameter;
+                collectTuples(tuple, size + 1, parameter + 1, allTuples);
+            }
+        }
+
+        public boolean hasNext() {
+            return uncoveredCount > 0;
+        }
+
+        public int[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int[] combination = new int[valueCounts.length];
+            Arrays.fill(combination, -1);
+            startWithUncoveredTuple(combination);
+            for (int parameter : shuffledParameters()) {
+                if (combination[parameter] == -1) {
+                    combination[parameter] = bestValue(combination, parameter);
+                }
+            }
+            for (int i = 0; i < tuples.length; i++) {
+                int index = valueIndex(i, combination);
+                if (!covered[i][index]) {
+                    covered[i][index] = true;
+                    uncoveredCount--;
+                }
+            }
+            return combination;
+        }
+
+        private void startWithUncoveredTuple(int[] combination) {
+            while (true) {
+                boolean[] coveredValues = covered[firstUncoveredTuple];
+                for (int index = 0; index < coveredValues.length; index++) {
+                    if (!coveredValues[index]) {
+                        int[] parameters = tuples[firstUncoveredTuple];
+                        for (int j = parameters.length - 1; j >= 0; j--) {
+                            combination[parameters[j]] = index % valueCounts[parameters[j]];
+                            index /= valueCounts[parameters[j]];
+                        }
+                        return;
+                    }
+                }
+                firstUncoveredTuple++;
+            }
+        }
+
+        private int[] shuffledParameters() {
+            int[] parameters = new int[valueCounts.length];
+            for (int i = 0; i < parameters.length; i++) {
+                int j = random.nextInt(i + 1);
+                parameters[i] = parameters[j];
+                parameters[j] = i;
+            }
+            return parameters;
+        }
+
+        private int bestValue(int[] combination, int parameter) {
+            int offset = random.nextInt(valueCounts[parameter]);
+            int bestValue = offset;
+            int bestScore = -1;
+            for (int i = 0; i < valueCounts[parameter]; i++) {
+                int value = (offset + i) % valueCounts[parameter];
+                combination[parameter] = value;
+                int score = 0;
+                for (int tuple : tuplesOfParameter[parameter]) {
+                    if (isAssigned(tuple, combination)
+                            && !covered[tuple][valueIndex(tuple, combination)]) {
+                        score++;
+                    }
+                }
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestValue = value;
+                }
+            }
+            combination[parameter] = -1;
+            return bestValue;
+        }
+
+        private boolean isAssigned(int tuple, int[] combination) {
+            for (int parameter : tuples[tuple]) {
+                if (combination[parameter] == -1) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int valueIndex(int tuple, int[] combination) {
+            int index = 0;
+            for (int parameter : tuples[tuple]) {
+                index = index * valueCounts[parameter] + combination[parameter];
+            }
+            return index;
+        }
+    }
+}
@@ -53,4 +53,14 @@ import java.lang.annotation.Target;
 public @interface DataPoint {
     String[] value() default {};
     Class<? extends Throwable>[] ignoredExceptions() default {};
+
+    /**
+     * The value of a data point field or method is determined only once per run
+     * and shared by all theories and assignments of the class. Set
+     * {@code fresh} to read the field or invoke the method again each time,
+     * e.g. if the theories modify the values.
+     *
+     * @since 4.13
+     */
+    boolean fresh() default false;
 }
\ No newline at end of file
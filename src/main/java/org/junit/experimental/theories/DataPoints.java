@@ -61,4 +61,14 @@ public @interface DataPoints {
     String[] value() default {};
 
     Class<? extends Throwable>[] ignoredExceptions() default {};
+
+    /**
+     * The values of a data points field or method are determined only once per run
+     * and shared by all theories and assignments of the class. Set
+     * {@code fresh} to read the field or invoke the method again each time,
+     * e.g. if the theories modify the values.
+     *
+     * @since 4.13
+     */
+    boolean fresh() default false;
 }
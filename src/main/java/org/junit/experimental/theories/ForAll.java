@@ -0,0 +1,78 @@
+package org.junit.experimental.theories;
+
+import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
+import static java.lang.annotation.ElementType.PARAMETER;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Random;
+
+import org.junit.experimental.theories.internal.GeneratedValuesSupplier;
+
+/**
+ * Annotating a parameter of a {@link org.junit.experimental.theories.Theory
+ * &#064;Theory} method with <code>&#064;ForAll</code> supplies it with
+ * randomly generated values instead of data points. The values are generated
+ * one at a time when they are needed, so even a large {@link #count()} does
+ * not use more memory.
+ * <pre>
+ * &#064;Theory
+ * public void absIsNotNegative(&#064;ForAll(count = 10000) int value) {
+ *     assertTrue(Math.abs(value) &gt;= 0);
+ * }
+ * </pre>
+ * The theory above fails for {@code Integer.MIN_VALUE}. When a theory fails
+ * with generated values, they are shrunk by their {@link Generator} to the
+ * smallest values that still make the theory fail, and the theory is reported
+ * to fail with these values.
+ * <p>
+ * Without a {@link #generator()} the generator is chosen by the type of the
+ * parameter; see
+ * {@link org.junit.experimental.theories.generators.Generators#forType(Class)}.
+ * The generated values are derived from the seed of the theory, see
+ * {@link Theory#seed()}. If a theory with generated values fails, the message
+ * of its failure ends with the seed.
+ * <p>
+ * Every combination of the generated values of several parameters is tried,
+ * unless another {@link AssignmentStrategy} is chosen. Use
+ * {@link AssignmentStrategy.Diagonal} to try {@code count} combinations only:
+ * <pre>
+ * &#064;Theory(strategy = AssignmentStrategy.Diagonal.class)
+ * public void concatenationAddsLengths(&#064;ForAll(count = 1000) String a,
+ *                                      &#064;ForAll(count = 1000) String b) {
+ *     assertEquals(a.length() + b.length(), (a + b).length());
+ * }
+ * </pre>
+ *
+ * @see Generator
+ * @since 4.13
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ANNOTATION_TYPE, PARAMETER })
+@ParametersSuppliedBy(GeneratedValuesSupplier.class)
+public @interface ForAll {
+    /**
+     * Default generator: the generator is chosen by the type of the parameter.
+     */
+    final class ByType extends Generator<Object> {
+        private ByType() {
+        }
+
+        @Override
+        public Object generate(Random random) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * The generator of the values. It must have a public zero-argument
+     * constructor.
+     */
+    Class<? extends Generator<?>> generator() default ByType.class;
+
+    /**
+     * The number of values that are generated.
+     */
+    int count() default 100;
+}
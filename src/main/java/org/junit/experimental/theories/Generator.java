@@ -0,0 +1,63 @@
+package org.junit.experimental.theories;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Produces random values of a parameter of a theory on demand, and smaller
+ * values of a value that made the theory fail. Use a generator with
+ * {@link ForAll} on a theory parameter; built-in generators for primitives,
+ * strings, enums and lists are in
+ * {@link org.junit.experimental.theories.generators.Generators Generators}.
+ *
+ * <p>
+ * For example, here is a generator for points that uses built-in generators
+ * for their coordinates:
+ *
+ * <pre>
+ *     public static class PointGenerator extends <b>Generator</b>&lt;Point&gt; {
+ *         private final Generators.Ints coordinates = new Generators.Ints(-100, 100);
+ *
+ *         &#064;Override
+ *         public Point generate(Random random) {
+ *             return new Point(coordinates.generate(random), coordinates.generate(random));
+ *         }
+ *
+ *         &#064;Override
+ *         public List&lt;Point&gt; shrink(Point value) {
+ *             List&lt;Point&gt; smaller = new ArrayList&lt;Point&gt;();
+ *             for (Integer x : coordinates.shrink(value.x)) {
+ *                 smaller.add(new Point(x, value.y));
+ *             }
+ *             for (Integer y : coordinates.shrink(value.y)) {
+ *                 smaller.add(new Point(value.x, y));
+ *             }
+ *             return smaller;
+ *         }
+ *     }
+ * </pre>
+ * </p>
+ *
+ * @param <T> the type of the generated values
+ * @see ForAll
+ * @since 4.13
+ */
+public abstract class Generator<T> {
+    /**
+     * Returns a new value. All randomness must come from {@code random}, so
+     * that the same values are generated again from the same seed.
+     */
+    public abstract T generate(Random random);
+
+    /**
+     * Returns values that are smaller or simpler than {@code value}, the
+     * simplest first. When a theory fails, the runner tries them in order and
+     * continues with the first one that still makes the theory fail, until
+     * none of the smaller values does. The default implementation does not
+     * shrink values.
+     */
+    public List<T> shrink(T value) {
+        return Collections.emptyList();
+    }
+}
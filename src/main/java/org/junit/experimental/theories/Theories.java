@@ -5,16 +5,35 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
 import org.junit.experimental.theories.internal.Assignments;
+import org.junit.experimental.theories.internal.DataPointValues;
+import org.junit.experimental.theories.internal.GeneratedValue;
+import org.junit.experimental.theories.internal.GeneratedValuesSupplier;
 import org.junit.experimental.theories.internal.ParameterizedAssertionError;
 import org.junit.internal.AssumptionViolatedException;
+import org.junit.internal.runners.model.ReflectiveCallable;
+import org.junit.rules.MethodRule;
+import org.junit.rules.RunRules;
+import org.junit.rules.TestRule;
+import org.junit.runner.notification.RunNotifier;
 import org.junit.runners.BlockJUnit4ClassRunner;
 import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.MultipleFailureException;
+import org.junit.runners.model.SharedRunnerScheduler;
 import org.junit.runners.model.Statement;
 import org.junit.runners.model.TestClass;
 
@@ -69,6 +88,8 @@ import org.junit.runners.model.TestClass;
  * @see <a href="http://web.archive.org/web/20110608210825/http://shareandenjoy.saff.net/tdd-specifications.pdf">Paper on Theories</a>
  */
 public class Theories extends BlockJUnit4ClassRunner {
+    private volatile DataPointValues dataPointValues = new DataPointValues();
+
     public Theories(Class<?> klass) throws InitializationError {
         super(klass);
     }
@@ -120,9 +141,20 @@ public class Theories extends BlockJUnit4ClassRunner {
     @Override
     protected void validateTestMethods(List<Throwable> errors) {
         for (FrameworkMethod each : computeTestMethods()) {
-            if (each.getAnnotation(Theory.class) != null) {
+            Theory theory = each.getAnnotation(Theory.class);
+            if (theory != null) {
                 each.validatePublicVoid(false, errors);
                 each.validateNoTypeParametersOnArgs(errors);
+                validateAssignmentStrategy(theory.strategy(), errors);
+                if (theory.strategy() == AssignmentStrategy.RandomSampling.class
+                        && theory.maxCases() <= 0 && theory.maxMillis() <= 0) {
+                    errors.add(new Error("Theory " + each.getName()
+                            + " must limit maxCases or maxMillis to use random sampling"));
+                }
+                if (theory.parallelism() < 1) {
+                    errors.add(new Error("Theory " + each.getName()
+                            + " must have a positive parallelism but has " + theory.parallelism()));
+                }
             } else {
                 each.validatePublicVoidNoArg(false, errors);
             }
@@ -136,6 +168,18 @@ public class Theories extends BlockJUnit4ClassRunner {
         }
     }
 
+    private void validateAssignmentStrategy(Class<? extends AssignmentStrategy> strategyClass, List<Throwable> errors) {
+        try {
+            strategyClass.getConstructor();
+            if (Modifier.isAbstract(strategyClass.getModifiers())) {
+                errors.add(new Error("AssignmentStrategy " + strategyClass.getName() + " must not be abstract"));
+            }
+        } catch (NoSuchMethodException e) {
+            errors.add(new Error("AssignmentStrategy " + strategyClass.getName()
+                    + " must have a public zero-argument constructor"));
+        }
+    }
+
     private void validateParameterSupplier(Class<? extends ParameterSupplier> supplierClass, List<Throwable> errors) {
         Constructor<?>[] constructors = supplierClass.getConstructors();
         
@@ -160,18 +204,48 @@ public class Theories extends BlockJUnit4ClassRunner {
         return testMethods;
     }
 
+    @Override
+    public void run(RunNotifier notifier) {
+        // the values of data points are shared by all theories of a run
+        dataPointValues = new DataPointValues();
+        super.run(notifier);
+    }
+
     @Override
     public Statement methodBlock(final FrameworkMethod method) {
-        return new TheoryAnchor(method, getTestClass());
+        TheoryAnchor anchor = new TheoryAnchor(method, getTestClass());
+        anchor.dataPointValues = dataPointValues;
+        return anchor;
     }
 
     public static class TheoryAnchor extends Statement {
-        private int successes = 0;
+        private static final int MAX_SHRINK_RUNS = 1000;
+
+        private static final int MAX_REPORTED_INVALID_PARAMETERS = 100;
+
+        private final AtomicInteger successes = new AtomicInteger();
 
         private final FrameworkMethod testMethod;
         private final TestClass testClass;
 
-        private List<AssumptionViolatedException> fInvalidParameters = new ArrayList<AssumptionViolatedException>();
+        private List<AssumptionViolatedException> fInvalidParameters = Collections.synchronizedList(
+                new ArrayList<AssumptionViolatedException>());
+
+        private volatile AssignmentRunner assignmentRunner = null;
+
+        private DataPointValues dataPointValues = new DataPointValues();
+
+        // -1 if the number of cases is not limited
+        private final AtomicInteger remainingCases = new AtomicInteger(-1);
+
+        // 0 if the time is not limited
+        private long deadline = 0;
+
+        // the lowest branch of a parallel run that has failed
+        private final AtomicInteger firstFailedBranch = new AtomicInteger(Integer.MAX_VALUE);
+
+        // the branch of a parallel run that the current thread explores
+        private final ThreadLocal<Integer> currentBranch = new ThreadLocal<Integer>();
 
         public TheoryAnchor(FrameworkMethod testMethod, TestClass testClass) {
             this.testMethod = testMethod;
@@ -184,23 +258,219 @@ public class Theories extends BlockJUnit4ClassRunner {
 
         @Override
         public void evaluate() throws Throwable {
-            runWithAssignment(Assignments.allUnassigned(
-                    testMethod.getMethod(), getTestClass()));
+            Theory theory = testMethod.getAnnotation(Theory.class);
+            long seed = theory == null ? 0 : getSeed(theory);
+            Assignments unassigned = Assignments.allUnassigned(
+                    testMethod.getMethod(), getTestClass(), dataPointValues, seed);
+            if (theory == null) {
+                runWithAssignment(unassigned);
+            } else {
+                try {
+                    runTheory(theory, unassigned, seed);
+                } catch (AssumptionViolatedException e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw isRandomized(theory) ? withSeed(e, seed) : e;
+                }
+            }
             
             //if this test method is not annotated with Theory, then no successes is a valid case
-            boolean hasTheoryAnnotation = testMethod.getAnnotation(Theory.class) != null;
-            if (successes == 0 && hasTheoryAnnotation) {
+            boolean hasTheoryAnnotation = theory != null;
+            if (successes.get() == 0 && hasTheoryAnnotation) {
                 Assert
                         .fail("Never found parameters that satisfied method assumptions.  Violated assumptions: "
                                 + fInvalidParameters);
             }
         }
 
+        private void runTheory(Theory theory, Assignments unassigned, long seed)
+                throws Throwable {
+            if (Boolean.getBoolean(Theory.EXHAUSTIVE_PROPERTY)) {
+                runExhaustively(unassigned, theory.parallelism());
+            } else {
+                startBudget(theory);
+                if (theory.strategy() == AssignmentStrategy.Exhaustive.class) {
+                    runExhaustively(unassigned, theory.parallelism());
+                } else {
+                    runWithStrategy(unassigned, theory.strategy().newInstance(), seed);
+                }
+            }
+        }
+
+        /**
+         * Returns the failure {@code e} of a theory with a message that tells
+         * how to reproduce it with {@code seed}.
+         */
+        private Throwable withSeed(Throwable e, long seed) {
+            String note = "[seed " + seed + "; set the system property "
+                    + Theory.SEED_PROPERTY + "=" + seed + " to reproduce it]";
+            if (e instanceof ParameterizedAssertionError) {
+                return ((ParameterizedAssertionError) e).withNote(note);
+            }
+            AssertionError error = new AssertionError(e.getMessage() + " " + note);
+            error.initCause(e);
+            return error;
+        }
+
+        /**
+         * Returns whether the cases that the theory is tried with depend on
+         * its seed.
+         */
+        private boolean isRandomized(Theory theory) {
+            if (!Boolean.getBoolean(Theory.EXHAUSTIVE_PROPERTY)
+                    && theory.strategy() != AssignmentStrategy.Exhaustive.class) {
+                return true;
+            }
+            List<ParameterSignature> signatures = new ArrayList<ParameterSignature>(
+                    ParameterSignature.signatures(testClass.getOnlyConstructor()));
+            signatures.addAll(ParameterSignature.signatures(testMethod.getMethod()));
+            for (ParameterSignature each : signatures) {
+                ParametersSuppliedBy annotation = each.findDeepAnnotation(ParametersSuppliedBy.class);
+                if (annotation != null
+                        && GeneratedValuesSupplier.class.isAssignableFrom(annotation.value())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void startBudget(Theory theory) {
+            remainingCases.set(theory.maxCases() > 0 ? theory.maxCases() : -1);
+            deadline = theory.maxMillis() > 0
+                    ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(theory.maxMillis())
+                    : 0;
+        }
+
+        private boolean isBudgetExhausted() {
+            return remainingCases.get() == 0
+                    || (deadline != 0 && System.nanoTime() - deadline >= 0);
+        }
+
+        /**
+         * Takes one case from the budget, unless the budget is exhausted.
+         */
+        private boolean takeCase() {
+            while (true) {
+                int remaining = remainingCases.get();
+                if (remaining == -1) {
+                    return true;
+                }
+                if (remaining == 0) {
+                    return false;
+                }
+                if (remainingCases.compareAndSet(remaining, remaining - 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private boolean shouldStop() {
+            if (isBudgetExhausted()) {
+                return true;
+            }
+            // a failure of an earlier branch is reported instead of ours
+            Integer branch = currentBranch.get();
+            return branch != null && branch > firstFailedBranch.get();
+        }
+
+        /**
+         * Tries every combination of the potential values. With a
+         * {@code parallelism} above one, the potential values of the first
+         * parameter split the combinations into branches that are explored
+         * concurrently. The failure of the earliest failing branch is thrown,
+         * so the reported assignment is the same as with a single thread.
+         */
+        private void runExhaustively(Assignments unassigned, int parallelism)
+                throws Throwable {
+            if (parallelism <= 1 || unassigned.isComplete()) {
+                runWithAssignment(unassigned);
+                return;
+            }
+            List<PotentialAssignment> sources = unassigned.potentialsForNextUnassigned();
+            firstFailedBranch.set(Integer.MAX_VALUE);
+            final AtomicReferenceArray<Throwable> failures =
+                    new AtomicReferenceArray<Throwable>(sources.size());
+            prepareAssignmentRunner();
+            SharedRunnerScheduler scheduler = new SharedRunnerScheduler(parallelism);
+            for (int i = 0; i < sources.size(); i++) {
+                final int branch = i;
+                final Assignments assignment = unassigned.assignNext(sources.get(i));
+                scheduler.schedule(new Runnable() {
+                    public void run() {
+                        runBranch(branch, assignment, failures);
+                    }
+                });
+            }
+            scheduler.finished();
+            for (int i = 0; i < failures.length(); i++) {
+                if (failures.get(i) != null) {
+                    throw failures.get(i);
+                }
+            }
+        }
+
+        private void runBranch(int branch, Assignments assignment,
+                AtomicReferenceArray<Throwable> failures) {
+            currentBranch.set(branch);
+            try {
+                if (!shouldStop()) {
+                    runWithAssignment(assignment);
+                }
+            } catch (Throwable e) {
+                failures.set(branch, e);
+                int failed;
+                do {
+                    failed = firstFailedBranch.get();
+                } while (branch < failed && !firstFailedBranch.compareAndSet(failed, branch));
+            } finally {
+                currentBranch.remove();
+            }
+        }
+
+        private long getSeed(Theory theory) {
+            String property = System.getProperty(Theory.SEED_PROPERTY);
+            if (property != null) {
+                return Long.parseLong(property.trim());
+            }
+            return theory.seed() != 0 ? theory.seed() : new Random().nextLong();
+        }
+
+        /**
+         * Tries the combinations of potential values chosen by
+         * {@code strategy}. The potential values of all parameters are
+         * determined up front.
+         */
+        private void runWithStrategy(Assignments unassigned,
+                AssignmentStrategy strategy, long seed) throws Throwable {
+            List<List<PotentialAssignment>> potentials = new ArrayList<List<PotentialAssignment>>();
+            for (Assignments each = unassigned; !each.isComplete(); ) {
+                List<PotentialAssignment> values = each.potentialsForNextUnassigned();
+                if (values.isEmpty()) {
+                    return;
+                }
+                potentials.add(values);
+                each = each.assignNext(values.get(0));
+            }
+            int[] valueCounts = new int[potentials.size()];
+            for (int i = 0; i < valueCounts.length; i++) {
+                valueCounts[i] = potentials.get(i).size();
+            }
+            Iterator<int[]> combinations = strategy.combinations(valueCounts, new Random(seed));
+            while (combinations.hasNext() && !isBudgetExhausted()) {
+                int[] combination = combinations.next();
+                Assignments complete = unassigned;
+                for (int i = 0; i < combination.length; i++) {
+                    complete = complete.assignNext(potentials.get(i).get(combination[i]));
+                }
+                runWithAssignment(complete);
+            }
+        }
+
         protected void runWithAssignment(Assignments parameterAssignment)
                 throws Throwable {
             if (!parameterAssignment.isComplete()) {
                 runWithIncompleteAssignment(parameterAssignment);
-            } else {
+            } else if (takeCase()) {
                 runWithCompleteAssignment(parameterAssignment);
             }
         }
@@ -209,75 +479,234 @@ public class Theories extends BlockJUnit4ClassRunner {
                 throws Throwable {
             for (PotentialAssignment source : incomplete
                     .potentialsForNextUnassigned()) {
+                if (shouldStop()) {
+                    return;
+                }
                 runWithAssignment(incomplete.assignNext(source));
             }
         }
 
         protected void runWithCompleteAssignment(final Assignments complete)
                 throws Throwable {
-            new BlockJUnit4ClassRunner(getTestClass().getJavaClass()) {
-                @Override
-                protected void collectInitializationErrors(
-                        List<Throwable> errors) {
-                    // do nothing
-                }
+            prepareAssignmentRunner();
+            assignmentRunner.run(complete);
+        }
 
-                @Override
-                public Statement methodBlock(FrameworkMethod method) {
-                    final Statement statement = super.methodBlock(method);
-                    return new Statement() {
-                        @Override
-                        public void evaluate() throws Throwable {
-                            try {
-                                statement.evaluate();
-                                handleDataPointSuccess();
-                            } catch (AssumptionViolatedException e) {
-                                handleAssumptionViolation(e);
-                            } catch (Throwable e) {
-                                reportParameterizedError(e, complete
-                                        .getArgumentStrings(nullsOk()));
+        private void prepareAssignmentRunner() throws InitializationError {
+            if (assignmentRunner == null) {
+                assignmentRunner = new AssignmentRunner();
+            }
+        }
+
+        /**
+         * Runs the theory with each complete assignment. The statement that
+         * invokes the theory with its {@code @Before} and {@code @After}
+         * methods is built once; the test instance and the assignment it
+         * works on are kept per thread, so that branches of a parallel run can
+         * share it. Only the rules, which are fields of the test instance, are
+         * applied for each assignment.
+         */
+        private class AssignmentRunner extends BlockJUnit4ClassRunner {
+            // inheritable, because a theory with a timeout runs on a new thread
+            private final ThreadLocal<Assignments> complete = new InheritableThreadLocal<Assignments>();
+
+            private final ThreadLocal<Object> test = new InheritableThreadLocal<Object>();
+
+            private final boolean hasRules;
+
+            private final Statement statement;
+
+            AssignmentRunner() throws InitializationError {
+                super(TheoryAnchor.this.testClass.getJavaClass());
+                hasRules = !getTestClass().getAnnotatedFields(Rule.class).isEmpty()
+                        || !getTestClass().getAnnotatedMethods(Rule.class).isEmpty();
+                statement = fixtureBlock();
+            }
+
+            @Override
+            protected TestClass createTestClass(Class<?> testClass) {
+                return TheoryAnchor.this.testClass;
+            }
+
+            @Override
+            protected void collectInitializationErrors(List<Throwable> errors) {
+                // do nothing
+            }
+
+            @SuppressWarnings("deprecation")
+            private Statement fixtureBlock() {
+                Statement block = methodCompletesWithParameters(testMethod);
+                block = possiblyExpectingExceptions(testMethod, null, block);
+                block = withPotentialTimeout(testMethod, null, block);
+                final List<FrameworkMethod> befores = getTestClass().getAnnotatedMethods(Before.class);
+                final List<FrameworkMethod> afters = getTestClass().getAnnotatedMethods(After.class);
+                if (befores.isEmpty() && afters.isEmpty()) {
+                    return block;
+                }
+                final Statement next = block;
+                return new Statement() {
+                    @Override
+                    public void evaluate() throws Throwable {
+                        Object target = test.get();
+                        List<Throwable> errors = new ArrayList<Throwable>();
+                        try {
+                            for (FrameworkMethod each : befores) {
+                                each.invokeExplosively(target);
+                            }
+                            next.evaluate();
+                        } catch (Throwable e) {
+                            errors.add(e);
+                        } finally {
+                            for (FrameworkMethod each : afters) {
+                                try {
+                                    each.invokeExplosively(target);
+                                } catch (Throwable e) {
+                                    errors.add(e);
+                                }
                             }
                         }
+                        MultipleFailureException.assertEmpty(errors);
+                    }
+                };
+            }
 
-                    };
+            /**
+             * Runs the theory with {@code complete} and handles its outcome.
+             */
+            void run(Assignments complete) throws Throwable {
+                try {
+                    runPlain(complete);
+                    handleDataPointSuccess();
+                } catch (AssumptionViolatedException e) {
+                    handleAssumptionViolation(e);
+                } catch (Throwable e) {
+                    Counterexample counterexample = shrink(complete, e);
+                    reportParameterizedError(counterexample.failure,
+                            counterexample.assignments.getArgumentStrings(nullsOk()));
                 }
+            }
 
-                @Override
-                protected Statement methodInvoker(FrameworkMethod method, Object test) {
-                    return methodCompletesWithParameters(method, complete, test);
+            /**
+             * Runs the theory with {@code complete}, without handling its
+             * outcome.
+             */
+            void runPlain(Assignments complete) throws Throwable {
+                this.complete.set(complete);
+                try {
+                    Object target = new ReflectiveCallable() {
+                        @Override
+                        protected Object runReflectiveCall() throws Throwable {
+                            return createTest(testMethod);
+                        }
+                    }.run();
+                    test.set(target);
+                    (hasRules ? withRules(target) : statement).evaluate();
+                } finally {
+                    test.remove();
+                    this.complete.remove();
                 }
+            }
 
-                @Override
-                public Object createTest() throws Exception {
-                    Object[] params = complete.getConstructorArguments();
-                    
-                    if (!nullsOk()) {
-                        Assume.assumeNotNull(params);
+            private Statement withRules(Object target) {
+                List<TestRule> testRules = getTestRules(target);
+                Statement result = statement;
+                for (MethodRule each : rules(target)) {
+                    if (!(each instanceof TestRule && testRules.contains(each))) {
+                        result = each.apply(result, testMethod, target);
                     }
-                    
-                    return getTestClass().getOnlyConstructor().newInstance(params);
                 }
-            }.methodBlock(testMethod).evaluate();
+                return testRules.isEmpty() ? result
+                        : new RunRules(result, testRules, describeChild(testMethod));
+            }
+
+            private Statement methodCompletesWithParameters(final FrameworkMethod method) {
+                return new Statement() {
+                    @Override
+                    public void evaluate() throws Throwable {
+                        final Object[] values = complete.get().getMethodArguments();
+
+                        if (!nullsOk()) {
+                            Assume.assumeNotNull(values);
+                        }
+
+                        method.invokeExplosively(test.get(), values);
+                    }
+                };
+            }
+
+            @Override
+            public Object createTest() throws Exception {
+                Object[] params = complete.get().getConstructorArguments();
+
+                if (!nullsOk()) {
+                    Assume.assumeNotNull(params);
+                }
+
+                return getTestClass().getOnlyConstructor().newInstance(params);
+            }
         }
 
-        private Statement methodCompletesWithParameters(
-                final FrameworkMethod method, final Assignments complete, final Object freshInstance) {
-            return new Statement() {
-                @Override
-                public void evaluate() throws Throwable {
-                    final Object[] values = complete.getMethodArguments();
-                    
-                    if (!nullsOk()) {
-                        Assume.assumeNotNull(values);
+        /**
+         * Shrinks the generated values of the failing assignment
+         * {@code failing}: as long as a value can be replaced by a smaller one
+         * that still makes the theory fail, it is replaced.
+         */
+        private Counterexample shrink(Assignments failing, Throwable failure)
+                throws Throwable {
+            int runs = 0;
+            boolean shrunk = true;
+            while (shrunk) {
+                shrunk = false;
+                List<PotentialAssignment> assigned = failing.getAssigned();
+                for (int i = 0; i < assigned.size() && !shrunk; i++) {
+                    if (!(assigned.get(i) instanceof GeneratedValue)) {
+                        continue;
+                    }
+                    for (PotentialAssignment each : ((GeneratedValue<?>) assigned.get(i)).shrink()) {
+                        if (runs++ == MAX_SHRINK_RUNS) {
+                            return new Counterexample(failing, failure);
+                        }
+                        Assignments smaller = failing.reassign(i, each);
+                        Throwable smallerFailure = failureOf(smaller);
+                        if (smallerFailure != null) {
+                            failing = smaller;
+                            failure = smallerFailure;
+                            shrunk = true;
+                            break;
+                        }
                     }
-                    
-                    method.invokeExplosively(freshInstance, values);
                 }
-            };
+            }
+            return new Counterexample(failing, failure);
+        }
+
+        private Throwable failureOf(Assignments complete) {
+            try {
+                assignmentRunner.runPlain(complete);
+                return null;
+            } catch (AssumptionViolatedException e) {
+                return null;
+            } catch (Throwable e) {
+                return e;
+            }
+        }
+
+        private static class Counterexample {
+            final Assignments assignments;
+
+            final Throwable failure;
+
+            Counterexample(Assignments assignments, Throwable failure) {
+                this.assignments = assignments;
+                this.failure = failure;
+            }
         }
 
         protected void handleAssumptionViolation(AssumptionViolatedException e) {
-            fInvalidParameters.add(e);
+            // keep the memory of theories with many generated values constant
+            if (fInvalidParameters.size() < MAX_REPORTED_INVALID_PARAMETERS) {
+                fInvalidParameters.add(e);
+            }
         }
 
         protected void reportParameterizedError(Throwable e, Object... params)
@@ -299,7 +728,7 @@ public class Theories extends BlockJUnit4ClassRunner {
         }
 
         protected void handleDataPointSuccess() {
-            successes++;
+            successes.incrementAndGet();
         }
     }
 }
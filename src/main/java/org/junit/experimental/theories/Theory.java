@@ -8,11 +8,91 @@ import java.lang.annotation.Target;
 
 /**
  * Marks test methods that should be read as theories by the {@link org.junit.experimental.theories.Theories Theories} runner.
+ * <p>
+ * By default a theory is tried with every combination of the potential values
+ * of its parameters. For theories with many parameters, choose another
+ * {@link AssignmentStrategy} and limit the number of cases or the time:
+ *
+ * <pre>
+ * &#064;Theory(strategy = AssignmentStrategy.Pairwise.class, maxCases = 500)
+ * public void theoryMethod(String a, int b, Locale c, boolean d, Mode e) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * Strategies that use randomness are seeded with a random seed unless
+ * {@link #seed()} is set. If such a theory fails, the message of its failure
+ * ends with the seed; run again with the system property
+ * {@value #SEED_PROPERTY} set to that seed to try the same cases. Set the
+ * system property {@value #EXHAUSTIVE_PROPERTY} to {@code true} to try every
+ * combination of all theories, ignoring their strategies and limits.
+ * <p>
+ * Theories whose cases are expensive can try the combinations on several
+ * threads by setting {@link #parallelism()}. Such a theory must be safe to
+ * run concurrently; in particular its data points are shared by all threads.
  *
  * @see org.junit.experimental.theories.Theories
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(METHOD)
 public @interface Theory {
+    /**
+     * The system property that overrides the seed of all theories.
+     *
+     * @since 4.13
+     */
+    String SEED_PROPERTY = "junit.theories.seed";
+
+    /**
+     * The system property that makes all theories try every combination.
+     *
+     * @since 4.13
+     */
+    String EXHAUSTIVE_PROPERTY = "junit.theories.exhaustive";
+
     boolean nullsAccepted() default true;
+
+    /**
+     * The strategy that chooses the combinations of potential values that the
+     * theory is tried with.
+     *
+     * @since 4.13
+     */
+    Class<? extends AssignmentStrategy> strategy() default AssignmentStrategy.Exhaustive.class;
+
+    /**
+     * The maximum number of combinations that the theory is tried with, or
+     * {@code 0} for no limit.
+     *
+     * @since 4.13
+     */
+    int maxCases() default 0;
+
+    /**
+     * The number of milliseconds after which no further combinations are
+     * tried, or {@code 0} for no limit.
+     *
+     * @since 4.13
+     */
+    long maxMillis() default 0;
+
+    /**
+     * The number of threads that try the combinations of an exhaustive
+     * theory. The combinations are split by the potential values of the
+     * first parameter. If the theory fails, the failure of the first failing
+     * combination in enumeration order is reported, as with a single thread,
+     * unless the number of cases or the time is limited.
+     * Other strategies always use a single thread.
+     *
+     * @since 4.13
+     */
+    int parallelism() default 1;
+
+    /**
+     * The seed of the randomness of the strategy and of the
+     * {@link ForAll generated} values, or {@code 0} to use a random seed.
+     *
+     * @since 4.13
+     */
+    long seed() default 0;
 }
\ No newline at end of file
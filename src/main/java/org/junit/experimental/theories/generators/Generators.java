@@ -0,0 +1,426 @@
+package org.junit.experimental.theories.generators;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.experimental.theories.Generator;
+
+/**
+ * Built-in {@link Generator generators}. Numbers are shrunk towards zero,
+ * characters towards {@code 'a'}, strings and lists towards fewer and
+ * smaller elements, and enum constants towards the first constant.
+ *
+ * <p>Generators whose values are restricted, e.g. numbers in a range, can be
+ * used with {@link org.junit.experimental.theories.ForAll ForAll} by
+ * extending them:
+ *
+ * <pre>
+ * public static class Percentages extends Generators.Ints {
+ *     public Percentages() {
+ *         super(0, 100);
+ *     }
+ * }
+ * </pre>
+ *
+ * @since 4.13
+ */
+public final class Generators {
+    private static final int DEFAULT_MAX_SIZE = 20;
+
+    private Generators() {
+    }
+
+    /**
+     * Returns the generator for parameters of type {@code type}. There are
+     * generators for primitives except {@code byte}, {@code short} and
+     * {@code float}, their wrappers, strings and enums.
+     *
+     * @throws IllegalArgumentException if there is no generator for the type
+     */
+    @SuppressWarnings("unchecked")
+    public static Generator<?> forType(Class<?> type) {
+        if (type.equals(int.class) || type.equals(Integer.class)) {
+            return new Ints();
+        } else if (type.equals(long.class) || type.equals(Long.class)) {
+            return new Longs();
+        } else if (type.equals(double.class) || type.equals(Double.class)) {
+            return new Doubles();
+        } else if (type.equals(boolean.class) || type.equals(Boolean.class)) {
+            return new Booleans();
+        } else if (type.equals(char.class) || type.equals(Character.class)) {
+            return new Chars();
+        } else if (type.equals(String.class)) {
+            return new Strings();
+        } else if (type.isEnum()) {
+            return new Enums<Object>((Class<Object>) type);
+        }
+        throw new IllegalArgumentException("There is no generator for " + type.getName()
+                + "; specify one with @ForAll(generator = ...)");
+    }
+
+    /**
+     * Generates {@code long} values, preferring small values and the bounds
+     * of the range.
+     */
+    public static class Longs extends Generator<Long> {
+        private final long min;
+
+        private final long max;
+
+        public Longs() {
+            this(Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+
+        /**
+         * Creates a generator of values from {@code min} to {@code max},
+         * both inclusive.
+         */
+        public Longs(long min, long max) {
+            if (min > max) {
+                throw new IllegalArgumentException("min " + min + " is greater than max " + max);
+            }
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public Long generate(Random random) {
+            switch (random.nextInt(8)) {
+                case 0:
+                    return random.nextBoolean() ? min : max;
+                case 1:
+                case 2:
+                    return clamp(random.nextInt(201) - 100);
+                default:
+                    return uniform(random);
+            }
+        }
+
+        private long uniform(Random random) {
+            long range = max - min;
+            if (range < 0 || range == Long.MAX_VALUE) {
+                // the range does not fit into a long
+                while (true) {
+                    long value = random.nextLong();
+                    if (value >= min && value <= max) {
+                        return value;
+                    }
+                }
+            }
+            return min + (random.nextLong() >>> 1) % (range + 1);
+        }
+
+        private long clamp(long value) {
+            return Math.max(min, Math.min(max, value));
+        }
+
+        @Override
+        public List<Long> shrink(Long value) {
+            return towards(value, clamp(0));
+        }
+    }
+
+    /**
+     * Generates {@code int} values, preferring small values and the bounds
+     * of the range.
+     */
+    public static class Ints extends Generator<Integer> {
+        private final Longs longs;
+
+        public Ints() {
+            this(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Creates a generator of values from {@code min} to {@code max},
+         * both inclusive.
+         */
+        public Ints(int min, int max) {
+            longs = new Longs(min, max);
+        }
+
+        @Override
+        public Integer generate(Random random) {
+            return longs.generate(random).intValue();
+        }
+
+        @Override
+        public List<Integer> shrink(Integer value) {
+            List<Integer> smaller = new ArrayList<Integer>();
+            for (Long each : longs.shrink(value.longValue())) {
+                smaller.add(each.intValue());
+            }
+            return smaller;
+        }
+    }
+
+    /**
+     * Generates {@code double} values, preferring zero and the bounds of the
+     * range.
+     */
+    public static class Doubles extends Generator<Double> {
+        private final double min;
+
+        private final double max;
+
+        public Doubles() {
+            this(-1e6, 1e6);
+        }
+
+        /**
+         * Creates a generator of values from {@code min} to {@code max}. Both
+         * must be finite.
+         */
+        public Doubles(double min, double max) {
+            if (!(min <= max) || Double.isInfinite(max - min)) {
+                throw new IllegalArgumentException("Invalid range [" + min + ", " + max + "]");
+            }
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public Double generate(Random random) {
+            switch (random.nextInt(8)) {
+                case 0:
+                    return random.nextBoolean() ? min : max;
+                case 1:
+                    return clamp(0);
+                default:
+                    return min + random.nextDouble() * (max - min);
+            }
+        }
+
+        private double clamp(double value) {
+            return Math.max(min, Math.min(max, value));
+        }
+
+        @Override
+        public List<Double> shrink(Double value) {
+            List<Double> smaller = new ArrayList<Double>();
+            double target = clamp(0);
+            if (value != target) {
+                smaller.add(target);
+                double truncated = clamp((double) value.longValue());
+                if (truncated != value && truncated != target) {
+                    smaller.add(truncated);
+                }
+                double halfway = target + (value - target) / 2;
+                if (halfway != value && halfway != target) {
+                    smaller.add(halfway);
+                }
+            }
+            return smaller;
+        }
+    }
+
+    /**
+     * Generates {@code true} and {@code false}.
+     */
+    public static class Booleans extends Generator<Boolean> {
+        @Override
+        public Boolean generate(Random random) {
+            return random.nextBoolean();
+        }
+
+        @Override
+        public List<Boolean> shrink(Boolean value) {
+            return value ? Collections.singletonList(false) : Collections.<Boolean>emptyList();
+        }
+    }
+
+    /**
+     * Generates characters of a range, by default the printable ASCII
+     * characters.
+     */
+    public static class Chars extends Generator<Character> {
+        private final char min;
+
+        private final char max;
+
+        public Chars() {
+            this(' ', '~');
+        }
+
+        /**
+         * Creates a generator of characters from {@code min} to {@code max},
+         * both inclusive.
+         */
+        public Chars(char min, char max) {
+            if (min > max) {
+                throw new IllegalArgumentException("min " + min + " is greater than max " + max);
+            }
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public Character generate(Random random) {
+            return (char) (min + random.nextInt(max - min + 1));
+        }
+
+        @Override
+        public List<Character> shrink(Character value) {
+            char target = 'a' >= min && 'a' <= max ? 'a' : min;
+            List<Character> smaller = new ArrayList<Character>();
+            for (Long each : towards(value, target)) {
+                smaller.add((char) each.longValue());
+            }
+            return smaller;
+        }
+    }
+
+    /**
+     * Generates strings of up to 20 characters, or of the given maximum
+     * length.
+     */
+    public static class Strings extends Generator<String> {
+        private final ListsOf<Character> characters;
+
+        public Strings() {
+            this(new Chars(), DEFAULT_MAX_SIZE);
+        }
+
+        /**
+         * Creates a generator of strings with up to {@code maxLength}
+         * characters generated by {@code chars}.
+         */
+        public Strings(Generator<Character> chars, int maxLength) {
+            characters = new ListsOf<Character>(chars, maxLength);
+        }
+
+        @Override
+        public String generate(Random random) {
+            return toString(characters.generate(random));
+        }
+
+        @Override
+        public List<String> shrink(String value) {
+            List<Character> chars = new ArrayList<Character>(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                chars.add(value.charAt(i));
+            }
+            List<String> smaller = new ArrayList<String>();
+            for (List<Character> each : characters.shrink(chars)) {
+                smaller.add(toString(each));
+            }
+            return smaller;
+        }
+
+        private static String toString(List<Character> chars) {
+            StringBuilder sb = new StringBuilder(chars.size());
+            for (Character each : chars) {
+                sb.append(each.charValue());
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Generates the constants of an enum.
+     */
+    public static class Enums<E> extends Generator<E> {
+        private final E[] constants;
+
+        public Enums(Class<E> enumType) {
+            constants = enumType.getEnumConstants();
+            if (constants == null || constants.length == 0) {
+                throw new IllegalArgumentException(enumType.getName() + " is not an enum with constants");
+            }
+        }
+
+        @Override
+        public E generate(Random random) {
+            return constants[random.nextInt(constants.length)];
+        }
+
+        @Override
+        public List<E> shrink(E value) {
+            List<E> smaller = new ArrayList<E>();
+            for (E each : constants) {
+                if (each == value) {
+                    break;
+                }
+                smaller.add(each);
+            }
+            return smaller;
+        }
+    }
+
+    /**
+     * Generates lists of up to 20 elements, or of the given maximum size.
+     */
+    public static class ListsOf<T> extends Generator<List<T>> {
+        private final Generator<T> elements;
+
+        private final int maxSize;
+
+        public ListsOf(Generator<T> elements) {
+            this(elements, DEFAULT_MAX_SIZE);
+        }
+
+        /**
+         * Creates a generator of lists with up to {@code maxSize} elements
+         * generated by {@code elements}.
+         */
+        public ListsOf(Generator<T> elements, int maxSize) {
+            if (maxSize < 0) {
+                throw new IllegalArgumentException("maxSize must not be negative but was " + maxSize);
+            }
+            this.elements = elements;
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public List<T> generate(Random random) {
+            int size = random.nextInt(maxSize + 1);
+            List<T> list = new ArrayList<T>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(elements.generate(random));
+            }
+            return list;
+        }
+
+        /**
+         * Returns the empty list, the list without chunks of decreasing size
+         * and the list with each element shrunk.
+         */
+        @Override
+        public List<List<T>> shrink(List<T> value) {
+            List<List<T>> smaller = new ArrayList<List<T>>();
+            if (value.isEmpty()) {
+                return smaller;
+            }
+            smaller.add(new ArrayList<T>());
+            for (int chunk = value.size() / 2; chunk > 0; chunk /= 2) {
+                for (int start = 0; start + chunk <= value.size(); start += chunk) {
+                    List<T> list = new ArrayList<T>(value.subList(0, start));
+                    list.addAll(value.subList(start + chunk, value.size()));
+                    smaller.add(list);
+                }
+            }
+            for (int i = 0; i < value.size(); i++) {
+                for (T each : elements.shrink(value.get(i))) {
+                    List<T> list = new ArrayList<T>(value);
+                    list.set(i, each);
+                    smaller.add(list);
+                }
+            }
+            return smaller;
+        }
+    }
+
+    /**
+     * Returns values between {@code target} and {@code value} with
+     * decreasing distance to {@code value}, starting with {@code target}.
+     */
+    private static List<Long> towards(long value, long target) {
+        List<Long> values = new ArrayList<Long>();
+        for (long distance = value - target; distance != 0; distance /= 2) {
+            values.add(value - distance);
+        }
+        return values;
+    }
+}
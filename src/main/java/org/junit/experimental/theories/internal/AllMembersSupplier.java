@@ -24,14 +24,18 @@ public class AllMembersSupplier extends ParameterSupplier {
     static class MethodParameterValue extends PotentialAssignment {
         private final FrameworkMethod method;
 
-        private MethodParameterValue(FrameworkMethod dataPointMethod) {
+        private final DataPointValues values;
+
+        private MethodParameterValue(FrameworkMethod dataPointMethod,
+                DataPointValues values) {
             method = dataPointMethod;
+            this.values = values;
         }
 
         @Override
         public Object getValue() throws CouldNotGenerateValueException {
             try {
-                return method.invokeExplosively(null);
+                return values.getMethodValue(method);
             } catch (IllegalArgumentException e) {
                 throw new RuntimeException(
                         "unexpected: argument length is checked");
@@ -54,6 +58,8 @@ public class AllMembersSupplier extends ParameterSupplier {
     
     private final TestClass clazz;
 
+    private DataPointValues values = new DataPointValues();
+
     /**
      * Constructs a new supplier for {@code type}
      */
@@ -61,6 +67,14 @@ public class AllMembersSupplier extends ParameterSupplier {
         clazz = type;
     }
 
+    /**
+     * Lets this supplier share the data point values remembered by
+     * {@code values}, instead of reading them again.
+     */
+    void setDataPointValues(DataPointValues values) {
+        this.values = values;
+    }
+
     @Override
     public List<PotentialAssignment> getValueSources(ParameterSignature sig) throws Throwable {
         List<PotentialAssignment> list = new ArrayList<PotentialAssignment>();
@@ -79,43 +93,67 @@ public class AllMembersSupplier extends ParameterSupplier {
             
             if ((returnType.isArray() && sig.canPotentiallyAcceptType(returnType.getComponentType())) ||
                     Iterable.class.isAssignableFrom(returnType)) {
-                try {
-                    addDataPointsValues(returnType, sig, dataPointsMethod.getName(), list, 
-                            dataPointsMethod.invokeExplosively(null));
-                } catch (Throwable throwable) {
-                    DataPoints annotation = dataPointsMethod.getAnnotation(DataPoints.class);
-                    if (annotation != null && isAssignableToAnyOf(annotation.ignoredExceptions(), throwable)) {
-                        return;
-                    } else {
-                        throw throwable;
+                List<PotentialAssignment> assignments = values.getAssignments(dataPointsMethod.getMethod(), sig);
+                if (assignments == null) {
+                    assignments = new ArrayList<PotentialAssignment>();
+                    try {
+                        addDataPointsValues(returnType, sig, dataPointsMethod.getName(), assignments,
+                                values.getMethodValue(dataPointsMethod));
+                    } catch (Throwable throwable) {
+                        DataPoints annotation = dataPointsMethod.getAnnotation(DataPoints.class);
+                        if (annotation != null && isAssignableToAnyOf(annotation.ignoredExceptions(), throwable)) {
+                            return;
+                        } else {
+                            throw throwable;
+                        }
                     }
+                    values.putAssignments(dataPointsMethod.getMethod(), sig, assignments);
                 }
+                list.addAll(assignments);
             }
         }
     }
 
     private void addSinglePointMethods(ParameterSignature sig, List<PotentialAssignment> list) {
         for (FrameworkMethod dataPointMethod : getSingleDataPointMethods(sig)) {
-            if (sig.canAcceptType(dataPointMethod.getType())) {
-                list.add(new MethodParameterValue(dataPointMethod));
+            List<PotentialAssignment> assignments = values.getAssignments(dataPointMethod.getMethod(), sig);
+            if (assignments == null) {
+                assignments = new ArrayList<PotentialAssignment>(1);
+                if (sig.canAcceptType(dataPointMethod.getType())) {
+                    assignments.add(new MethodParameterValue(dataPointMethod, values));
+                }
+                values.putAssignments(dataPointMethod.getMethod(), sig, assignments);
             }
+            list.addAll(assignments);
         }
     }
     
     private void addMultiPointFields(ParameterSignature sig, List<PotentialAssignment> list) {
         for (final Field field : getDataPointsFields(sig)) {
-            Class<?> type = field.getType();
-            addDataPointsValues(type, sig, field.getName(), list, getStaticFieldValue(field));
+            List<PotentialAssignment> assignments = values.getAssignments(field, sig);
+            if (assignments == null) {
+                assignments = new ArrayList<PotentialAssignment>();
+                addDataPointsValues(field.getType(), sig, field.getName(), assignments,
+                        getStaticFieldValue(field));
+                values.putAssignments(field, sig, assignments);
+            }
+            list.addAll(assignments);
         }
     }
 
     private void addSinglePointFields(ParameterSignature sig, List<PotentialAssignment> list) {
         for (final Field field : getSingleDataPointFields(sig)) {
-            Object value = getStaticFieldValue(field);
-            
-            if (sig.canAcceptValue(value)) {
-                list.add(PotentialAssignment.forValue(field.getName(), value));
+            List<PotentialAssignment> assignments = values.getAssignments(field, sig);
+            if (assignments == null) {
+                assignments = new ArrayList<PotentialAssignment>(1);
+                Object value = getStaticFieldValue(field);
+
+                if (sig.canAcceptValue(value)) {
+                    assignments.add(PotentialAssignment.forValue(field.getName(), value));
+                }
+                values.putAssignments(field, sig, assignments);
             }
+            list.addAll(assignments);
         }
     }
     
@@ -152,7 +190,7 @@ public class AllMembersSupplier extends ParameterSupplier {
 
     private Object getStaticFieldValue(final Field field) {
         try {
-            return field.get(null);
+            return values.getFieldValue(field);
         } catch (IllegalArgumentException e) {
             throw new RuntimeException(
                     "unexpected: field from getClass doesn't exist on object");
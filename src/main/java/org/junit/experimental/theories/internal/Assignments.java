@@ -5,6 +5,7 @@ import static java.util.Collections.emptyList;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.experimental.theories.ParameterSignature;
@@ -25,11 +26,18 @@ public class Assignments {
 
     private final TestClass clazz;
 
+    private final DataPointValues dataPointValues;
+
+    private final long seed;
+
     private Assignments(List<PotentialAssignment> assigned,
-            List<ParameterSignature> unassigned, TestClass clazz) {
+            List<ParameterSignature> unassigned, TestClass clazz,
+            DataPointValues dataPointValues, long seed) {
         this.unassigned = unassigned;
         this.assigned = assigned;
         this.clazz = clazz;
+        this.dataPointValues = dataPointValues;
+        this.seed = seed;
     }
 
     /**
@@ -38,12 +46,33 @@ public class Assignments {
      */
     public static Assignments allUnassigned(Method testMethod,
             TestClass testClass) {
+        return allUnassigned(testMethod, testClass, new DataPointValues());
+    }
+
+    /**
+     * Returns a new assignment list for {@code testMethod}, with no params
+     * assigned, that takes the values of data points from
+     * {@code dataPointValues}.
+     */
+    public static Assignments allUnassigned(Method testMethod,
+            TestClass testClass, DataPointValues dataPointValues) {
+        return allUnassigned(testMethod, testClass, dataPointValues, 0);
+    }
+
+    /**
+     * Returns a new assignment list for {@code testMethod}, with no params
+     * assigned, that takes the values of data points from
+     * {@code dataPointValues} and derives generated values from
+     * {@code seed}.
+     */
+    public static Assignments allUnassigned(Method testMethod,
+            TestClass testClass, DataPointValues dataPointValues, long seed) {
         List<ParameterSignature> signatures;
         signatures = ParameterSignature.signatures(testClass
                 .getOnlyConstructor());
         signatures.addAll(ParameterSignature.signatures(testMethod));
         return new Assignments(new ArrayList<PotentialAssignment>(),
-                signatures, testClass);
+                signatures, testClass, dataPointValues, seed);
     }
 
     public boolean isComplete() {
@@ -59,7 +88,26 @@ public class Assignments {
         potentialAssignments.add(source);
 
         return new Assignments(potentialAssignments, unassigned.subList(1,
-                unassigned.size()), clazz);
+                unassigned.size()), clazz, dataPointValues, seed);
+    }
+
+    /**
+     * Returns the assigned values, in the order of the parameters.
+     */
+    public List<PotentialAssignment> getAssigned() {
+        return Collections.unmodifiableList(assigned);
+    }
+
+    /**
+     * Returns a copy of this assignment list with the value of the assigned
+     * parameter {@code index} replaced by {@code source}.
+     */
+    public Assignments reassign(int index, PotentialAssignment source) {
+        List<PotentialAssignment> potentialAssignments = new ArrayList<PotentialAssignment>(assigned);
+        potentialAssignments.set(index, source);
+
+        return new Assignments(potentialAssignments, unassigned, clazz,
+                dataPointValues, seed);
     }
 
     public Object[] getActualValues(int start, int stop) 
@@ -100,11 +148,17 @@ public class Assignments {
         ParametersSuppliedBy annotation = unassigned
                 .findDeepAnnotation(ParametersSuppliedBy.class);
         
-        if (annotation != null) {
-            return buildParameterSupplierFromClass(annotation.value());
-        } else {
-            return new AllMembersSupplier(clazz);
+        ParameterSupplier supplier = annotation != null
+                ? buildParameterSupplierFromClass(annotation.value())
+                : new AllMembersSupplier(clazz);
+        if (supplier instanceof AllMembersSupplier) {
+            ((AllMembersSupplier) supplier).setDataPointValues(dataPointValues);
+        } else if (supplier instanceof GeneratedValuesSupplier) {
+            // each parameter gets its own sequence of values
+            ((GeneratedValuesSupplier) supplier).setSeed(
+                    GeneratedValuesSupplier.mix(seed, assigned.size()));
         }
+        return supplier;
     }
 
     private ParameterSupplier buildParameterSupplierFromClass(
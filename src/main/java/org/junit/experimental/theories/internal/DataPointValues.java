@@ -0,0 +1,145 @@
+package org.junit.experimental.theories.internal;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.junit.experimental.theories.DataPoint;
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.ParameterSignature;
+import org.junit.experimental.theories.PotentialAssignment;
+import org.junit.runners.model.FrameworkMethod;
+
+/**
+ * Remembers the values of the data point fields and methods of a test class
+ * during a run, so that each field is read and each method is invoked only
+ * once, however many parameters and assignments use it. It also remembers
+ * which potential assignments a data point member yields for a parameter.
+ *
+ * <p>Members whose {@link DataPoint} or {@link DataPoints} annotation sets
+ * {@code fresh} are read or invoked each time their value is needed.
+ *
+ * <p>Instances are thread-safe.
+ */
+public class DataPointValues {
+    private final ConcurrentMap<AnnotatedElement, Outcome> values =
+            new ConcurrentHashMap<AnnotatedElement, Outcome>();
+
+    private final ConcurrentMap<MemberAndSignature, List<PotentialAssignment>> assignments =
+            new ConcurrentHashMap<MemberAndSignature, List<PotentialAssignment>>();
+
+    /**
+     * Returns the value of the static data point field {@code field}.
+     */
+    public Object getFieldValue(Field field) throws IllegalAccessException {
+        if (isFresh(field)) {
+            return field.get(null);
+        }
+        Outcome outcome = values.get(field);
+        if (outcome == null) {
+            outcome = remember(field, new Outcome(field.get(null), null));
+        }
+        return outcome.value;
+    }
+
+    /**
+     * Returns the value returned by the static data point method
+     * {@code method}, or throws the exception that it has thrown.
+     */
+    public Object getMethodValue(FrameworkMethod method) throws Throwable {
+        if (isFresh(method.getMethod())) {
+            return method.invokeExplosively(null);
+        }
+        Outcome outcome = values.get(method.getMethod());
+        if (outcome == null) {
+            try {
+                outcome = new Outcome(method.invokeExplosively(null), null);
+            } catch (Throwable e) {
+                outcome = new Outcome(null, e);
+            }
+            outcome = remember(method.getMethod(), outcome);
+        }
+        if (outcome.failure != null) {
+            throw outcome.failure;
+        }
+        return outcome.value;
+    }
+
+    private Outcome remember(AnnotatedElement member, Outcome outcome) {
+        Outcome previous = values.putIfAbsent(member, outcome);
+        return previous == null ? outcome : previous;
+    }
+
+    /**
+     * Returns the potential assignments that {@code member} (a {@code Field}
+     * or {@code Method}) yields for {@code sig}, or {@code null} if they have
+     * not been remembered.
+     */
+    public List<PotentialAssignment> getAssignments(AnnotatedElement member,
+            ParameterSignature sig) {
+        return assignments.get(new MemberAndSignature(member, sig));
+    }
+
+    /**
+     * Remembers the potential assignments that {@code member} yields for
+     * {@code sig}, unless the values of {@code member} must be fresh.
+     */
+    public void putAssignments(AnnotatedElement member, ParameterSignature sig,
+            List<PotentialAssignment> potentialAssignments) {
+        if (!isFresh(member)) {
+            assignments.putIfAbsent(new MemberAndSignature(member, sig),
+                    potentialAssignments);
+        }
+    }
+
+    private static boolean isFresh(AnnotatedElement member) {
+        DataPoint dataPoint = member.getAnnotation(DataPoint.class);
+        if (dataPoint != null && dataPoint.fresh()) {
+            return true;
+        }
+        DataPoints dataPoints = member.getAnnotation(DataPoints.class);
+        return dataPoints != null && dataPoints.fresh();
+    }
+
+    private static class Outcome {
+        final Object value;
+
+        final Throwable failure;
+
+        Outcome(Object value, Throwable failure) {
+            this.value = value;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Signatures are compared by identity: the signatures of a theory are
+     * created once per evaluation of the theory.
+     */
+    private static class MemberAndSignature {
+        private final AnnotatedElement member;
+
+        private final ParameterSignature sig;
+
+        MemberAndSignature(AnnotatedElement member, ParameterSignature sig) {
+            this.member = member;
+            this.sig = sig;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof MemberAndSignature)) {
+                return false;
+            }
+            MemberAndSignature other = (MemberAndSignature) obj;
+            return member.equals(other.member) && sig == other.sig;
+        }
+
+        @Override
+        public int hashCode() {
+            return member.hashCode() * 31 + System.identityHashCode(sig);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.junit.experimental.theories.internal;
+
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.experimental.theories.Generator;
+import org.junit.experimental.theories.PotentialAssignment;
+
+/**
+ * A value of a parameter that is produced by a {@link Generator}. A
+ * generated value is not stored but generated again from its seed whenever
+ * it is needed; a shrunk value is stored.
+ */
+public class GeneratedValue<T> extends PotentialAssignment {
+    private final Generator<T> generator;
+
+    private final long seed;
+
+    private final int index;
+
+    private final boolean shrunk;
+
+    private final T value;
+
+    private GeneratedValue(Generator<T> generator, long seed, int index,
+            boolean shrunk, T value) {
+        this.generator = generator;
+        this.seed = seed;
+        this.index = index;
+        this.shrunk = shrunk;
+        this.value = value;
+    }
+
+    /**
+     * Returns the value number {@code index} that {@code generator} generates
+     * from {@code seed}.
+     */
+    public static <T> GeneratedValue<T> generated(Generator<T> generator, long seed, int index) {
+        return new GeneratedValue<T>(generator, seed, index, false, null);
+    }
+
+    @Override
+    public T getValue() throws CouldNotGenerateValueException {
+        if (shrunk) {
+            return value;
+        }
+        try {
+            return generator.generate(new Random(seed));
+        } catch (RuntimeException e) {
+            throw new CouldNotGenerateValueException(e);
+        }
+    }
+
+    /**
+     * Returns the values that the generator shrinks this value to, the
+     * simplest first.
+     */
+    public List<PotentialAssignment> shrink() throws CouldNotGenerateValueException {
+        List<PotentialAssignment> smaller = new ArrayList<PotentialAssignment>();
+        for (T each : generator.shrink(getValue())) {
+            smaller.add(new GeneratedValue<T>(generator, seed, index, true, each));
+        }
+        return smaller;
+    }
+
+    @Override
+    public String getDescription() throws CouldNotGenerateValueException {
+        Object value = getValue();
+        String valueString;
+        if (value == null) {
+            valueString = "null";
+        } else {
+            try {
+                valueString = format("\"%s\"", value);
+            } catch (Throwable e) {
+                valueString = format("[toString() threw %s: %s]",
+                        e.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+        return format(shrunk ? "%s <shrunk from generated value %d>" : "%s <generated value %d>",
+                valueString, index);
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return format("[%s]", getValue());
+        } catch (CouldNotGenerateValueException e) {
+            return "[could not generate value]";
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.junit.experimental.theories.internal;
+
+import java.util.AbstractList;
+import java.util.List;
+
+import org.junit.experimental.theories.ForAll;
+import org.junit.experimental.theories.Generator;
+import org.junit.experimental.theories.ParameterSignature;
+import org.junit.experimental.theories.ParameterSupplier;
+import org.junit.experimental.theories.PotentialAssignment;
+import org.junit.experimental.theories.generators.Generators;
+
+/**
+ * Supplies the generated values of a parameter annotated with
+ * {@link ForAll}. The returned list does not hold the values: each value is
+ * generated from its own seed when it is needed.
+ *
+ * @see ForAll
+ */
+public class GeneratedValuesSupplier extends ParameterSupplier {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long seed = 0;
+
+    /**
+     * Sets the seed that the values are derived from.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public List<PotentialAssignment> getValueSources(ParameterSignature sig) throws Throwable {
+        ForAll forAll = sig.findDeepAnnotation(ForAll.class);
+        if (forAll.count() < 0) {
+            throw new IllegalArgumentException("The count of generated values must not be negative but was "
+                    + forAll.count());
+        }
+        Generator<?> generator = forAll.generator() == ForAll.ByType.class
+                ? Generators.forType(sig.getType())
+                : forAll.generator().newInstance();
+        return new GeneratedValues(generator, seed, forAll.count());
+    }
+
+    /**
+     * Returns a seed for the element {@code index} of a sequence that is
+     * derived from {@code seed}. Seeds of different elements are unrelated,
+     * even if the seeds of the sequences are close to each other.
+     */
+    public static long mix(long seed, long index) {
+        // the finalizer of SplitMix64
+        long z = seed + (index + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static class GeneratedValues extends AbstractList<PotentialAssignment> {
+        private final Generator<?> generator;
+
+        private final long seed;
+
+        private final int count;
+
+        GeneratedValues(Generator<?> generator, long seed, int count) {
+            this.generator = generator;
+            this.seed = seed;
+            this.count = count;
+        }
+
+        @Override
+        public PotentialAssignment get(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+            }
+            return GeneratedValue.generated(generator, mix(seed, index), index);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+}
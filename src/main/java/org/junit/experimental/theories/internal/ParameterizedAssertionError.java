@@ -13,6 +13,23 @@ public class ParameterizedAssertionError extends AssertionError {
         this.initCause(targetException);
     }
 
+    private ParameterizedAssertionError(String message, Throwable targetException) {
+        super(message);
+        this.initCause(targetException);
+    }
+
+    /**
+     * Returns a copy of this error whose message is followed by {@code note}.
+     *
+     * @since 4.13
+     */
+    public ParameterizedAssertionError withNote(String note) {
+        ParameterizedAssertionError error = new ParameterizedAssertionError(
+                getMessage() + " " + note, getCause());
+        error.setStackTrace(getStackTrace());
+        return error;
+    }
+
     @Override
     public boolean equals(Object obj) {
         return obj instanceof ParameterizedAssertionError && toString().equals(obj.toString());
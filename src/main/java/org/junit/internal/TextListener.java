@@ -25,6 +25,7 @@ public class TextListener extends RunListener {
     public void testRunFinished(Result result) {
         printHeader(result.getRunTime());
         printFailures(result);
+        printFlakyFailures(result);
         printFooter(result);
     }
 
@@ -72,6 +73,23 @@ public class TextListener extends RunListener {
         }
     }
 
+    protected void printFlakyFailures(Result result) {
+        List<Failure> flakyFailures = result.getFlakyFailures();
+        if (flakyFailures.isEmpty()) {
+            return;
+        }
+        if (flakyFailures.size() == 1) {
+            getWriter().println("There was 1 flaky test, which passed when run again:");
+        } else {
+            getWriter().println("There were " + flakyFailures.size()
+                    + " flaky tests, which passed when run again:");
+        }
+        int i = 1;
+        for (Failure each : flakyFailures) {
+            printFailure(each, "" + i++);
+        }
+    }
+
     protected void printFailure(Failure each, String prefix) {
         getWriter().println(prefix + ") " + each.getTestHeader());
         getWriter().print(each.getTrace());
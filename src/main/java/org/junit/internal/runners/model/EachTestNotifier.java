@@ -34,6 +34,10 @@ public class EachTestNotifier {
         notifier.fireTestAssumptionFailed(new Failure(description, e));
     }
 
+    public void fireTestFlaky(Throwable firstFailure) {
+        notifier.fireTestFlaky(new Failure(description, firstFailure));
+    }
+
     public void fireTestFinished() {
         notifier.fireTestFinished(description);
     }
@@ -4,7 +4,9 @@ import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadMXBean;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
@@ -21,6 +23,7 @@ public class FailOnTimeout extends Statement {
     private final TimeUnit timeUnit;
     private final long timeout;
     private final boolean lookForStuckThread;
+    private final boolean runOnCallingThread;
 
     /**
      * Returns a new builder for building an instance.
@@ -48,6 +51,7 @@ public class FailOnTimeout extends Statement {
         timeout = builder.timeout;
         timeUnit = builder.unit;
         lookForStuckThread = builder.lookForStuckThread;
+        runOnCallingThread = builder.runOnCallingThread;
     }
 
     /**
@@ -57,6 +61,7 @@ public class FailOnTimeout extends Statement {
      */
     public static class Builder {
         private boolean lookForStuckThread = false;
+        private boolean runOnCallingThread = false;
         private long timeout = 0;
         private TimeUnit unit = TimeUnit.SECONDS;
 
@@ -102,6 +107,23 @@ public class FailOnTimeout extends Statement {
             return this;
         }
 
+        /**
+         * Specifies whether to run the test on the calling thread instead of a
+         * new thread. The deadlines of all tests run this way are watched by
+         * a single shared thread, which captures the stack trace of a test
+         * that times out and interrupts it. This avoids creating a thread per
+         * test, but a test that does not respond to the interrupt keeps the
+         * calling thread busy until it completes. This feature is experimental.
+         *
+         * @param enable {@code true} to enable the feature
+         * @return {@code this} for method chaining.
+         * @since 4.13
+         */
+        public Builder withRunningOnCallingThread(boolean enable) {
+            this.runOnCallingThread = enable;
+            return this;
+        }
+
         /**
          * Builds a {@link FailOnTimeout} instance using the values in this builder,
          * wrapping the given statement.
@@ -118,6 +140,10 @@ public class FailOnTimeout extends Statement {
 
     @Override
     public void evaluate() throws Throwable {
+        if (runOnCallingThread) {
+            evaluateOnCallingThread();
+            return;
+        }
         CallableStatement callable = new CallableStatement();
         FutureTask<Throwable> task = new FutureTask<Throwable>(callable);
         ThreadGroup threadGroup = new ThreadGroup("FailOnTimeoutGroup");
@@ -131,6 +157,29 @@ public class FailOnTimeout extends Statement {
         }
     }
 
+    private void evaluateOnCallingThread() throws Throwable {
+        if (timeout <= 0) {
+            originalStatement.evaluate();
+            return;
+        }
+        CallingThreadWatch watch = new CallingThreadWatch(Thread.currentThread());
+        TimeoutWatchdog.start(watch);
+        Throwable throwable = null;
+        try {
+            originalStatement.evaluate();
+        } catch (Throwable e) {
+            throwable = e;
+        }
+        if (!TimeoutWatchdog.stop(watch)) {
+            // the interrupt was meant for the statement only
+            Thread.interrupted();
+            throwable = watch.timeoutException;
+        }
+        if (throwable != null) {
+            throw throwable;
+        }
+    }
+
     /**
      * Wait for the test task, returning the exception thrown by the test if the
      * test failed, an exception indicating a timeout if the test timed out, or
@@ -154,8 +203,13 @@ public class FailOnTimeout extends Statement {
     }
 
     private Exception createTimeoutException(Thread thread) {
-        StackTraceElement[] stackTrace = thread.getStackTrace();
-        final Thread stuckThread = lookForStuckThread ? getStuckThread(thread) : null;
+        return createTimeoutException(thread, thread.getStackTrace(),
+                Collections.<Thread>emptySet());
+    }
+
+    private Exception createTimeoutException(Thread thread, StackTraceElement[] stackTrace,
+            Set<Thread> threadsToIgnore) {
+        final Thread stuckThread = lookForStuckThread ? getStuckThread(thread, threadsToIgnore) : null;
         Exception currThreadException = new TestTimedOutException(timeout, timeUnit);
         if (stackTrace != null) {
             currThreadException.setStackTrace(stackTrace);
@@ -192,12 +246,13 @@ public class FailOnTimeout extends Statement {
      * the "main thread" (the one created to run the test).  This feature is experimental.
      * Behavior may change after the 4.12 release in response to feedback.
      * @param mainThread The main thread created by {@code evaluate()}
+     * @param threadsToIgnore Threads that are known not to belong to the test
      * @return The thread which appears to be causing the problem, if different from
      * {@code mainThread}, or {@code null} if the main thread appears to be the
      * problem or if the thread cannot be determined.  The return value is never equal 
      * to {@code mainThread}.
      */
-    private Thread getStuckThread(Thread mainThread) {
+    private Thread getStuckThread(Thread mainThread, Set<Thread> threadsToIgnore) {
         List<Thread> threadsInGroup = getThreadsInGroup(mainThread.getThreadGroup());
         if (threadsInGroup.isEmpty()) {
             return null;
@@ -211,7 +266,7 @@ public class FailOnTimeout extends Statement {
         Thread stuckThread = null;
         long maxCpuTime = 0;
         for (Thread thread : threadsInGroup) {
-            if (thread.getState() == Thread.State.RUNNABLE) {
+            if (thread.getState() == Thread.State.RUNNABLE && !threadsToIgnore.contains(thread)) {
                 long threadCpuTime = cpuTime(thread);
                 if (stuckThread == null || threadCpuTime > maxCpuTime) {
                     stuckThread = thread;
@@ -265,6 +320,50 @@ public class FailOnTimeout extends Statement {
         return 0;
     }
 
+    /**
+     * Returns the stack trace of a thread that runs this statement on the
+     * calling thread, without the frames of the code that called it.
+     */
+    private StackTraceElement[] getStackTraceOfStatement(Thread thread) {
+        StackTraceElement[] stackTrace = getStackTrace(thread);
+        for (int i = 0; i < stackTrace.length; i++) {
+            if (stackTrace[i].getClassName().equals(FailOnTimeout.class.getName())) {
+                StackTraceElement[] statementStackTrace = new StackTraceElement[i];
+                System.arraycopy(stackTrace, 0, statementStackTrace, 0, i);
+                return statementStackTrace;
+            }
+        }
+        return stackTrace;
+    }
+
+    private class CallingThreadWatch extends TimeoutWatchdog.Watch {
+        private final Thread thread;
+
+        private final Set<Thread> threadsStartedBefore;
+
+        private volatile Exception timeoutException;
+
+        CallingThreadWatch(Thread thread) {
+            super(timeout, timeUnit);
+            this.thread = thread;
+            if (lookForStuckThread) {
+                // threads in the group of the calling thread that do not
+                // exist yet are assumed to be started by the test
+                threadsStartedBefore = new HashSet<Thread>(
+                        getThreadsInGroup(thread.getThreadGroup()));
+                threadsStartedBefore.remove(thread);
+            } else {
+                threadsStartedBefore = Collections.emptySet();
+            }
+        }
+
+        @Override
+        protected void expire() {
+            timeoutException = createTimeoutException(thread,
+                    getStackTraceOfStatement(thread), threadsStartedBefore);
+        }
+    }
+
     private class CallableStatement implements Callable<Throwable> {
         private final CountDownLatch startLatch = new CountDownLatch(1);
 
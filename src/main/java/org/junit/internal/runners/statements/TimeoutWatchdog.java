@@ -0,0 +1,130 @@
+package org.junit.internal.runners.statements;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A single daemon thread that watches the deadlines of all statements that
+ * are run with a timeout on their calling thread, so that no thread has to be
+ * created per statement.
+ */
+final class TimeoutWatchdog {
+    private static final DelayQueue<Watch> WATCHES = new DelayQueue<Watch>();
+
+    private static Thread watchdogThread = null;
+
+    private TimeoutWatchdog() {
+    }
+
+    /**
+     * Starts watching {@code watch}; {@link Watch#expire()} is called on the
+     * watchdog thread unless {@link #stop(Watch)} is called before the
+     * deadline.
+     */
+    static void start(Watch watch) {
+        ensureWatchdogThreadStarted();
+        WATCHES.add(watch);
+    }
+
+    /**
+     * Stops watching {@code watch}.
+     *
+     * @return {@code true} if the deadline has not been reached, {@code false}
+     * if {@link Watch#expire()} has been called. In the latter case this
+     * method returns only after {@code expire()} has completed.
+     */
+    static boolean stop(Watch watch) {
+        if (watch.state.compareAndSet(Watch.WATCHING, Watch.STOPPED)) {
+            WATCHES.remove(watch);
+            return true;
+        }
+        watch.awaitExpired();
+        return false;
+    }
+
+    private static synchronized void ensureWatchdogThreadStarted() {
+        if (watchdogThread == null) {
+            watchdogThread = new Thread(new Runnable() {
+                public void run() {
+                    watchForever();
+                }
+            }, "Timeout watchdog");
+            watchdogThread.setDaemon(true);
+            watchdogThread.start();
+        }
+    }
+
+    private static void watchForever() {
+        while (true) {
+            Watch watch;
+            try {
+                watch = WATCHES.take();
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (watch.state.compareAndSet(Watch.WATCHING, Watch.EXPIRED)) {
+                try {
+                    watch.expire();
+                } catch (Throwable e) {
+                    e.printStackTrace(System.err);
+                } finally {
+                    watch.expired.countDown();
+                }
+            }
+        }
+    }
+
+    /**
+     * A deadline being watched by the watchdog.
+     */
+    abstract static class Watch implements Delayed {
+        private static final int WATCHING = 0;
+
+        private static final int STOPPED = 1;
+
+        private static final int EXPIRED = 2;
+
+        private final long deadline;
+
+        private final AtomicInteger state = new AtomicInteger(WATCHING);
+
+        private final CountDownLatch expired = new CountDownLatch(1);
+
+        Watch(long timeout, TimeUnit unit) {
+            // avoid overflows when comparing far away deadlines
+            deadline = System.nanoTime() + Math.min(unit.toNanos(timeout), Long.MAX_VALUE / 4);
+        }
+
+        /**
+         * Called on the watchdog thread when the deadline has been reached.
+         */
+        protected abstract void expire();
+
+        private void awaitExpired() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    expired.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        public int compareTo(Delayed other) {
+            long difference = deadline - ((Watch) other).deadline;
+            return difference < 0 ? -1 : (difference == 0 ? 0 : 1);
+        }
+    }
+}
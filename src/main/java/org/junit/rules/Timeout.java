@@ -34,6 +34,11 @@ import java.util.concurrent.TimeUnit;
  * A specified timeout of 0 will be interpreted as not set, however tests will
  * still launch from separate threads. This can be useful for disabling timeouts
  * in environments where they are dynamically set based on some property.
+ * <p>
+ * Alternatively, a rule built with
+ * {@link Builder#withRunningOnCallingThread(boolean)} runs each test on the
+ * thread that runs the test class, and a single watchdog thread interrupts the
+ * tests that time out. This avoids creating a thread per test.
  *
  * @since 4.7
  */
@@ -41,6 +46,7 @@ public class Timeout implements TestRule {
     private final long timeout;
     private final TimeUnit timeUnit;
     private final boolean lookForStuckThread;
+    private final boolean runOnCallingThread;
 
     /**
      * Returns a new builder for building an instance.
@@ -81,6 +87,7 @@ public class Timeout implements TestRule {
         this.timeout = timeout;
         this.timeUnit = timeUnit;
         lookForStuckThread = false;
+        runOnCallingThread = false;
     }
 
     /**
@@ -93,6 +100,7 @@ public class Timeout implements TestRule {
         timeout = builder.getTimeout();
         timeUnit = builder.getTimeUnit();
         lookForStuckThread = builder.getLookingForStuckThread();
+        runOnCallingThread = builder.getRunningOnCallingThread();
     }
 
     /**
@@ -134,6 +142,16 @@ public class Timeout implements TestRule {
         return lookForStuckThread;
     }
 
+    /**
+     * Gets whether this {@code Timeout} runs the test on the calling thread
+     * instead of a new thread.
+     *
+     * @since 4.13
+     */
+    protected final boolean getRunningOnCallingThread() {
+        return runOnCallingThread;
+    }
+
     /**
      * Creates a {@link Statement} that will run the given
      * {@code statement}, and timeout the operation based
@@ -147,6 +165,7 @@ public class Timeout implements TestRule {
         return FailOnTimeout.builder()
             .withTimeout(timeout, timeUnit)
             .withLookingForStuckThread(lookForStuckThread)
+            .withRunningOnCallingThread(runOnCallingThread)
             .build(statement);
     }
 
@@ -169,6 +188,7 @@ public class Timeout implements TestRule {
      */
     public static class Builder {
         private boolean lookForStuckThread = false;
+        private boolean runOnCallingThread = false;
         private long timeout = 0;
         private TimeUnit timeUnit = TimeUnit.SECONDS;
 
@@ -222,6 +242,26 @@ public class Timeout implements TestRule {
             return lookForStuckThread;
         }
 
+        /**
+         * Specifies whether to run the test on the calling thread instead of
+         * a new thread. The deadlines of all tests run this way are watched by
+         * a single shared thread, which interrupts a test that times out. A
+         * test that does not respond to the interrupt keeps running until it
+         * completes and then fails. This feature is experimental.
+         *
+         * @param enable {@code true} to enable the feature
+         * @return {@code this} for method chaining.
+         * @since 4.13
+         */
+        public Builder withRunningOnCallingThread(boolean enable) {
+            this.runOnCallingThread = enable;
+            return this;
+        }
+
+        protected boolean getRunningOnCallingThread() {
+            return runOnCallingThread;
+        }
+
 
         /**
          * Builds a {@link Timeout} instance using the values in this builder.,
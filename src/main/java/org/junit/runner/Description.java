@@ -1,5 +1,7 @@
 package org.junit.runner;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
@@ -70,7 +72,8 @@ public class Description implements Serializable {
      * @return a <code>Description</code> named <code>name</code>
      */
     public static Description createTestDescription(String className, String name, Annotation... annotations) {
-        return new Description(null, formatDisplayName(name, className), annotations);
+        String displayName = formatDisplayName(name, className);
+        return new Description(null, displayName, displayName, name, className, annotations);
     }
 
     /**
@@ -83,7 +86,8 @@ public class Description implements Serializable {
      * @return a <code>Description</code> named <code>name</code>
      */
     public static Description createTestDescription(Class<?> clazz, String name, Annotation... annotations) {
-        return new Description(clazz, formatDisplayName(name, clazz.getName()), annotations);
+        String displayName = formatDisplayName(name, clazz.getName());
+        return new Description(clazz, displayName, displayName, name, clazz.getName(), annotations);
     }
 
     /**
@@ -96,7 +100,8 @@ public class Description implements Serializable {
      * @return a <code>Description</code> named <code>name</code>
      */
     public static Description createTestDescription(Class<?> clazz, String name) {
-        return new Description(clazz, formatDisplayName(name, clazz.getName()));
+        String displayName = formatDisplayName(name, clazz.getName());
+        return new Description(clazz, displayName, displayName, name, clazz.getName());
     }
 
     /**
@@ -107,11 +112,11 @@ public class Description implements Serializable {
      * @return a <code>Description</code> named <code>name</code>
      */
     public static Description createTestDescription(String className, String name, Serializable uniqueId) {
-        return new Description(null, formatDisplayName(name, className), uniqueId);
+        return new Description(null, formatDisplayName(name, className), uniqueId, name, className);
     }
 
     private static String formatDisplayName(String name, String className) {
-        return String.format("%s(%s)", name, className);
+        return name + "(" + className + ")";
     }
 
     /**
@@ -141,17 +146,31 @@ public class Description implements Serializable {
      * serialization compatibility. 
      * See https://github.com/junit-team/junit/issues/976
      */
-    private final Collection<Description> fChildren = new ConcurrentLinkedQueue<Description>();
+    // null as long as there are no children, which saves the queue for
+    // atomic tests. Always written as a queue, see writeObject().
+    private volatile Collection<Description> fChildren = null;
     private final String fDisplayName;
     private final Serializable fUniqueId;
     private final Annotation[] fAnnotations;
     private volatile /* write-once */ Class<?> fTestClass;
 
+    // Parsed from the display name on first use unless known when created.
+    // The method name is the first fMethodNameLength characters of the
+    // display name (none if -1). fClassName is written last and is null
+    // until both are known.
+    private transient int fMethodNameLength;
+    private transient volatile String fClassName;
+
     private Description(Class<?> clazz, String displayName, Annotation... annotations) {
         this(clazz, displayName, displayName, annotations);
     }
 
     private Description(Class<?> testClass, String displayName, Serializable uniqueId, Annotation... annotations) {
+        this(testClass, displayName, uniqueId, null, null, annotations);
+    }
+
+    private Description(Class<?> testClass, String displayName, Serializable uniqueId,
+            String methodName, String className, Annotation... annotations) {
         if ((displayName == null) || (displayName.length() == 0)) {
             throw new IllegalArgumentException(
                     "The display name must not be empty.");
@@ -164,6 +183,26 @@ public class Description implements Serializable {
         this.fDisplayName = displayName;
         this.fUniqueId = uniqueId;
         this.fAnnotations = annotations;
+        if (className != null && isParsedAs(methodName, className)) {
+            this.fMethodNameLength = methodName.length();
+            this.fClassName = className;
+        }
+    }
+
+    /**
+     * Returns whether parsing the display name of a test results in the
+     * given names. This is not the case if the class name contains an
+     * opening parenthesis or a line break.
+     */
+    private static boolean isParsedAs(String methodName, String className) {
+        for (int i = 0; i < className.length(); i++) {
+            char c = className.charAt(i);
+            if (c == '(' || c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028'
+                    || c == '\u2029') {
+                return false;
+            }
+        }
+        return methodName != null;
     }
 
     /**
@@ -179,7 +218,17 @@ public class Description implements Serializable {
      * @param description the soon-to-be child.
      */
     public void addChild(Description description) {
-        fChildren.add(description);
+        Collection<Description> children = fChildren;
+        if (children == null) {
+            synchronized (this) {
+                children = fChildren;
+                if (children == null) {
+                    children = new ConcurrentLinkedQueue<Description>();
+                    fChildren = children;
+                }
+            }
+        }
+        children.add(description);
     }
 
     /**
@@ -187,7 +236,9 @@ public class Description implements Serializable {
      * Returns an empty list if there are no children.
      */
     public ArrayList<Description> getChildren() {
-        return new ArrayList<Description>(fChildren);
+        Collection<Description> children = fChildren;
+        return children == null ? new ArrayList<Description>(0)
+                : new ArrayList<Description>(children);
     }
 
     /**
@@ -201,7 +252,8 @@ public class Description implements Serializable {
      * @return <code>true</code> if the receiver is an atomic test
      */
     public boolean isTest() {
-        return fChildren.isEmpty();
+        Collection<Description> children = fChildren;
+        return children == null || children.isEmpty();
     }
 
     /**
@@ -297,7 +349,7 @@ public class Description implements Serializable {
      *         the name of the class of the test instance
      */
     public String getClassName() {
-        return fTestClass != null ? fTestClass.getName() : methodAndClassNamePatternGroupOrDefault(2, toString());
+        return fTestClass != null ? fTestClass.getName() : getParsedClassName();
     }
 
     /**
@@ -305,12 +357,37 @@ public class Description implements Serializable {
      *         the name of the method (or null if not)
      */
     public String getMethodName() {
-        return methodAndClassNamePatternGroupOrDefault(1, null);
+        getParsedClassName();
+        return fMethodNameLength == -1 ? null : fDisplayName.substring(0, fMethodNameLength);
+    }
+
+    private String getParsedClassName() {
+        String className = fClassName;
+        if (className == null) {
+            Matcher matcher = METHOD_AND_CLASS_NAME_PATTERN.matcher(toString());
+            if (matcher.matches()) {
+                fMethodNameLength = matcher.end(1);
+                // many tests share a class, so don't keep a copy per test
+                className = matcher.group(2).intern();
+            } else {
+                fMethodNameLength = -1;
+                className = toString();
+            }
+            fClassName = className;
+        }
+        return className;
     }
 
-    private String methodAndClassNamePatternGroupOrDefault(int group,
-            String defaultString) {
-        Matcher matcher = METHOD_AND_CLASS_NAME_PATTERN.matcher(toString());
-        return matcher.matches() ? matcher.group(group) : defaultString;
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // keep the serialized form readable by earlier versions, which
+        // expect a queue of children
+        Collection<Description> children = fChildren;
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("fChildren", children == null ? new ConcurrentLinkedQueue<Description>() : children);
+        fields.put("fDisplayName", fDisplayName);
+        fields.put("fUniqueId", fUniqueId);
+        fields.put("fAnnotations", fAnnotations);
+        fields.put("fTestClass", fTestClass);
+        out.writeFields();
     }
 }
\ No newline at end of file
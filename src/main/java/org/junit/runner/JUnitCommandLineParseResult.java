@@ -1,5 +1,7 @@
 package org.junit.runner;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -13,6 +15,8 @@ class JUnitCommandLineParseResult {
     private final List<String> filterSpecs = new ArrayList<String>();
     private final List<Class<?>> classes = new ArrayList<Class<?>>();
     private final List<Throwable> parserErrors = new ArrayList<Throwable>();
+    private File rerunFailuresFile = null;
+    private File rerunManifestFile = null;
 
     /**
      * Do not use. Testing purposes only.
@@ -33,6 +37,22 @@ class JUnitCommandLineParseResult {
         return Collections.unmodifiableList(classes);
     }
 
+    /**
+     * Returns the file with the tests to rerun, or {@code null} if the tests
+     * are given as classes.
+     */
+    public File getRerunFailuresFile() {
+        return rerunFailuresFile;
+    }
+
+    /**
+     * Returns the file to write the failed tests to, or {@code null} if they
+     * should not be written.
+     */
+    public File getRerunManifestFile() {
+        return rerunManifestFile;
+    }
+
     /**
      * Parses the arguments.
      *
@@ -73,6 +93,10 @@ class JUnitCommandLineParseResult {
                     }
 
                     filterSpecs.add(filterSpec);
+                } else if (arg.startsWith("--rerun-failures=")) {
+                    rerunFailuresFile = new File(arg.substring(arg.indexOf('=') + 1));
+                } else if (arg.startsWith("--rerun-manifest=")) {
+                    rerunManifestFile = new File(arg.substring(arg.indexOf('=') + 1));
                 } else {
                     parserErrors.add(new CommandLineParserError("JUnit knows nothing about the " + arg + " option"));
                 }
@@ -95,6 +119,11 @@ class JUnitCommandLineParseResult {
     }
 
     void parseParameters(String[] args) {
+        if (rerunFailuresFile != null && args.length != 0) {
+            parserErrors.add(new CommandLineParserError(
+                    "--rerun-failures cannot be combined with test classes"));
+            return;
+        }
         for (String arg : args) {
             try {
                 classes.add(Classes.getClass(arg));
@@ -115,8 +144,17 @@ class JUnitCommandLineParseResult {
      */
     public Request createRequest(Computer computer) {
         if (parserErrors.isEmpty()) {
-            Request request = Request.classes(
-                    computer, classes.toArray(new Class<?>[classes.size()]));
+            Request request;
+            if (rerunFailuresFile != null) {
+                try {
+                    request = RerunManifest.request(computer, rerunFailuresFile);
+                } catch (IOException e) {
+                    return errorReport(e);
+                }
+            } else {
+                request = Request.classes(
+                        computer, classes.toArray(new Class<?>[classes.size()]));
+            }
             return applyFilterSpecs(request);
         } else {
             return errorReport(new InitializationError(parserErrors));
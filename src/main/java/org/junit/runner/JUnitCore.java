@@ -73,6 +73,9 @@ public class JUnitCore {
 
         RunListener listener = new TextListener(system);
         addListener(listener);
+        if (jUnitCommandLineParseResult.getRerunManifestFile() != null) {
+            addListener(RerunManifest.writer(jUnitCommandLineParseResult.getRerunManifestFile()));
+        }
 
         return run(jUnitCommandLineParseResult.createRequest(defaultComputer()));
     }
@@ -152,6 +155,35 @@ public class JUnitCore {
         notifier.addListener(listener);
     }
 
+    /**
+     * Delivers the events to each listener that is not annotated with
+     * {@link RunListener.ThreadSafe} on a separate thread, so that slow
+     * listeners don't hold up the tests. Only affects listeners that are
+     * added afterwards. All events have been delivered when
+     * {@link #run(Runner)} returns.
+     *
+     * @param bufferCapacity the number of events that may wait for delivery
+     * to a listener, or {@code 0} to deliver all events directly
+     * @see RunNotifier#setAsynchronousDelivery(int)
+     * @since 4.13
+     */
+    public void setAsynchronousListenerDelivery(int bufferCapacity) {
+        notifier.setAsynchronousDelivery(bufferCapacity);
+    }
+
+    /**
+     * Runs atomic tests that failed again, up to {@code retryCount} times.
+     * Tests that pass when they are run again are reported as flaky by
+     * {@link Result#getFlakyFailures()}.
+     *
+     * @param retryCount how often a failed test is run again
+     * @see RunNotifier#setRetryCount(int)
+     * @since 4.13
+     */
+    public void setRetryCount(int retryCount) {
+        notifier.setRetryCount(retryCount);
+    }
+
     /**
      * Remove a listener.
      *
@@ -0,0 +1,251 @@
+package org.junit.runner;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.AssumptionViolatedException;
+import org.junit.internal.Classes;
+import org.junit.internal.runners.model.EachTestNotifier;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.Suite;
+import org.junit.runners.model.InitializationError;
+
+/**
+ * A file listing the tests that failed in a run, so that exactly these tests
+ * can be run again. The file contains the display name of each failed test,
+ * one per line. A class whose setup failed as a whole is listed by its name
+ * and is run again completely. Failures that don't belong to a test class,
+ * like those of the test mechanism, are not listed.
+ *
+ * <pre>
+ * JUnitCore core = new JUnitCore();
+ * core.addListener(RerunManifest.writer(new File("failed-tests.txt")));
+ * core.run(classes);
+ * ...
+ * core.run(RerunManifest.request(new File("failed-tests.txt")));
+ * </pre>
+ *
+ * From the command line, {@code --rerun-manifest=<file>} writes the file and
+ * {@code --rerun-failures=<file>} runs the tests listed in it.
+ *
+ * @since 4.13
+ */
+public final class RerunManifest {
+    private static final String HEADER = "# Tests that failed in the last run";
+
+    private RerunManifest() {
+    }
+
+    /**
+     * Returns a listener that writes the tests that failed to {@code file}
+     * when the run has finished. An existing file is replaced.
+     */
+    public static RunListener writer(File file) {
+        return new ManifestWriter(file);
+    }
+
+    /**
+     * Creates a {@link Request} that runs the tests listed in {@code file}.
+     * The tests are grouped by class, so that each class is only set up once.
+     */
+    public static Request request(File file) throws IOException {
+        return request(JUnitCore.defaultComputer(), file);
+    }
+
+    /**
+     * Creates a {@link Request} that runs the tests listed in {@code file}
+     * using {@code computer}. The tests are grouped by class, so that each
+     * class is only set up once. Tests whose class cannot be found are
+     * skipped and reported as failed assumptions.
+     */
+    public static Request request(Computer computer, File file) throws IOException {
+        Map<String, Boolean> runWholeClass = new LinkedHashMap<String, Boolean>();
+        Set<Description> selectedTests = new LinkedHashSet<Description>();
+        for (String each : readDisplayNames(file)) {
+            // descriptions are equal if they have the same display name
+            Description test = Description.createSuiteDescription(each);
+            boolean wholeClass = test.getMethodName() == null;
+            Boolean known = runWholeClass.get(test.getClassName());
+            runWholeClass.put(test.getClassName(), wholeClass || (known != null && known));
+            if (!wholeClass) {
+                selectedTests.add(test);
+            }
+        }
+        List<Class<?>> classes = new ArrayList<Class<?>>();
+        List<String> unresolvedClasses = new ArrayList<String>();
+        for (String each : runWholeClass.keySet()) {
+            try {
+                classes.add(Classes.getClass(each));
+            } catch (ClassNotFoundException e) {
+                unresolvedClasses.add(each);
+            }
+        }
+        Request request = Request.classes(computer, classes.toArray(new Class<?>[classes.size()]));
+        if (!classes.isEmpty()) {
+            addTestsOfWholeClasses(request.getRunner().getDescription(), runWholeClass, selectedTests);
+            request = request.filterWith(Filter.matchMethodDescriptions(selectedTests));
+        }
+        if (unresolvedClasses.isEmpty()) {
+            return request;
+        }
+        List<Runner> runners = new ArrayList<Runner>();
+        runners.add(request.getRunner());
+        runners.add(new UnresolvedClasses(unresolvedClasses));
+        try {
+            return Request.runner(new Suite((Class<?>) null, runners) {
+            });
+        } catch (InitializationError e) {
+            return Request.errorReport(RerunManifest.class, e);
+        }
+    }
+
+    private static void addTestsOfWholeClasses(Description description,
+            Map<String, Boolean> runWholeClass, Set<Description> selectedTests) {
+        if (description.isTest()) {
+            if (Boolean.TRUE.equals(runWholeClass.get(description.getClassName()))) {
+                selectedTests.add(description);
+            }
+        } else {
+            for (Description each : description.getChildren()) {
+                addTestsOfWholeClasses(each, runWholeClass, selectedTests);
+            }
+        }
+    }
+
+    /**
+     * Reads the display names of tests from {@code file}, one name per
+     * line, ignoring empty lines and lines starting with {@code #}.
+     */
+    public static List<String> readDisplayNames(File file) throws IOException {
+        List<String> names = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String name = line.trim();
+                if (name.length() != 0 && !name.startsWith("#")) {
+                    names.add(name);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return names;
+    }
+
+    /**
+     * Writes {@code displayNames} to {@code file}. The file is
+     * replaced only when it has been written completely.
+     */
+    static void writeDisplayNames(File file, Collection<String> displayNames) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), "UTF-8");
+        try {
+            writer.write(HEADER);
+            writer.write('\n');
+            for (String each : displayNames) {
+                writer.write(each);
+                writer.write('\n');
+            }
+        } finally {
+            writer.close();
+        }
+        if (!tmp.renameTo(file)) {
+            // renaming doesn't replace existing files on all platforms
+            file.delete();
+            if (!tmp.renameTo(file)) {
+                throw new IOException("Could not replace " + file);
+            }
+        }
+    }
+
+    @RunListener.ThreadSafe
+    private static class ManifestWriter extends RunListener {
+        private final File file;
+
+        // Guarded by itself
+        private final Set<String> failedTests = new LinkedHashSet<String>();
+
+        ManifestWriter(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public void testFailure(Failure failure) throws Exception {
+            Description description = failure.getDescription();
+            if (description.equals(Description.TEST_MECHANISM)
+                    || description.getTestClass() == null) {
+                // cannot be run again
+                return;
+            }
+            synchronized (failedTests) {
+                failedTests.add(description.getDisplayName());
+            }
+        }
+
+        @Override
+        public void testRunFinished(Result result) throws Exception {
+            synchronized (failedTests) {
+                writeDisplayNames(file, failedTests);
+                failedTests.clear();
+            }
+        }
+    }
+
+    /**
+     * Reports the classes of a manifest that cannot be found, so that a
+     * renamed or deleted class doesn't prevent the other tests from being
+     * run again.
+     */
+    private static class UnresolvedClasses extends Runner {
+        private final List<String> classNames;
+
+        UnresolvedClasses(List<String> classNames) {
+            this.classNames = classNames;
+        }
+
+        @Override
+        public Description getDescription() {
+            Description description = Description.createSuiteDescription(RerunManifest.class);
+            for (String each : classNames) {
+                description.addChild(describe(each));
+            }
+            return description;
+        }
+
+        @Override
+        public void run(RunNotifier notifier) {
+            for (String each : classNames) {
+                EachTestNotifier eachNotifier = new EachTestNotifier(notifier, describe(each));
+                eachNotifier.fireTestStarted();
+                try {
+                    eachNotifier.addFailedAssumption(new AssumptionViolatedException(
+                            "Class not found: " + each));
+                } finally {
+                    eachNotifier.fireTestFinished();
+                }
+            }
+        }
+
+        private Description describe(String className) {
+            return Description.createTestDescription(RerunManifest.class.getName(), className);
+        }
+    }
+}
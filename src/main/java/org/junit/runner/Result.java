@@ -29,6 +29,8 @@ public class Result implements Serializable {
     private final AtomicInteger count;
     private final AtomicInteger ignoreCount;
     private final CopyOnWriteArrayList<Failure> failures;
+    // not part of the serialized form, which matches JUnit 4.11
+    private final CopyOnWriteArrayList<Failure> flakyFailures = new CopyOnWriteArrayList<Failure>();
     private final AtomicLong runTime;
     private final AtomicLong startTime;
 
@@ -79,6 +81,24 @@ public class Result implements Serializable {
         return failures;
     }
 
+    /**
+     * @return the number of tests that failed, but passed when they were run
+     * again
+     * @since 4.13
+     */
+    public int getFlakyCount() {
+        return flakyFailures.size();
+    }
+
+    /**
+     * @return the {@link Failure}s of tests that failed, but passed when they
+     * were run again. They are not included in {@link #getFailures()}.
+     * @since 4.13
+     */
+    public List<Failure> getFlakyFailures() {
+        return flakyFailures;
+    }
+
     /**
      * @return the number of tests ignored during the run
      */
@@ -130,6 +150,11 @@ public class Result implements Serializable {
             failures.add(failure);
         }
 
+        @Override
+        public void testFlaky(Failure failure) throws Exception {
+            flakyFailures.add(failure);
+        }
+
         @Override
         public void testIgnored(Description description) throws Exception {
             ignoreCount.getAndIncrement();
@@ -1,5 +1,8 @@
 package org.junit.runner.manipulation;
 
+import java.util.Collection;
+import java.util.HashSet;
+
 import org.junit.runner.Description;
 import org.junit.runner.Request;
 
@@ -68,6 +71,22 @@ public abstract class Filter {
         };
     }
 
+    /**
+     * Returns a {@code Filter} that only runs the methods described by
+     * {@code desiredDescriptions}. Unlike intersecting filters created by
+     * {@link #matchMethodDescription(Description)}, the time needed to filter
+     * a suite doesn't depend on the number of methods.
+     *
+     * <p>Descriptions are equal if they have the same unique id, which is
+     * the display name unless given otherwise, so methods can also be
+     * selected by descriptions created from their display names, for
+     * example {@code Description.createSuiteDescription("test(org.example.ExampleTest)")}.
+     *
+     * @since 4.13
+     */
+    public static Filter matchMethodDescriptions(Collection<Description> desiredDescriptions) {
+        return new MethodDescriptionsFilter(new HashSet<Description>(desiredDescriptions));
+    }
 
     /**
      * @param description the description of the test to be run
@@ -0,0 +1,61 @@
+package org.junit.runner.manipulation;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.runner.Description;
+
+/**
+ * Filter that only runs the tests of a set. Filtering a whole tree of
+ * descriptions takes linear time, regardless of the number of tests in the
+ * set: tests are looked up in the set, and each suite is only searched for
+ * selected tests once.
+ *
+ * @see Filter#matchMethodDescriptions(java.util.Collection)
+ */
+final class MethodDescriptionsFilter extends Filter {
+    private final Set<Description> selectedTests;
+
+    // Guarded by this. Suites are identified by instance because different
+    // suites may have the same name, like the parameter sets of two
+    // parameterized tests.
+    private final Map<Description, Boolean> suitesWithSelectedTests =
+            new IdentityHashMap<Description, Boolean>();
+
+    MethodDescriptionsFilter(Set<Description> selectedTests) {
+        this.selectedTests = selectedTests;
+    }
+
+    @Override
+    public boolean shouldRun(Description description) {
+        if (description.isTest()) {
+            return selectedTests.contains(description);
+        }
+        synchronized (this) {
+            return hasSelectedTests(description);
+        }
+    }
+
+    private boolean hasSelectedTests(Description description) {
+        if (description.isTest()) {
+            return selectedTests.contains(description);
+        }
+        Boolean selected = suitesWithSelectedTests.get(description);
+        if (selected == null) {
+            selected = false;
+            for (Description each : description.getChildren()) {
+                selected |= hasSelectedTests(each);
+            }
+            suitesWithSelectedTests.put(description, selected);
+        }
+        return selected;
+    }
+
+    @Override
+    public String describe() {
+        return selectedTests.size() == 1
+                ? "Method " + selectedTests.iterator().next().getDisplayName()
+                : selectedTests.size() + " selected methods";
+    }
+}
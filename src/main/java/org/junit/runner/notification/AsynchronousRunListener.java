@@ -0,0 +1,257 @@
+package org.junit.runner.notification;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+
+/**
+ * Decorator for {@link RunListener} implementations that delivers the events
+ * to the delegate on a separate thread, so that a slow listener does not hold
+ * up the threads running the tests.
+ *
+ * <p>The events are put into a bounded buffer that is allocated once, and
+ * delivered in the order in which they have been put. If the buffer is full,
+ * the notifying thread waits until there is space again. The delivering
+ * thread is started with the first event and ends when there have been no
+ * events for a while. Exceptions thrown by the delegate are reported as
+ * failures to the other listeners of the notifier. Such a failure is
+ * dropped for an asynchronous listener whose buffer is full, because the
+ * delivering threads of two listeners must never wait for each other.
+ *
+ * @see RunNotifier#setAsynchronousDelivery(int)
+ * @since 4.13
+ */
+@RunListener.ThreadSafe
+final class AsynchronousRunListener extends RunListener {
+    private static final long KEEP_ALIVE_MILLIS = 1000;
+
+    private final RunListener listener;
+
+    private final RunNotifier notifier;
+
+    private final Lock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private final Condition notFull = lock.newCondition();
+
+    private final Condition eventDelivered = lock.newCondition();
+
+    // Guarded by lock
+    private final RunNotifier.Event[] events;
+
+    // Guarded by lock
+    private final Object[] arguments;
+
+    // Guarded by lock
+    private int head = 0;
+
+    // Guarded by lock
+    private int count = 0;
+
+    // Guarded by lock
+    private long putCount = 0;
+
+    // Guarded by lock
+    private long deliveredCount = 0;
+
+    // Guarded by lock
+    private boolean delivering = false;
+
+    AsynchronousRunListener(RunListener listener, RunNotifier notifier, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1 but was " + capacity);
+        }
+        this.listener = listener;
+        this.notifier = notifier;
+        events = new RunNotifier.Event[capacity];
+        arguments = new Object[capacity];
+    }
+
+    @Override
+    public void testRunStarted(Description description) throws Exception {
+        put(RunNotifier.Event.TEST_RUN_STARTED, description);
+    }
+
+    @Override
+    public void testRunFinished(Result result) throws Exception {
+        put(RunNotifier.Event.TEST_RUN_FINISHED, result);
+    }
+
+    @Override
+    public void testStarted(Description description) throws Exception {
+        put(RunNotifier.Event.TEST_STARTED, description);
+    }
+
+    @Override
+    public void testFinished(Description description) throws Exception {
+        put(RunNotifier.Event.TEST_FINISHED, description);
+    }
+
+    @Override
+    public void testFailure(Failure failure) throws Exception {
+        put(RunNotifier.Event.TEST_FAILURE, failure);
+    }
+
+    @Override
+    public void testAssumptionFailure(Failure failure) {
+        put(RunNotifier.Event.TEST_ASSUMPTION_FAILED, failure);
+    }
+
+    @Override
+    public void testFlaky(Failure failure) throws Exception {
+        put(RunNotifier.Event.TEST_FLAKY, failure);
+    }
+
+    @Override
+    public void testIgnored(Description description) throws Exception {
+        put(RunNotifier.Event.TEST_IGNORED, description);
+    }
+
+    /**
+     * Puts the failure of another listener into the buffer without waiting.
+     *
+     * @return {@code false} if the buffer is full and the failure has been
+     * dropped
+     */
+    boolean offerListenerFailure(Failure failure) {
+        lock.lock();
+        try {
+            if (count == events.length) {
+                return false;
+            }
+            add(RunNotifier.Event.TEST_FAILURE, failure);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until all events that have been put so far have been delivered
+     * to the delegate.
+     */
+    void flush() {
+        lock.lock();
+        try {
+            long target = putCount;
+            while (deliveredCount < target) {
+                eventDelivered.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(RunNotifier.Event event, Object argument) {
+        lock.lock();
+        try {
+            while (count == events.length) {
+                notFull.awaitUninterruptibly();
+            }
+            add(event, argument);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Must be called while holding lock
+    private void add(RunNotifier.Event event, Object argument) {
+        int tail = (head + count) % events.length;
+        events[tail] = event;
+        arguments[tail] = argument;
+        count++;
+        putCount++;
+        if (delivering) {
+            notEmpty.signal();
+        } else {
+            delivering = true;
+            startDeliveringThread();
+        }
+    }
+
+    private void startDeliveringThread() {
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                deliverEvents();
+            }
+        }, "RunListener delivery for " + listener);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void deliverEvents() {
+        while (true) {
+            RunNotifier.Event event;
+            Object argument;
+            lock.lock();
+            try {
+                long idleNanos = TimeUnit.MILLISECONDS.toNanos(KEEP_ALIVE_MILLIS);
+                while (count == 0) {
+                    if (idleNanos <= 0) {
+                        delivering = false;
+                        return;
+                    }
+                    try {
+                        idleNanos = notEmpty.awaitNanos(idleNanos);
+                    } catch (InterruptedException e) {
+                        // keep delivering; the thread ends when it is idle
+                    }
+                }
+                event = events[head];
+                argument = arguments[head];
+                events[head] = null;
+                arguments[head] = null;
+                head = (head + 1) % events.length;
+                count--;
+                notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                event.notifyListener(listener, argument);
+            } catch (Throwable e) {
+                notifier.fireListenerFailure(this, e);
+            } finally {
+                lock.lock();
+                try {
+                    deliveredCount++;
+                    eventDelivered.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    RunListener getDelegate() {
+        return listener;
+    }
+
+    @Override
+    public int hashCode() {
+        return listener.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof AsynchronousRunListener)) {
+            return false;
+        }
+        AsynchronousRunListener that = (AsynchronousRunListener) other;
+
+        return listener.equals(that.listener);
+    }
+
+    @Override
+    public String toString() {
+        return listener.toString() + " (with asynchronous delivery)";
+    }
+}
@@ -113,6 +113,18 @@ public class RunListener {
     public void testAssumptionFailure(Failure failure) {
     }
 
+    /**
+     * Called when an atomic test failed, but passed when it was run again.
+     * The test is not reported as failed. Tests are only run again if
+     * retries are enabled with {@link RunNotifier#setRetryCount(int)}.
+     *
+     * @param failure describes the test and the exception that was thrown
+     * the first time it failed
+     * @since 4.13
+     */
+    public void testFlaky(Failure failure) throws Exception {
+    }
+
     /**
      * Called when a test will not be run, generally because a test method is annotated
      * with {@link org.junit.Ignore}.
@@ -4,7 +4,6 @@ import static java.util.Arrays.asList;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.junit.runner.Description;
 import org.junit.runner.Result;
@@ -19,8 +18,15 @@ import org.junit.runner.Result;
  * @since 4.0
  */
 public class RunNotifier {
-    private final List<RunListener> listeners = new CopyOnWriteArrayList<RunListener>();
+    private static final RunListener[] NO_LISTENERS = new RunListener[0];
+
+    // Guarded by itself. The listeners are notified from the snapshot in
+    // currentListeners, so that firing an event does not allocate anything.
+    private final List<RunListener> listeners = new ArrayList<RunListener>();
+    private volatile RunListener[] currentListeners = NO_LISTENERS;
     private volatile boolean pleaseStop = false;
+    private volatile int asynchronousBufferCapacity = 0;
+    private volatile int retryCount = 0;
 
     /**
      * Internal use only
@@ -29,7 +35,10 @@ public class RunNotifier {
         if (listener == null) {
             throw new NullPointerException("Cannot add a null listener");
         }
-        listeners.add(wrapIfNotThreadSafe(listener));
+        synchronized (listeners) {
+            listeners.add(wrapIfNotThreadSafe(listener));
+            updateCurrentListeners();
+        }
     }
 
     /**
@@ -39,70 +48,215 @@ public class RunNotifier {
         if (listener == null) {
             throw new NullPointerException("Cannot remove a null listener");
         }
-        listeners.remove(wrapIfNotThreadSafe(listener));
+        RunListener removed = null;
+        synchronized (listeners) {
+            for (int i = 0; i < listeners.size(); i++) {
+                if (listener.equals(unwrap(listeners.get(i)))) {
+                    removed = listeners.remove(i);
+                    updateCurrentListeners();
+                    break;
+                }
+            }
+        }
+        if (removed instanceof AsynchronousRunListener) {
+            ((AsynchronousRunListener) removed).flush();
+        }
+    }
+
+    private static RunListener unwrap(RunListener listener) {
+        if (listener instanceof AsynchronousRunListener) {
+            return ((AsynchronousRunListener) listener).getDelegate();
+        }
+        if (listener instanceof SynchronizedRunListener) {
+            return ((SynchronizedRunListener) listener).getDelegate();
+        }
+        return listener;
+    }
+
+    private void updateCurrentListeners() {
+        currentListeners = listeners.toArray(new RunListener[listeners.size()]);
     }
 
     /**
-     * Wraps the given listener with {@link SynchronizedRunListener} if
-     * it is not annotated with {@link RunListener.ThreadSafe}.
+     * Delivers the events to each listener that is not annotated with
+     * {@link RunListener.ThreadSafe} on a separate thread, so that listeners
+     * doing I/O don't hold up the threads running the tests. The events are
+     * delivered to each listener in the order in which they are fired, and
+     * {@link #fireTestRunFinished(Result)} and {@link #removeListener(RunListener)}
+     * wait until all events have been delivered. Each listener is notified of
+     * one event at a time by its own thread, but no longer while the other
+     * listeners are notified. Listeners annotated with {@code ThreadSafe} are
+     * still notified directly.
+     *
+     * <p>Only affects listeners that are added afterwards.
+     *
+     * @param bufferCapacity the number of events that may wait for delivery
+     * to a listener before the notifying thread has to wait, or {@code 0} to
+     * deliver all events directly
+     * @since 4.13
      */
-    RunListener wrapIfNotThreadSafe(RunListener listener) {
-        return listener.getClass().isAnnotationPresent(RunListener.ThreadSafe.class) ?
-                listener : new SynchronizedRunListener(listener, this);
+    public void setAsynchronousDelivery(int bufferCapacity) {
+        if (bufferCapacity < 0) {
+            throw new IllegalArgumentException("bufferCapacity must not be negative but was "
+                    + bufferCapacity);
+        }
+        asynchronousBufferCapacity = bufferCapacity;
     }
 
+    /**
+     * Runs atomic tests that failed again, up to {@code retryCount} times, in
+     * the hope that they pass. A test that passes when it is run again is
+     * reported to {@link RunListener#testFlaky(Failure)} instead of
+     * {@link RunListener#testFailure(Failure)}. A test that fails every time
+     * is reported with the failures of its last run. Tests that are not run
+     * by {@link org.junit.runners.ParentRunner} are not run again.
+     *
+     * @param retryCount how often a failed test is run again, or {@code 0}
+     * to report all failures directly
+     * @since 4.13
+     */
+    public void setRetryCount(int retryCount) {
+        if (retryCount < 0) {
+            throw new IllegalArgumentException("retryCount must not be negative but was "
+                    + retryCount);
+        }
+        this.retryCount = retryCount;
+    }
 
-    private abstract class SafeNotifier {
-        private final List<RunListener> currentListeners;
+    /**
+     * Returns how often a failed atomic test is run again.
+     *
+     * @see #setRetryCount(int)
+     * @since 4.13
+     */
+    public int getRetryCount() {
+        return retryCount;
+    }
 
-        SafeNotifier() {
-            this(listeners);
+    /**
+     * Wraps the given listener if it is not annotated with
+     * {@link RunListener.ThreadSafe}: with {@link AsynchronousRunListener} if
+     * asynchronous delivery is enabled, whose single thread notifies the
+     * listener, and with {@link SynchronizedRunListener} otherwise.
+     */
+    RunListener wrapIfNotThreadSafe(RunListener listener) {
+        if (listener.getClass().isAnnotationPresent(RunListener.ThreadSafe.class)) {
+            return listener;
         }
+        int capacity = asynchronousBufferCapacity;
+        return capacity == 0 ? new SynchronizedRunListener(listener, this)
+                : new AsynchronousRunListener(listener, this, capacity);
+    }
 
-        SafeNotifier(List<RunListener> currentListeners) {
-            this.currentListeners = currentListeners;
-        }
+    enum Event {
+        TEST_RUN_STARTED {
+            @Override
+            void notifyListener(RunListener listener, Object argument) throws Exception {
+                listener.testRunStarted((Description) argument);
+            }
+        },
+        TEST_RUN_FINISHED {
+            @Override
+            void notifyListener(RunListener listener, Object argument) throws Exception {
+                listener.testRunFinished((Result) argument);
+            }
+        },
+        TEST_STARTED {
+            @Override
+            void notifyListener(RunListener listener, Object argument) throws Exception {
+                listener.testStarted((Description) argument);
+            }
+        },
+        TEST_FAILURE {
+            @Override
+            void notifyListener(RunListener listener, Object argument) throws Exception {
+                listener.testFailure((Failure) argument);
+            }
+        },
+        TEST_FAILURES {
+            @Override
+            @SuppressWarnings("unchecked")
+            void notifyListener(RunListener listener, Object argument) throws Exception {
+                for (Failure each : (List<Failure>) argument) {
+                    listener.testFailure(each);
+                }
+            }
+        },
+        TEST_ASSUMPTION_FAILED {
+            @Override
+            void notifyListener(RunListener listener, Object argument) throws Exception {
+                listener.testAssumptionFailure((Failure) argument);
+            }
+        },
+        TEST_FLAKY {
+            @Override
+            void notifyListener(RunListener listener, Object argument) throws Exception {
+                listener.testFlaky((Failure) argument);
+            }
+        },
+        TEST_IGNORED {
+            @Override
+            void notifyListener(RunListener listener, Object argument) throws Exception {
+                listener.testIgnored((Description) argument);
+            }
+        },
+        TEST_FINISHED {
+            @Override
+            void notifyListener(RunListener listener, Object argument) throws Exception {
+                listener.testFinished((Description) argument);
+            }
+        };
 
-        void run() {
-            int capacity = currentListeners.size();
-            List<RunListener> safeListeners = new ArrayList<RunListener>(capacity);
-            List<Failure> failures = new ArrayList<Failure>(capacity);
-            for (RunListener listener : currentListeners) {
-                try {
-                    notifyListener(listener);
-                    safeListeners.add(listener);
-                } catch (Exception e) {
-                    failures.add(new Failure(Description.TEST_MECHANISM, e));
+        abstract void notifyListener(RunListener listener, Object argument) throws Exception;
+    }
+
+    /**
+     * Notifies all {@code listeners} of {@code event}. A listener that throws
+     * an exception is not notified anymore of this event; instead, a failure
+     * is reported to the other listeners. Nothing is allocated unless a
+     * listener throws an exception.
+     */
+    private void fire(RunListener[] listeners, Event event, Object argument) {
+        List<RunListener> safeListeners = null;
+        List<Failure> failures = null;
+        for (int i = 0; i < listeners.length; i++) {
+            try {
+                event.notifyListener(listeners[i], argument);
+                if (safeListeners != null) {
+                    safeListeners.add(listeners[i]);
+                }
+            } catch (Exception e) {
+                if (failures == null) {
+                    safeListeners = new ArrayList<RunListener>(asList(listeners).subList(0, i));
+                    failures = new ArrayList<Failure>();
                 }
+                failures.add(new Failure(Description.TEST_MECHANISM, e));
             }
-            fireTestFailures(safeListeners, failures);
         }
-
-        abstract protected void notifyListener(RunListener each) throws Exception;
+        if (failures != null) {
+            fireTestFailures(safeListeners.toArray(new RunListener[safeListeners.size()]),
+                    failures);
+        }
     }
 
     /**
      * Do not invoke.
      */
-    public void fireTestRunStarted(final Description description) {
-        new SafeNotifier() {
-            @Override
-            protected void notifyListener(RunListener each) throws Exception {
-                each.testRunStarted(description);
-            }
-        }.run();
+    public void fireTestRunStarted(Description description) {
+        fire(currentListeners, Event.TEST_RUN_STARTED, description);
     }
 
     /**
      * Do not invoke.
      */
-    public void fireTestRunFinished(final Result result) {
-        new SafeNotifier() {
-            @Override
-            protected void notifyListener(RunListener each) throws Exception {
-                each.testRunFinished(result);
+    public void fireTestRunFinished(Result result) {
+        RunListener[] listeners = currentListeners;
+        fire(listeners, Event.TEST_RUN_FINISHED, result);
+        for (RunListener each : listeners) {
+            if (each instanceof AsynchronousRunListener) {
+                ((AsynchronousRunListener) each).flush();
             }
-        }.run();
+        }
     }
 
     /**
@@ -111,16 +265,11 @@ public class RunNotifier {
      * @param description the description of the atomic test (generally a class and method name)
      * @throws StoppedByUserException thrown if a user has requested that the test run stop
      */
-    public void fireTestStarted(final Description description) throws StoppedByUserException {
+    public void fireTestStarted(Description description) throws StoppedByUserException {
         if (pleaseStop) {
             throw new StoppedByUserException();
         }
-        new SafeNotifier() {
-            @Override
-            protected void notifyListener(RunListener each) throws Exception {
-                each.testStarted(description);
-            }
-        }.run();
+        fire(currentListeners, Event.TEST_STARTED, description);
     }
 
     /**
@@ -129,20 +278,34 @@ public class RunNotifier {
      * @param failure the description of the test that failed and the exception thrown
      */
     public void fireTestFailure(Failure failure) {
-        fireTestFailures(listeners, asList(failure));
+        fire(currentListeners, Event.TEST_FAILURE, failure);
     }
 
-    private void fireTestFailures(List<RunListener> listeners,
-            final List<Failure> failures) {
-        if (!failures.isEmpty()) {
-            new SafeNotifier(listeners) {
-                @Override
-                protected void notifyListener(RunListener listener) throws Exception {
-                    for (Failure each : failures) {
-                        listener.testFailure(each);
-                    }
+    /**
+     * Reports to all other listeners that {@code failedListener} threw
+     * {@code exception} while being notified on its delivering thread. The
+     * failure is only offered to other asynchronous listeners, so that the
+     * delivering thread never waits for another one.
+     */
+    void fireListenerFailure(RunListener failedListener, Throwable exception) {
+        Failure failure = new Failure(Description.TEST_MECHANISM, exception);
+        List<RunListener> directListeners = new ArrayList<RunListener>();
+        for (RunListener each : currentListeners) {
+            if (each instanceof AsynchronousRunListener) {
+                if (each != failedListener) {
+                    ((AsynchronousRunListener) each).offerListenerFailure(failure);
                 }
-            }.run();
+            } else {
+                directListeners.add(each);
+            }
+        }
+        fire(directListeners.toArray(new RunListener[directListeners.size()]),
+                Event.TEST_FAILURE, failure);
+    }
+
+    private void fireTestFailures(RunListener[] listeners, List<Failure> failures) {
+        if (!failures.isEmpty()) {
+            fire(listeners, Event.TEST_FAILURES, failures);
         }
     }
 
@@ -153,13 +316,20 @@ public class RunNotifier {
      * @param failure the description of the test that failed and the
      * {@link org.junit.AssumptionViolatedException} thrown
      */
-    public void fireTestAssumptionFailed(final Failure failure) {
-        new SafeNotifier() {
-            @Override
-            protected void notifyListener(RunListener each) throws Exception {
-                each.testAssumptionFailure(failure);
-            }
-        }.run();
+    public void fireTestAssumptionFailed(Failure failure) {
+        fire(currentListeners, Event.TEST_ASSUMPTION_FAILED, failure);
+    }
+
+    /**
+     * Invoke to tell listeners that an atomic test failed, but passed when it
+     * was run again.
+     *
+     * @param failure the description of the test and the exception thrown
+     * the first time it failed
+     * @since 4.13
+     */
+    public void fireTestFlaky(Failure failure) {
+        fire(currentListeners, Event.TEST_FLAKY, failure);
     }
 
     /**
@@ -167,13 +337,8 @@ public class RunNotifier {
      *
      * @param description the description of the ignored test
      */
-    public void fireTestIgnored(final Description description) {
-        new SafeNotifier() {
-            @Override
-            protected void notifyListener(RunListener each) throws Exception {
-                each.testIgnored(description);
-            }
-        }.run();
+    public void fireTestIgnored(Description description) {
+        fire(currentListeners, Event.TEST_IGNORED, description);
     }
 
     /**
@@ -183,13 +348,8 @@ public class RunNotifier {
      *
      * @param description the description of the test that finished
      */
-    public void fireTestFinished(final Description description) {
-        new SafeNotifier() {
-            @Override
-            protected void notifyListener(RunListener each) throws Exception {
-                each.testFinished(description);
-            }
-        }.run();
+    public void fireTestFinished(Description description) {
+        fire(currentListeners, Event.TEST_FINISHED, description);
     }
 
     /**
@@ -209,6 +369,9 @@ public class RunNotifier {
         if (listener == null) {
             throw new NullPointerException("Cannot add a null listener");
         }
-        listeners.add(0, wrapIfNotThreadSafe(listener));
+        synchronized (listeners) {
+            listeners.add(0, wrapIfNotThreadSafe(listener));
+            updateCurrentListeners();
+        }
     }
 }
@@ -71,6 +71,13 @@ final class SynchronizedRunListener extends RunListener {
         }
     }
 
+    @Override
+    public void testFlaky(Failure failure) throws Exception {
+        synchronized (monitor) {
+            listener.testFlaky(failure);
+        }
+    }
+
     @Override
     public void testIgnored(Description description) throws Exception {
         synchronized (monitor) {
@@ -78,6 +85,10 @@ final class SynchronizedRunListener extends RunListener {
         }
     }
 
+    RunListener getDelegate() {
+        return listener;
+    }
+
     @Override
     public int hashCode() {
         return listener.hashCode();
@@ -85,6 +85,9 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
             catch (Throwable ex) {
                 statement = new Fail(ex);
             }
+            if (notifier.getRetryCount() > 0) {
+                statement = new RetryableMethodBlock(method, statement);
+            }
             runLeaf(statement, description, notifier);
         }
     }
@@ -457,4 +460,29 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
         }
         return annotation.timeout();
     }
+
+    /**
+     * Evaluates the given method block the first time, and a new method block
+     * with a new instance of the test class each time the test is run again.
+     */
+    private final class RetryableMethodBlock extends Statement {
+        private final FrameworkMethod method;
+
+        private Statement firstMethodBlock;
+
+        RetryableMethodBlock(FrameworkMethod method, Statement firstMethodBlock) {
+            this.method = method;
+            this.firstMethodBlock = firstMethodBlock;
+        }
+
+        @Override
+        public void evaluate() throws Throwable {
+            Statement statement = firstMethodBlock;
+            if (statement == null) {
+                statement = methodBlock(method);
+            }
+            firstMethodBlock = null;
+            statement.evaluate();
+        }
+    }
 }
@@ -6,13 +6,33 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.text.MessageFormat;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import org.junit.internal.runners.ErrorReportingRunner;
+import org.junit.runner.Description;
 import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.manipulation.Sorter;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.StoppedByUserException;
 import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerScheduler;
+import org.junit.runners.model.SharedRunnerScheduler;
+import org.junit.runners.model.Statement;
 import org.junit.runners.model.TestClass;
 import org.junit.runners.parameterized.BlockJUnit4ClassRunnerWithParametersFactory;
 import org.junit.runners.parameterized.ParametersRunnerFactory;
@@ -164,9 +184,54 @@ import org.junit.runners.parameterized.TestWithParameters;
  * }
  * </pre>
  *
+ * <h3>Run parameter sets in parallel</h3>
+ * <p>
+ * If the parameter sets are independent of each other, you can let the
+ * {@code Parameterized} runner run several of them at the same time by
+ * specifying the {@code parallelism} of the <code>&#064;Parameters</code>
+ * annotation. The tests of each parameter set are still run one after another
+ * in the usual order, and the descriptions of the tests do not change. The
+ * events of each parameter set are reported when the set is finished and the
+ * sets before it have been reported, so the output is the same as that of a
+ * sequential run.
+ *
+ * <pre>
+ * &#064;Parameters(name = &quot;{index}: {0}&quot;, parallelism = 4)
+ * public static Iterable&lt;Object[]&gt; data() {
+ *     ...
+ * }
+ * </pre>
+ *
+ * <h3>Stream huge numbers of parameter sets</h3>
+ * <p>
+ * By default all parameter sets are read and a runner is created for each of
+ * them before the first test is run. If the parameters method generates a huge
+ * number of parameter sets, set {@code streaming} of the
+ * <code>&#064;Parameters</code> annotation. Then each parameter set is read
+ * and its runner is created just before it is run, and released afterwards.
+ *
+ * <pre>
+ * &#064;Parameters(streaming = true)
+ * public static Iterable&lt;Object[]&gt; data() {
+ *     return new Iterable&lt;Object[]&gt;() {
+ *         ... // an Iterator that computes the parameter sets one by one
+ *     };
+ * }
+ * </pre>
+ *
  * @since 4.0
  */
 public class Parameterized extends Suite {
+    private static final int RUNNERS_PER_THREAD = 4;
+
+    // null unless the parameters are streamed
+    private final StreamedRunners streamedRunners;
+
+    private volatile Description streamedDescription = null;
+
+    // null as long as the default scheduler is used
+    private volatile RunnerScheduler scheduler = null;
+
     /**
      * Annotation for a method which provides parameters to be injected into the
      * test class constructor by <code>Parameterized</code>. The method has to
@@ -194,6 +259,48 @@ public class Parameterized extends Suite {
          * @see MessageFormat
          */
         String name() default "{index}";
+
+        /**
+         * Optional maximum number of parameter sets that are run at the same
+         * time. The parameter sets are run by a bounded pool of threads, each
+         * set on a single thread, so the tests of a parameter set run
+         * sequentially and in their usual order. The events of the tests are
+         * reported in the order of the parameter sets, as in a sequential
+         * run.
+         * <p>
+         * A scheduler that is set with
+         * {@link ParentRunner#setScheduler(RunnerScheduler)}, for example by
+         * {@link org.junit.experimental.ParallelComputer}, replaces the
+         * threads of this parallelism.
+         * <p>
+         * Default value is 1, i.e. the parameter sets are run one after
+         * another.
+         *
+         * @return the maximum number of concurrently running parameter sets
+         * @since 4.13
+         */
+        int parallelism() default 1;
+
+        /**
+         * Optional flag to create the tests of each parameter set only when
+         * the set is about to be run, so that huge or generated parameter
+         * sources can be run in constant memory. The parameters method is
+         * invoked again whenever the parameter sets are iterated and may
+         * therefore return a new, lazy {@code Iterable} each time.
+         * <p>
+         * The description of a streaming {@code Parameterized} has no
+         * children, its test count is only an estimate, and filtering and
+         * sorting are applied to each parameter set when it is created. Thus
+         * a filter that excludes all tests does not cause a
+         * {@link NoTestsRemainException}, and sorting does not change the
+         * order of the parameter sets.
+         * <p>
+         * Default value is {@code false}.
+         *
+         * @return whether the parameter sets are created lazily
+         * @since 4.13
+         */
+        boolean streaming() default false;
     }
 
     /**
@@ -238,7 +345,279 @@ public class Parameterized extends Suite {
      * Only called reflectively. Do not use programmatically.
      */
     public Parameterized(Class<?> klass) throws Throwable {
-        super(klass, RunnersFactory.createRunnersForClass(klass));
+        this(new RunnersFactory(klass));
+    }
+
+    private Parameterized(RunnersFactory runnersFactory) throws Throwable {
+        this(runnersFactory, runnersFactory.isStreaming()
+                ? new StreamedRunners(runnersFactory) : null);
+    }
+
+    private Parameterized(RunnersFactory runnersFactory,
+            StreamedRunners streamedRunners) throws Throwable {
+        super(runnersFactory.testClass.getJavaClass(),
+                streamedRunners == null ? runnersFactory.createRunners()
+                        : streamedRunners);
+        this.streamedRunners = streamedRunners;
+        int parallelism = runnersFactory.getParallelism();
+        if (parallelism > 1) {
+            setScheduler(new SharedRunnerScheduler(parallelism));
+        }
+    }
+
+    /**
+     * Returns the description of this runner. If the parameters are
+     * {@link Parameters#streaming() streamed}, the description has no
+     * children, because the parameter sets are not known before they are run.
+     */
+    @Override
+    public Description getDescription() {
+        if (streamedRunners == null) {
+            return super.getDescription();
+        }
+        Description description = streamedDescription;
+        if (description == null) {
+            description = Description.createSuiteDescription(getName(),
+                    getRunnerAnnotations());
+            streamedDescription = description;
+        }
+        return description;
+    }
+
+    /**
+     * Returns the number of tests to be run by this runner. If the
+     * parameters are {@link Parameters#streaming() streamed}, it is an
+     * estimate: the number of tests of the first parameter set, multiplied by
+     * the number of parameter sets if the parameters method returns a
+     * {@code Collection} or an array.
+     */
+    @Override
+    public int testCount() {
+        if (streamedRunners == null) {
+            return super.testCount();
+        }
+        return streamedRunners.estimateTestCount();
+    }
+
+    @Override
+    boolean hasStreamedChildren() {
+        return streamedRunners != null;
+    }
+
+    @Override
+    public void filter(Filter filter) throws NoTestsRemainException {
+        if (streamedRunners == null) {
+            super.filter(filter);
+        } else {
+            // applied to each parameter set when it is created
+            streamedRunners.filters.add(filter);
+        }
+    }
+
+    @Override
+    public void sort(Sorter sorter) {
+        if (streamedRunners == null) {
+            super.sort(sorter);
+        } else {
+            // sorts the tests of each parameter set; the sets keep their order
+            streamedRunners.sorters.add(sorter);
+        }
+    }
+
+    @Override
+    public void setScheduler(RunnerScheduler scheduler) {
+        super.setScheduler(scheduler);
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    protected Statement childrenInvoker(final RunNotifier notifier) {
+        if (streamedRunners == null && scheduler == null) {
+            return super.childrenInvoker(notifier);
+        }
+        return new Statement() {
+            @Override
+            public void evaluate() {
+                runChildrenInOrder(notifier);
+            }
+        };
+    }
+
+    private void runChildrenInOrder(RunNotifier notifier) {
+        Iterable<Runner> children = streamedRunners == null ? getFilteredChildren()
+                : streamedRunners;
+        RunnerScheduler currentScheduler = scheduler;
+        if (currentScheduler == null) {
+            for (Runner each : children) {
+                runChild(each, notifier);
+            }
+            return;
+        }
+        int batchSize = Integer.MAX_VALUE;
+        if (currentScheduler instanceof SharedRunnerScheduler) {
+            batchSize = RUNNERS_PER_THREAD
+                    * ((SharedRunnerScheduler) currentScheduler).getParallelism();
+        }
+        final OrderedReplay replay = new OrderedReplay(notifier);
+        int index = 0;
+        int scheduled = 0;
+        try {
+            for (final Runner each : children) {
+                final RecordingNotifier recorder = new RecordingNotifier(notifier, replay);
+                final int setIndex = index++;
+                currentScheduler.schedule(new Runnable() {
+                    public void run() {
+                        try {
+                            runChild(each, recorder);
+                        } finally {
+                            replay.finished(setIndex, recorder);
+                        }
+                    }
+                });
+                if (++scheduled == batchSize) {
+                    // run the scheduled parameter sets before creating more
+                    // runners and recording more events
+                    currentScheduler.finished();
+                    scheduled = 0;
+                }
+            }
+        } finally {
+            currentScheduler.finished();
+        }
+    }
+
+    /**
+     * Reports the events of parameter sets that have been run concurrently
+     * to the notifier of the run, in the order of the sets.
+     */
+    private static class OrderedReplay {
+        private final RunNotifier notifier;
+
+        private final Map<Integer, RecordingNotifier> finishedSets = new HashMap<Integer, RecordingNotifier>();
+
+        private int nextSet = 0;
+
+        volatile boolean stopped = false;
+
+        OrderedReplay(RunNotifier notifier) {
+            this.notifier = notifier;
+        }
+
+        synchronized void finished(int index, RecordingNotifier recorder) {
+            finishedSets.put(index, recorder);
+            for (RecordingNotifier each = finishedSets.remove(nextSet); each != null;
+                    each = finishedSets.remove(++nextSet)) {
+                try {
+                    each.replay(notifier);
+                } catch (StoppedByUserException e) {
+                    stopped = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Records the events of a parameter set, so that they can be reported
+     * later. Listeners are added to the notifier of the run.
+     */
+    private static class RecordingNotifier extends RunNotifier {
+        private enum Event {
+            TEST_STARTED, TEST_FAILURE, TEST_ASSUMPTION_FAILED, TEST_FLAKY, TEST_IGNORED,
+            TEST_FINISHED
+        }
+
+        private final RunNotifier notifier;
+
+        private final OrderedReplay replay;
+
+        private final List<Object[]> events = new ArrayList<Object[]>();
+
+        RecordingNotifier(RunNotifier notifier, OrderedReplay replay) {
+            this.notifier = notifier;
+            this.replay = replay;
+        }
+
+        @Override
+        public void addListener(RunListener listener) {
+            notifier.addListener(listener);
+        }
+
+        @Override
+        public void removeListener(RunListener listener) {
+            notifier.removeListener(listener);
+        }
+
+        @Override
+        public int getRetryCount() {
+            return notifier.getRetryCount();
+        }
+
+        @Override
+        public void pleaseStop() {
+            notifier.pleaseStop();
+        }
+
+        @Override
+        public void fireTestStarted(Description description) throws StoppedByUserException {
+            if (replay.stopped) {
+                throw new StoppedByUserException();
+            }
+            record(Event.TEST_STARTED, description);
+        }
+
+        @Override
+        public void fireTestFailure(Failure failure) {
+            record(Event.TEST_FAILURE, failure);
+        }
+
+        @Override
+        public void fireTestAssumptionFailed(Failure failure) {
+            record(Event.TEST_ASSUMPTION_FAILED, failure);
+        }
+
+        @Override
+        public void fireTestFlaky(Failure failure) {
+            record(Event.TEST_FLAKY, failure);
+        }
+
+        @Override
+        public void fireTestIgnored(Description description) {
+            record(Event.TEST_IGNORED, description);
+        }
+
+        @Override
+        public void fireTestFinished(Description description) {
+            record(Event.TEST_FINISHED, description);
+        }
+
+        private synchronized void record(Event event, Object argument) {
+            events.add(new Object[] {event, argument});
+        }
+
+        synchronized void replay(RunNotifier target) {
+            for (Object[] each : events) {
+                switch ((Event) each[0]) {
+                    case TEST_STARTED:
+                        target.fireTestStarted((Description) each[1]);
+                        break;
+                    case TEST_FAILURE:
+                        target.fireTestFailure((Failure) each[1]);
+                        break;
+                    case TEST_ASSUMPTION_FAILED:
+                        target.fireTestAssumptionFailed((Failure) each[1]);
+                        break;
+                    case TEST_FLAKY:
+                        target.fireTestFlaky((Failure) each[1]);
+                        break;
+                    case TEST_IGNORED:
+                        target.fireTestIgnored((Description) each[1]);
+                        break;
+                    default:
+                        target.fireTestFinished((Description) each[1]);
+                }
+            }
+            events.clear();
+        }
     }
 
     private static class RunnersFactory {
@@ -246,13 +625,8 @@ public class Parameterized extends Suite {
 
         private final TestClass testClass;
 
-        static List<Runner> createRunnersForClass(Class<?> klass)
-                throws Throwable {
-            return new RunnersFactory(klass).createRunners();
-        }
-
         private RunnersFactory(Class<?> klass) {
-            testClass = new TestClass(klass);
+            testClass = TestClassCache.getTestClass(klass);
         }
 
         private List<Runner> createRunners() throws Throwable {
@@ -263,6 +637,23 @@ public class Parameterized extends Suite {
                     getParametersRunnerFactory()));
         }
 
+        private boolean isStreaming() throws Exception {
+            return getParametersMethod().getAnnotation(Parameters.class)
+                    .streaming();
+        }
+
+        private int getParallelism() throws Exception {
+            Parameters parameters = getParametersMethod().getAnnotation(
+                    Parameters.class);
+            if (parameters.parallelism() < 1) {
+                throw new Exception("The parallelism of the parameters method "
+                        + getParametersMethod().getName()
+                        + " must be positive but was "
+                        + parameters.parallelism());
+            }
+            return parameters.parallelism();
+        }
+
         private ParametersRunnerFactory getParametersRunnerFactory()
                 throws InstantiationException, IllegalAccessException {
             UseParametersRunnerFactory annotation = testClass
@@ -357,4 +748,147 @@ public class Parameterized extends Suite {
                     Arrays.asList(parameters));
         }
     }
+
+    /**
+     * The runners of a {@code Parameterized} with streamed parameters. Every
+     * iteration invokes the parameters method again and creates the runner of
+     * a parameter set only when it is reached, so only the parameter sets that
+     * are currently iterated are held in memory. The filters and sorters of
+     * the {@code Parameterized} are applied to each runner when it is created.
+     */
+    private static class StreamedRunners extends AbstractList<Runner> {
+        final List<Filter> filters = new CopyOnWriteArrayList<Filter>();
+
+        final List<Sorter> sorters = new CopyOnWriteArrayList<Sorter>();
+
+        private final RunnersFactory runnersFactory;
+
+        private final String namePattern;
+
+        private final ParametersRunnerFactory runnerFactory;
+
+        StreamedRunners(RunnersFactory runnersFactory) throws Exception {
+            this.runnersFactory = runnersFactory;
+            namePattern = runnersFactory.getParametersMethod().getAnnotation(
+                    Parameters.class).name();
+            runnerFactory = runnersFactory.getParametersRunnerFactory();
+        }
+
+        @Override
+        public Iterator<Runner> iterator() {
+            try {
+                return iterator(runnersFactory.allParameters());
+            } catch (Throwable e) {
+                return Collections.<Runner>singletonList(errorReportingRunner(e))
+                        .iterator();
+            }
+        }
+
+        private Iterator<Runner> iterator(Iterable<Object> allParameters) {
+            final Iterator<Object> parameters = allParameters.iterator();
+            return new Iterator<Runner>() {
+                private int index = 0;
+
+                private Runner next = null;
+
+                public boolean hasNext() {
+                    while (next == null && parameters.hasNext()) {
+                        next = createRunner(index++, parameters.next());
+                    }
+                    return next != null;
+                }
+
+                public Runner next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Runner result = next;
+                    next = null;
+                    return result;
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        /**
+         * Returns the runner for a single parameter set, or {@code null} if
+         * none of its tests passes the filters.
+         */
+        private Runner createRunner(int index, Object parametersOfSingleTest) {
+            try {
+                Runner runner = runnerFactory.createRunnerForTestWithParameters(
+                        runnersFactory.createTestWithNotNormalizedParameters(
+                                namePattern, index, parametersOfSingleTest));
+                for (Filter each : filters) {
+                    if (!each.shouldRun(runner.getDescription())) {
+                        return null;
+                    }
+                    each.apply(runner);
+                }
+                for (Sorter each : sorters) {
+                    each.apply(runner);
+                }
+                return runner;
+            } catch (NoTestsRemainException e) {
+                return null;
+            } catch (InitializationError e) {
+                return errorReportingRunner(e);
+            }
+        }
+
+        private Runner errorReportingRunner(Throwable e) {
+            return new ErrorReportingRunner(
+                    runnersFactory.testClass.getJavaClass(), e);
+        }
+
+        int estimateTestCount() {
+            Iterable<Object> allParameters;
+            try {
+                allParameters = runnersFactory.allParameters();
+            } catch (Throwable e) {
+                return errorReportingRunner(e).testCount();
+            }
+            Iterator<Runner> runners = iterator(allParameters);
+            if (!runners.hasNext()) {
+                return 0;
+            }
+            int testsOfFirstSet = runners.next().testCount();
+            if (allParameters instanceof Collection) {
+                return testsOfFirstSet * ((Collection<?>) allParameters).size();
+            }
+            return testsOfFirstSet;
+        }
+
+        /**
+         * Iterates all parameter sets; this is only here to fulfill the
+         * {@code List} contract.
+         */
+        @Override
+        public Runner get(int index) {
+            Iterator<Runner> runners = iterator();
+            for (int i = 0; i < index && runners.hasNext(); i++) {
+                runners.next();
+            }
+            if (!runners.hasNext()) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            return runners.next();
+        }
+
+        /**
+         * Iterates all parameter sets; this is only here to fulfill the
+         * {@code List} contract.
+         */
+        @Override
+        public int size() {
+            int size = 0;
+            for (Iterator<Runner> runners = iterator(); runners.hasNext(); runners.next()) {
+                size++;
+            }
+            return size;
+        }
+    }
 }
@@ -66,6 +66,9 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
     // Guarded by childrenLock
     private volatile Collection<T> filteredChildren = null;
 
+    // Guarded by childrenLock; reset whenever filteredChildren changes
+    private volatile CachedDescription cachedDescription = null;
+
     private volatile RunnerScheduler scheduler = new RunnerScheduler() {
         public void schedule(Runnable childStatement) {
             childStatement.run();
@@ -84,8 +87,13 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
         validate();
     }
 
+    /**
+     * Returns the {@link TestClass} for {@code testClass}. The default
+     * implementation shares one instance between all runners of the same
+     * class.
+     */
     protected TestClass createTestClass(Class<?> testClass) {
-        return new TestClass(testClass);
+        return TestClassCache.getTestClass(testClass);
     }
 
     //
@@ -130,9 +138,7 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
 
     private void applyValidators(List<Throwable> errors) {
         if (getTestClass().getJavaClass() != null) {
-            for (TestClassValidator each : VALIDATORS) {
-                errors.addAll(each.validateTestClass(getTestClass()));
-            }
+            TestClassCache.validate(getTestClass(), VALIDATORS, errors);
         }
     }
 
@@ -315,18 +321,43 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
     }
 
     /**
-     * Runs a {@link Statement} that represents a leaf (aka atomic) test.
+     * Runs a {@link Statement} that represents a leaf (aka atomic) test. If
+     * the test fails and {@link RunNotifier#getRetryCount()} is positive, the
+     * statement is evaluated again; a test that passes then is reported as
+     * flaky. A test whose assumption fails when it is evaluated again is
+     * reported with its first failure.
      */
     protected final void runLeaf(Statement statement, Description description,
             RunNotifier notifier) {
         EachTestNotifier eachNotifier = new EachTestNotifier(notifier, description);
         eachNotifier.fireTestStarted();
         try {
-            statement.evaluate();
-        } catch (AssumptionViolatedException e) {
-            eachNotifier.addFailedAssumption(e);
-        } catch (Throwable e) {
-            eachNotifier.addFailure(e);
+            int retries = notifier.getRetryCount();
+            Throwable firstFailure = null;
+            while (true) {
+                try {
+                    statement.evaluate();
+                    if (firstFailure != null) {
+                        eachNotifier.fireTestFlaky(firstFailure);
+                    }
+                    break;
+                } catch (AssumptionViolatedException e) {
+                    if (firstFailure == null) {
+                        eachNotifier.addFailedAssumption(e);
+                    } else {
+                        eachNotifier.addFailure(firstFailure);
+                    }
+                    break;
+                } catch (Throwable e) {
+                    if (retries-- <= 0) {
+                        eachNotifier.addFailure(e);
+                        break;
+                    }
+                    if (firstFailure == null) {
+                        firstFailure = e;
+                    }
+                }
+            }
         } finally {
             eachNotifier.fireTestFinished();
         }
@@ -344,8 +375,69 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
     // Implementation of Runner
     //
 
+    /**
+     * Returns the description of this runner and its children. It is created
+     * once and shared until the children are filtered or sorted, so it must
+     * not be modified.
+     */
     @Override
     public Description getDescription() {
+        return getCachedDescription().description;
+    }
+
+    /**
+     * Returns the number of tests to be run by this runner. It is counted
+     * only once for each description.
+     */
+    @Override
+    public int testCount() {
+        Description description = getDescription();
+        CachedDescription cached = cachedDescription;
+        if (cached == null || cached.description != description) {
+            // getDescription() is overridden
+            return description.testCount();
+        }
+        if (cached.testCount == -1) {
+            cached.testCount = countTests();
+        }
+        return cached.testCount;
+    }
+
+    private int countTests() {
+        int count = 0;
+        for (T each : getFilteredChildren()) {
+            // asks runners, as the description of streamed children is empty
+            count += each instanceof ParentRunner ? ((ParentRunner<?>) each).testCount()
+                    : describeChild(each).testCount();
+        }
+        return count;
+    }
+
+    /**
+     * Returns whether the children of this runner are only created when they
+     * are run, so that its description has none. Such a runner is never
+     * filtered by its description, but filters its children when it creates
+     * them.
+     */
+    boolean hasStreamedChildren() {
+        return false;
+    }
+
+    private CachedDescription getCachedDescription() {
+        CachedDescription cached = cachedDescription;
+        if (cached == null) {
+            synchronized (childrenLock) {
+                cached = cachedDescription;
+                if (cached == null) {
+                    cached = new CachedDescription(createDescription());
+                    cachedDescription = cached;
+                }
+            }
+        }
+        return cached;
+    }
+
+    private Description createDescription() {
         Description description = Description.createSuiteDescription(getName(),
                 getRunnerAnnotations());
         for (T child : getFilteredChildren()) {
@@ -390,6 +482,7 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
                 }
             }
             filteredChildren = Collections.unmodifiableCollection(children);
+            cachedDescription = null;
             if (filteredChildren.isEmpty()) {
                 throw new NoTestsRemainException();
             }
@@ -404,6 +497,7 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
             List<T> sortedChildren = new ArrayList<T>(getFilteredChildren());
             Collections.sort(sortedChildren, comparator(sorter));
             filteredChildren = Collections.unmodifiableCollection(sortedChildren);
+            cachedDescription = null;
         }
     }
 
@@ -419,7 +513,7 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
         }
     }
 
-    private Collection<T> getFilteredChildren() {
+    Collection<T> getFilteredChildren() {
         if (filteredChildren == null) {
             synchronized (childrenLock) {
                 if (filteredChildren == null) {
@@ -431,7 +525,8 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
     }
 
     private boolean shouldRun(Filter filter, T each) {
-        return filter.shouldRun(describeChild(each));
+        return (each instanceof ParentRunner && ((ParentRunner<?>) each).hasStreamedChildren())
+                || filter.shouldRun(describeChild(each));
     }
 
     private Comparator<? super T> comparator(final Sorter sorter) {
@@ -449,4 +544,14 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
     public void setScheduler(RunnerScheduler scheduler) {
         this.scheduler = scheduler;
     }
+
+    private static class CachedDescription {
+        final Description description;
+
+        volatile int testCount = -1;
+
+        CachedDescription(Description description) {
+            this.description = description;
+        }
+    }
 }
@@ -0,0 +1,77 @@
+package org.junit.runners;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.junit.runners.model.TestClass;
+import org.junit.validator.TestClassValidator;
+
+/**
+ * Shares the {@link TestClass} of a class, and the results of validating it,
+ * between all runners that are created for that class.
+ *
+ * <p>Neither the classes nor the cached values are strongly referenced by the
+ * cache, so that a class and its class loader can be garbage collected once
+ * no runner uses them anymore.
+ */
+final class TestClassCache {
+    private static final Map<Class<?>, WeakReference<TestClass>> TEST_CLASSES =
+            Collections.synchronizedMap(new WeakHashMap<Class<?>, WeakReference<TestClass>>());
+
+    private static final Map<TestClass, List<Throwable>> VALIDATION_ERRORS =
+            Collections.synchronizedMap(new WeakHashMap<TestClass, List<Throwable>>());
+
+    private TestClassCache() {
+    }
+
+    /**
+     * Returns the {@link TestClass} for {@code clazz}, creating it only if
+     * there is no cached one. {@code TestClass} is immutable, so the returned
+     * instance may be used by several runners and threads.
+     */
+    static TestClass getTestClass(Class<?> clazz) {
+        if (clazz == null) {
+            return new TestClass(null);
+        }
+        WeakReference<TestClass> reference = TEST_CLASSES.get(clazz);
+        TestClass testClass = reference == null ? null : reference.get();
+        if (testClass == null) {
+            // scan outside of the lock; a concurrent scan of the same class
+            // only results in an equal instance
+            testClass = new TestClass(clazz);
+            TEST_CLASSES.put(clazz, new WeakReference<TestClass>(testClass));
+        }
+        return testClass;
+    }
+
+    /**
+     * Adds the errors reported by {@code validators} for {@code testClass} to
+     * {@code errors}. The validators are only run once per test class, so
+     * they must not depend on anything but the test class, and callers must
+     * always pass the same validators.
+     */
+    static void validate(TestClass testClass, List<TestClassValidator> validators,
+            List<Throwable> errors) {
+        if (testClass.getClass() != TestClass.class) {
+            // subclasses may scan the class differently
+            for (TestClassValidator each : validators) {
+                errors.addAll(each.validateTestClass(testClass));
+            }
+            return;
+        }
+        List<Throwable> cached = VALIDATION_ERRORS.get(testClass);
+        if (cached == null) {
+            cached = new ArrayList<Throwable>();
+            for (TestClassValidator each : validators) {
+                cached.addAll(each.validateTestClass(testClass));
+            }
+            cached = Collections.unmodifiableList(cached);
+            VALIDATION_ERRORS.put(testClass, cached);
+        }
+        errors.addAll(cached);
+    }
+}
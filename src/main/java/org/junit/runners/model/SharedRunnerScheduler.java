@@ -0,0 +1,273 @@
+package org.junit.runners.model;
+
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link RunnerScheduler} backed by a single, bounded pool of worker threads
+ * that can be shared by every runner of a test run. Unlike a thread pool per
+ * runner, the number of threads executing children at any time never exceeds
+ * the configured parallelism, however deeply the runners are nested.
+ *
+ * <p>Children scheduled by one runner form a group. When that runner calls
+ * {@link #finished()}, the calling thread does not just wait for the group: it
+ * takes the group's children that have not been started yet and runs them
+ * itself, so it only blocks while the last children are still running on
+ * other threads. Because the calling thread takes part in the work, a
+ * scheduler with a parallelism of {@code n} starts at most {@code n - 1}
+ * worker threads. Idle workers terminate after a short keep-alive time.
+ *
+ * <p>The same instance may be passed to
+ * {@link org.junit.runners.ParentRunner#setScheduler(RunnerScheduler)} of
+ * any number of runners.
+ *
+ * WARNING: still experimental, may go away.
+ *
+ * @since 4.13
+ */
+public class SharedRunnerScheduler implements RunnerScheduler {
+    private static final long KEEP_ALIVE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int parallelism;
+
+    private final Lock lock = new ReentrantLock();
+
+    // Guarded by lock
+    private final LinkedList<Group> readyGroups = new LinkedList<Group>();
+
+    // Guarded by lock
+    private int workerCount = 0;
+
+    // Guarded by lock
+    private final LinkedList<Worker> idleWorkers = new LinkedList<Worker>();
+
+    // Guarded by lock
+    private int createdWorkerCount = 0;
+
+    private final ThreadLocal<Group> currentGroup = new ThreadLocal<Group>();
+
+    /**
+     * Creates a scheduler that runs at most {@code parallelism} children at
+     * the same time.
+     *
+     * @param parallelism the maximum number of concurrently running children
+     * @throws IllegalArgumentException if {@code parallelism} is not positive
+     */
+    public SharedRunnerScheduler(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive but was "
+                    + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the maximum number of children that are run at the same time.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void schedule(Runnable childStatement) {
+        Group group = currentGroup.get();
+        if (group == null || group.finishing) {
+            group = new Group(group);
+            currentGroup.set(group);
+        }
+        lock.lock();
+        try {
+            if (group.unstarted.isEmpty()) {
+                readyGroups.add(group);
+            }
+            group.unstarted.add(childStatement);
+            group.pending++;
+            Worker idleWorker = idleWorkers.poll();
+            if (idleWorker != null) {
+                idleWorker.wakeUp();
+            } else if (workerCount < parallelism - 1) {
+                startWorker();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void finished() {
+        Group group = currentGroup.get();
+        if (group == null || group.finishing) {
+            // no child has been scheduled since the last call
+            return;
+        }
+        group.finishing = true;
+        try {
+            runUntilDone(group);
+        } finally {
+            currentGroup.set(group.enclosing);
+        }
+        group.rethrowFailure();
+    }
+
+    private void runUntilDone(Group group) {
+        boolean interrupted = false;
+        lock.lock();
+        try {
+            while (group.pending > 0) {
+                Runnable child = takeChild(group);
+                if (child != null) {
+                    lock.unlock();
+                    try {
+                        runChild(group, child);
+                    } finally {
+                        lock.lock();
+                    }
+                } else {
+                    try {
+                        group.done.await();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Must be called while holding lock
+    private Runnable takeChild(Group group) {
+        Runnable child = group.unstarted.poll();
+        if (child != null && group.unstarted.isEmpty()) {
+            readyGroups.remove(group);
+        }
+        return child;
+    }
+
+    private void runChild(Group group, Runnable child) {
+        try {
+            child.run();
+        } catch (Throwable e) {
+            group.addFailure(e);
+        } finally {
+            lock.lock();
+            try {
+                if (--group.pending == 0) {
+                    group.done.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Must be called while holding lock
+    private void startWorker() {
+        Thread worker = new Thread(new Worker(), "SharedRunnerScheduler-worker-"
+                + ++createdWorkerCount);
+        worker.setDaemon(true);
+        workerCount++;
+        worker.start();
+    }
+
+    private class Worker implements Runnable {
+        // Guarded by lock
+        private final Condition wakeUpCondition = lock.newCondition();
+
+        // Guarded by lock
+        private boolean woken = false;
+
+        public void run() {
+            lock.lock();
+            try {
+                while (true) {
+                    Group group = readyGroups.peek();
+                    if (group != null) {
+                        Runnable child = takeChild(group);
+                        lock.unlock();
+                        try {
+                            // do not let an interrupt leak from one child to the next
+                            Thread.interrupted();
+                            runChild(group, child);
+                        } finally {
+                            lock.lock();
+                        }
+                    } else if (!awaitWork()) {
+                        workerCount--;
+                        return;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Must be called while holding lock
+        private boolean awaitWork() {
+            woken = false;
+            idleWorkers.add(this);
+            long nanos = KEEP_ALIVE_NANOS;
+            while (!woken && nanos > 0) {
+                try {
+                    nanos = wakeUpCondition.awaitNanos(nanos);
+                } catch (InterruptedException e) {
+                    // keep serving children until the keep-alive time expires
+                }
+            }
+            if (!woken) {
+                idleWorkers.remove(this);
+            }
+            return woken;
+        }
+
+        // Must be called while holding lock
+        void wakeUp() {
+            woken = true;
+            wakeUpCondition.signal();
+        }
+    }
+
+    /**
+     * The children scheduled by a single invocation of a runner's children,
+     * i.e. everything between the first {@code schedule} and the matching
+     * {@code finished} on one thread.
+     */
+    private class Group {
+        final Group enclosing;
+
+        // Only accessed by the thread that schedules the children
+        boolean finishing = false;
+
+        // Guarded by lock
+        final LinkedList<Runnable> unstarted = new LinkedList<Runnable>();
+
+        // Guarded by lock
+        int pending = 0;
+
+        final Condition done = lock.newCondition();
+
+        private volatile Throwable failure = null;
+
+        Group(Group enclosing) {
+            this.enclosing = enclosing;
+        }
+
+        synchronized void addFailure(Throwable e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+
+        void rethrowFailure() {
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+        }
+    }
+}
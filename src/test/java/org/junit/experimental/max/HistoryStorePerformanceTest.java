@@ -0,0 +1,53 @@
+package org.junit.experimental.max;
+
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Measures the time needed to load and save a {@link MaxHistory} file with
+ * a large number of tests.
+ */
+public class HistoryStorePerformanceTest {
+    private static final boolean TESTING_PERFORMANCE = false;
+
+    private static final int CLASSES = 10000;
+
+    private static final int METHODS_PER_CLASS = 100;
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void measureLargeHistory() throws Exception {
+        assumeTrue(TESTING_PERFORMANCE);
+        File file = new File(tmp.getRoot(), "history");
+        Map<String, Long> durations = new HashMap<String, Long>();
+        Map<String, Long> failureTimestamps = new HashMap<String, Long>();
+        Map<String, TestStatistics> statistics = new HashMap<String, TestStatistics>();
+        for (int i = 0; i < CLASSES; i++) {
+            for (int j = 0; j < METHODS_PER_CLASS; j++) {
+                durations.put("test" + j + "(org.example.Test" + i + ")", (long) j);
+            }
+        }
+        long start = System.nanoTime();
+        new HistoryStore(file).save(durations, failureTimestamps, statistics, durations.keySet());
+        long saved = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            new HistoryStore(file).load(new HashMap<String, Long>(), new HashMap<String, Long>(),
+                    new HashMap<String, TestStatistics>());
+        }
+        long warm = System.nanoTime();
+        new HistoryStore(file).load(new HashMap<String, Long>(), new HashMap<String, Long>(),
+                    new HashMap<String, TestStatistics>());
+        long loaded = System.nanoTime();
+        System.out.println(durations.size() + " tests, " + file.length() / 1024 + " KB: saved in "
+                + (saved - start) / 1000000 + " ms, loaded in " + (loaded - warm) / 1000000 + " ms");
+    }
+}
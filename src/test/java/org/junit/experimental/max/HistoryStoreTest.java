@@ -0,0 +1,299 @@
+package org.junit.experimental.max;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+
+public class HistoryStoreTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private final Map<String, Long> durations = new HashMap<String, Long>();
+
+    private final Map<String, Long> failureTimestamps = new HashMap<String, Long>();
+
+    private final Map<String, TestStatistics> statistics = new HashMap<String, TestStatistics>();
+
+    private final Map<String, Long> loadedDurations = new HashMap<String, Long>();
+
+    private final Map<String, Long> loadedFailureTimestamps = new HashMap<String, Long>();
+
+    private final Map<String, TestStatistics> loadedStatistics = new HashMap<String, TestStatistics>();
+
+    @Test
+    public void loadsSavedTests() throws Exception {
+        File file = new File(tmp.getRoot(), "history");
+        durations.put("test(org.example.Test)", 17L);
+        durations.put("other(org.example.Test)", 4L);
+        durations.put("initializationError", 1L);
+        failureTimestamps.put("test(org.example.Test)", 1000L);
+        failureTimestamps.put("withoutDuration(org.example.Test)", 2000L);
+
+        new HistoryStore(file).save(durations, failureTimestamps, statistics, durations.keySet());
+        new HistoryStore(file).load(loadedDurations, loadedFailureTimestamps, loadedStatistics);
+
+        assertEquals(durations, loadedDurations);
+        assertEquals(failureTimestamps, loadedFailureTimestamps);
+    }
+
+    @Test
+    public void loadsSavedStatistics() throws Exception {
+        File file = new File(tmp.getRoot(), "history");
+        TestStatistics saved = new TestStatistics();
+        for (long i = 1; i <= 10; i++) {
+            saved.addDuration(i * 1000000);
+        }
+        saved.addFailure();
+        statistics.put("test(org.example.Test)", saved);
+
+        new HistoryStore(file).save(durations, failureTimestamps, statistics, statistics.keySet());
+        new HistoryStore(file).load(loadedDurations, loadedFailureTimestamps, loadedStatistics);
+
+        TestStatistics loaded = loadedStatistics.get("test(org.example.Test)");
+        assertEquals(10, loaded.getRunCount());
+        assertEquals(1, loaded.getFailureCount());
+        assertEquals(saved.getMean(), loaded.getMean(), 0);
+        assertEquals(saved.getVariance(), loaded.getVariance(), 0);
+        assertEquals(saved.getQuantile(0.95), loaded.getQuantile(0.95));
+    }
+
+    @Test
+    public void appendsOnlyChangedTests() throws Exception {
+        File file = new File(tmp.getRoot(), "history");
+        for (int i = 0; i < 100; i++) {
+            durations.put("test" + i + "(org.example.Test)", (long) i);
+        }
+        HistoryStore store = new HistoryStore(file);
+        store.save(durations, failureTimestamps, statistics, durations.keySet());
+        long length = file.length();
+
+        durations.put("test3(org.example.Test)", 42L);
+        store.save(durations, failureTimestamps, statistics, Collections.singleton("test3(org.example.Test)"));
+        new HistoryStore(file).load(loadedDurations, loadedFailureTimestamps, loadedStatistics);
+
+        assertTrue(file.length() - length < 150);
+        assertEquals(durations, loadedDurations);
+    }
+
+    @Test
+    public void ignoresDamagedEnd() throws Exception {
+        File file = new File(tmp.getRoot(), "history");
+        durations.put("test(org.example.Test)", 17L);
+        new HistoryStore(file).save(durations, failureTimestamps, statistics, durations.keySet());
+        FileOutputStream stream = new FileOutputStream(file, true);
+        stream.write(new byte[] {2, 0, 0, 0});
+        stream.close();
+
+        HistoryStore store = new HistoryStore(file);
+        store.load(loadedDurations, loadedFailureTimestamps, loadedStatistics);
+        assertEquals(durations, loadedDurations);
+
+        durations.put("other(org.example.Test)", 4L);
+        store.save(durations, failureTimestamps, statistics, Collections.singleton("other(org.example.Test)"));
+        loadedDurations.clear();
+        new HistoryStore(file).load(loadedDurations, loadedFailureTimestamps, loadedStatistics);
+        assertEquals(durations, loadedDurations);
+    }
+
+    @Test
+    public void compactsFileWithManyOutdatedRecords() throws Exception {
+        File file = new File(tmp.getRoot(), "history");
+        durations.put("test(org.example.Test)", 0L);
+        HistoryStore store = new HistoryStore(file);
+        store.save(durations, failureTimestamps, statistics, durations.keySet());
+        long initialLength = file.length();
+        store.save(durations, failureTimestamps, statistics, durations.keySet());
+        long recordLength = file.length() - initialLength;
+
+        for (long i = 1; i <= 2000; i++) {
+            durations.put("test(org.example.Test)", i);
+            store.save(durations, failureTimestamps, statistics, durations.keySet());
+        }
+        new HistoryStore(file).load(loadedDurations, loadedFailureTimestamps, loadedStatistics);
+
+        assertTrue(file.length() < initialLength + 1100 * recordLength);
+        assertEquals(durations, loadedDurations);
+    }
+
+    @Test
+    public void migratesVersion1File() throws Exception {
+        File file = new File(tmp.getRoot(), "history");
+        DataOutputStream output = startFile(file, 1);
+        writeTestRecordStart(output, 17L, 1000L);
+        output.writeLong(12L); // CPU time
+        output.close();
+
+        HistoryStore store = new HistoryStore(file);
+        store.load(loadedDurations, loadedFailureTimestamps, loadedStatistics);
+
+        assertEquals(Long.valueOf(17L), loadedDurations.get("test(org.example.Test)"));
+        assertEquals(Long.valueOf(1000L), loadedFailureTimestamps.get("test(org.example.Test)"));
+        assertEquals(17, loadedStatistics.get("test(org.example.Test)").getMean(), 0);
+        assertRewrittenInCurrentVersion(file, store);
+    }
+
+    @Test
+    public void migratesVersion2File() throws Exception {
+        File file = new File(tmp.getRoot(), "history");
+        DataOutputStream output = startFile(file, 2);
+        writeTestRecordStart(output, 17L, 1000L);
+        output.writeLong(12L); // CPU time
+        output.writeInt(3); // runs
+        output.writeInt(1); // failures
+        output.writeDouble(15); // mean
+        output.writeDouble(4); // variance
+        output.writeByte(0); // flags
+        writeRecentDurations(output, 15, 3);
+        output.close();
+
+        HistoryStore store = new HistoryStore(file);
+        store.load(loadedDurations, loadedFailureTimestamps, loadedStatistics);
+
+        TestStatistics loaded = loadedStatistics.get("test(org.example.Test)");
+        assertEquals(Long.valueOf(17L), loadedDurations.get("test(org.example.Test)"));
+        assertEquals(3, loaded.getRunCount());
+        assertEquals(1, loaded.getFailureCount());
+        assertEquals(0, loaded.getFlakyCount());
+        assertEquals(15, loaded.getMean(), 0);
+        assertEquals(4, loaded.getVariance(), 0);
+        assertRewrittenInCurrentVersion(file, store);
+    }
+
+    @Test
+    public void migratesVersion3File() throws Exception {
+        File file = new File(tmp.getRoot(), "history");
+        DataOutputStream output = startFile(file, 3);
+        writeTestRecordStart(output, 17L, 1000L);
+        output.writeLong(12L); // CPU time
+        output.writeInt(3); // runs
+        output.writeInt(1); // failures
+        output.writeInt(1); // flaky runs
+        output.writeDouble(0.5); // flakiness
+        output.writeDouble(15); // mean
+        output.writeDouble(4); // variance
+        output.writeByte(0); // flags
+        writeRecentDurations(output, 15, 3);
+        output.close();
+
+        HistoryStore store = new HistoryStore(file);
+        store.load(loadedDurations, loadedFailureTimestamps, loadedStatistics);
+
+        TestStatistics loaded = loadedStatistics.get("test(org.example.Test)");
+        assertEquals(Long.valueOf(17L), loadedDurations.get("test(org.example.Test)"));
+        assertEquals(Long.valueOf(1000L), loadedFailureTimestamps.get("test(org.example.Test)"));
+        assertEquals(3, loaded.getRunCount());
+        assertEquals(1, loaded.getFlakyCount());
+        assertEquals(15, loaded.getMean(), 0);
+        assertRewrittenInCurrentVersion(file, store);
+    }
+
+    @Test
+    public void migratesVersion4File() throws Exception {
+        File file = new File(tmp.getRoot(), "history");
+        DataOutputStream output = startFile(file, 4);
+        writeTestRecordStart(output, 17L, 1000L);
+        output.writeInt(3); // runs
+        output.writeInt(1); // failures
+        output.writeInt(1); // flaky runs
+        output.writeDouble(0.5); // flakiness
+        output.writeDouble(15000); // mean
+        output.writeDouble(4); // variance
+        output.writeByte(0); // flags
+        writeRecentDurations(output, 15, 3);
+        output.close();
+
+        HistoryStore store = new HistoryStore(file);
+        store.load(loadedDurations, loadedFailureTimestamps, loadedStatistics);
+
+        TestStatistics loaded = loadedStatistics.get("test(org.example.Test)");
+        assertEquals(Long.valueOf(17L), loadedDurations.get("test(org.example.Test)"));
+        assertEquals(3, loaded.getRunCount());
+        assertEquals(15000, loaded.getMean(), 0);
+        assertEquals(15000, loaded.getQuantile(0.5), 15000 * 0.19);
+        assertRewrittenInCurrentVersion(file, store);
+    }
+
+    private DataOutputStream startFile(File file, int version) throws Exception {
+        DataOutputStream output = new DataOutputStream(new FileOutputStream(file));
+        output.writeInt(0x4A4D4158);
+        output.writeInt(version);
+        output.writeByte(1);
+        output.writeInt(16);
+        output.write("org.example.Test".getBytes("UTF-8"));
+        output.writeByte(1);
+        output.writeInt(4);
+        output.write("test".getBytes("UTF-8"));
+        return output;
+    }
+
+    private void writeTestRecordStart(DataOutputStream output, long duration,
+            long failureTimestamp) throws Exception {
+        output.writeByte(2);
+        output.writeInt(0);
+        output.writeInt(1);
+        output.writeLong(duration);
+        output.writeLong(failureTimestamp);
+    }
+
+    private void writeRecentDurations(DataOutputStream output, int micros, int count)
+            throws Exception {
+        output.writeByte(count);
+        for (int i = 0; i < 8; i++) {
+            output.writeInt(i < count ? micros : 0);
+        }
+    }
+
+    private void assertRewrittenInCurrentVersion(File file, HistoryStore store) throws Exception {
+        loadedDurations.put("other(org.example.Test)", 4L);
+        store.save(loadedDurations, loadedFailureTimestamps, loadedStatistics,
+                Collections.singleton("other(org.example.Test)"));
+        Map<String, Long> reloadedDurations = new HashMap<String, Long>();
+        new HistoryStore(file).load(reloadedDurations, new HashMap<String, Long>(),
+                new HashMap<String, TestStatistics>());
+        assertEquals(loadedDurations, reloadedDurations);
+    }
+
+    @Test
+    public void readsHistoryWrittenBySerialization() throws Exception {
+        File file = new File(tmp.getRoot(), "history");
+        Description test = Description.createTestDescription("org.example.Test", "test");
+        MaxHistory history = MaxHistory.forFolder(file);
+        history.putTestDuration(test, 17L);
+        ObjectOutputStream stream = new ObjectOutputStream(new FileOutputStream(file));
+        stream.writeObject(history);
+        stream.close();
+        assertTrue(HistoryStore.isSerializedHistory(file));
+
+        MaxHistory loaded = MaxHistory.forFolder(file);
+
+        assertEquals(Long.valueOf(17L), loaded.getTestDuration(test));
+    }
+
+    @Test
+    public void keepsUnreadableFile() throws Exception {
+        File file = tmp.newFile("history");
+        FileOutputStream stream = new FileOutputStream(file);
+        stream.write("no history".getBytes("UTF-8"));
+        stream.close();
+
+        MaxHistory history = MaxHistory.forFolder(file);
+
+        assertTrue(file.exists());
+        assertFalse(HistoryStore.isSerializedHistory(file));
+        assertNull(history.getTestDuration(Description.createTestDescription("A", "b")));
+    }
+}
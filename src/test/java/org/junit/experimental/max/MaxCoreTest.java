@@ -0,0 +1,90 @@
+package org.junit.experimental.max;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+
+public class MaxCoreTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static int fixtureSetUps;
+
+    public static class WithFixture {
+        @BeforeClass
+        public static void setUpFixture() {
+            fixtureSetUps++;
+        }
+
+        @Test
+        public void failedRecently() {
+        }
+
+        @Test
+        public void neverFailed() {
+        }
+    }
+
+    public static class WithoutFixture {
+        @Test
+        public void failedEarlier() {
+        }
+    }
+
+    @Test
+    public void setsUpExpensiveFixtureOnlyOnce() throws Exception {
+        assertEquals(1, runWithFixtureDuration(TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Test
+    public void setsUpCheapFixtureAgainToRunLikelyFailuresFirst() throws Exception {
+        assertEquals(2, runWithFixtureDuration(1));
+    }
+
+    @Test
+    public void recordsDurationOfFixture() throws Exception {
+        File file = new File(tmp.getRoot(), "history");
+
+        MaxCore.storedLocally(file).run(WithFixture.class);
+
+        assertTrue(MaxHistory.forFolder(file).getExpectedFixtureDuration(
+                WithFixture.class.getName()) != null);
+    }
+
+    private int runWithFixtureDuration(long fixtureDuration) throws Exception {
+        File file = new File(tmp.getRoot(), "history");
+        MaxHistory history = MaxHistory.forFolder(file);
+        long millisecond = TimeUnit.MILLISECONDS.toNanos(1);
+        recordRun(history, WithFixture.class, "failedRecently", millisecond, 3L);
+        recordRun(history, WithoutFixture.class, "failedEarlier", millisecond, 2L);
+        recordRun(history, WithFixture.class, "neverFailed", millisecond, null);
+        history.putFixtureDuration(WithFixture.class.getName(), fixtureDuration);
+        history.listener().testRunFinished(null);
+        fixtureSetUps = 0;
+
+        Result result = MaxCore.storedLocally(file).run(
+                Request.classes(WithFixture.class, WithoutFixture.class));
+
+        assertEquals(3, result.getRunCount());
+        return fixtureSetUps;
+    }
+
+    private void recordRun(MaxHistory history, Class<?> type, String name,
+            long duration, Long failureTimestamp) {
+        Description test = Description.createTestDescription(type, name);
+        history.putTestDuration(test, duration);
+        if (failureTimestamp != null) {
+            history.putTestFailureTimestamp(test, failureTimestamp);
+        }
+    }
+}
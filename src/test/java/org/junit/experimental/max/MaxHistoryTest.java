@@ -0,0 +1,221 @@
+package org.junit.experimental.max;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Computer;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
+
+public class MaxHistoryTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static volatile CountDownLatch fBothStarted;
+
+    public static class Sleeping {
+        @Test
+        public void first() throws Exception {
+            sleepWhileOtherTestRuns();
+        }
+
+        @Test
+        public void second() throws Exception {
+            sleepWhileOtherTestRuns();
+        }
+
+        private void sleepWhileOtherTestRuns() throws Exception {
+            fBothStarted.countDown();
+            fBothStarted.await(10, TimeUnit.SECONDS);
+            Thread.sleep(200);
+        }
+    }
+
+    public static class ManyTests {
+        @Test
+        public void test0() {
+        }
+
+        @Test
+        public void test1() {
+        }
+
+        @Test
+        public void test2() {
+        }
+
+        @Test
+        public void test3() {
+        }
+
+        @Test
+        public void test4() {
+        }
+
+        @Test
+        public void test5() {
+        }
+
+        @Test
+        public void test6() {
+        }
+
+        @Test
+        public void test7() {
+        }
+    }
+
+    @Test
+    public void listenerIsThreadSafe() {
+        MaxHistory history = MaxHistory.forFolder(new File(tmp.getRoot(), "history"));
+
+        assertNotNull(history.listener().getClass().getAnnotation(RunListener.ThreadSafe.class));
+    }
+
+    @Test
+    public void recordsAllTestsOfParallelRun() throws Exception {
+        MaxHistory history = MaxHistory.forFolder(new File(tmp.getRoot(), "history"));
+
+        Result result = run(history, ParallelComputer.methods(), ManyTests.class);
+
+        assertTrue(result.wasSuccessful());
+        for (int i = 0; i < 8; i++) {
+            assertNotNull(history.getTestDuration(
+                    Description.createTestDescription(ManyTests.class, "test" + i)));
+        }
+    }
+
+    @Test
+    public void recordsWallTimeOfTestsRunningInParallel() throws Exception {
+        MaxHistory history = MaxHistory.forFolder(new File(tmp.getRoot(), "history"));
+        fBothStarted = new CountDownLatch(2);
+
+        Result result = run(history, ParallelComputer.methods(), Sleeping.class);
+
+        assertTrue(result.wasSuccessful());
+        Description first = Description.createTestDescription(Sleeping.class, "first");
+        assertTrue(history.getTestDuration(first) >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void recordsWallTimeOfTestsRunningAlone() throws Exception {
+        MaxHistory history = MaxHistory.forFolder(new File(tmp.getRoot(), "history"));
+        fBothStarted = new CountDownLatch(0);
+
+        run(history, new Computer(), Sleeping.class);
+
+        Description first = Description.createTestDescription(Sleeping.class, "first");
+        assertTrue(history.getTestDuration(first) >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void reloadsRecordedTests() throws Exception {
+        File file = new File(tmp.getRoot(), "history");
+        MaxHistory history = MaxHistory.forFolder(file);
+        run(history, ParallelComputer.methods(), ManyTests.class);
+
+        MaxHistory reloaded = MaxHistory.forFolder(file);
+
+        Description test = Description.createTestDescription(ManyTests.class, "test0");
+        assertTrue(history.getTestDuration(test).equals(reloaded.getTestDuration(test)));
+    }
+
+    @Test
+    public void expectedDurationIsNotDominatedByOneSlowRun() {
+        MaxHistory history = MaxHistory.forFolder(new File(tmp.getRoot(), "history"));
+        Description test = Description.createTestDescription("org.example.Test", "test");
+        for (int i = 0; i < 10; i++) {
+            history.putTestDuration(test, 1000000);
+        }
+        history.putTestDuration(test, 100000000);
+
+        assertEquals(Long.valueOf(100000000), history.getTestDuration(test));
+        assertTrue(history.getExpectedDuration(test) < 25000000);
+        assertAbout(100000000, history.getDurationQuantile(test, 0.95));
+        assertAbout(1000000, history.getDurationQuantile(test, 0.5));
+        assertEquals(11, history.getRunCount(test));
+    }
+
+    @Test
+    public void estimatesQuantilesFromMoreThanTheLastRuns() {
+        MaxHistory history = MaxHistory.forFolder(new File(tmp.getRoot(), "history"));
+        Description test = Description.createTestDescription("org.example.Test", "test");
+        for (int i = 0; i < 100; i++) {
+            history.putTestDuration(test, i % 10 == 0 ? 100000000 : 1000000);
+        }
+
+        assertAbout(1000000, history.getDurationQuantile(test, 0.8));
+        assertAbout(100000000, history.getDurationQuantile(test, 0.95));
+    }
+
+    private void assertAbout(long expected, Long actual) {
+        // the precision of a bucket of the histogram
+        assertEquals(expected, actual, expected * 0.19);
+    }
+
+    @Test
+    public void flagsSignificantlyLongerDuration() {
+        MaxHistory history = MaxHistory.forFolder(new File(tmp.getRoot(), "history"));
+        Description test = Description.createTestDescription("org.example.Test", "test");
+        for (int i = 0; i < 10; i++) {
+            history.putTestDuration(test, 1000000 + (i % 2) * 100000);
+        }
+        assertFalse(history.isDurationRegression(test));
+
+        history.putTestDuration(test, 1200000);
+        assertFalse(history.isDurationRegression(test));
+
+        history.putTestDuration(test, 3000000);
+        assertTrue(history.isDurationRegression(test));
+    }
+
+    @Test
+    public void countsFailures() throws Exception {
+        MaxHistory history = MaxHistory.forFolder(new File(tmp.getRoot(), "history"));
+        Description test = Description.createTestDescription("org.example.Test", "test");
+        history.putTestFailureTimestamp(test, 1000);
+        history.putTestFailureTimestamp(test, 2000);
+
+        assertEquals(2, history.getFailureCount(test));
+        assertEquals(0, history.getRunCount(test));
+        assertNull(history.getExpectedDuration(test));
+    }
+
+    @Test
+    public void quarantinesChronicallyFlakyTests() {
+        MaxHistory history = MaxHistory.forFolder(new File(tmp.getRoot(), "history"));
+        Description test = Description.createTestDescription("org.example.Test", "test");
+        history.putTestFlakiness(test, true);
+        history.putTestFlakiness(test, false);
+        history.putTestFlakiness(test, true);
+        assertFalse(history.isQuarantined(test));
+
+        history.putTestFlakiness(test, true);
+        assertTrue(history.isQuarantined(test));
+        assertEquals(3, history.getFlakyCount(test));
+
+        for (int i = 0; i < 6; i++) {
+            history.putTestFlakiness(test, false);
+        }
+        assertFalse(history.isQuarantined(test));
+    }
+
+    private Result run(MaxHistory history, Computer computer, Class<?> testClass) {
+        JUnitCore core = new JUnitCore();
+        core.addListener(history.listener());
+        return core.run(computer, testClass);
+    }
+}
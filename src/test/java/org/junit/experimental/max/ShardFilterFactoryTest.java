@@ -0,0 +1,167 @@
+package org.junit.experimental.max;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+import org.junit.runner.FilterFactory;
+import org.junit.runner.FilterFactoryParams;
+import org.junit.runner.manipulation.Filter;
+
+public class ShardFilterFactoryTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private final ShardFilterFactory factory = new ShardFilterFactory();
+
+    private Description suite;
+
+    private final List<Description> tests = new ArrayList<Description>();
+
+    @Before
+    public void createSuite() {
+        suite = Description.createSuiteDescription("suite");
+        for (int i = 0; i < 4; i++) {
+            Description testClass = Description.createSuiteDescription("Class" + i);
+            suite.addChild(testClass);
+            for (int j = 0; j < 10; j++) {
+                Description test = Description.createTestDescription("Class" + i, "test" + j);
+                testClass.addChild(test);
+                tests.add(test);
+            }
+        }
+    }
+
+    @Test
+    public void everyTestIsInExactlyOneShard() throws Exception {
+        assertEveryTestIsInExactlyOneShard(null);
+    }
+
+    @Test
+    public void everyTestIsInExactlyOneShardWithHistory() throws Exception {
+        assertEveryTestIsInExactlyOneShard(historyWithLinearDurations());
+    }
+
+    private void assertEveryTestIsInExactlyOneShard(MaxHistory history) {
+        Set<Description> seen = new HashSet<Description>();
+        for (int shard = 0; shard < 3; shard++) {
+            Filter filter = factory.createFilter(suite, shard, 3, history);
+            for (Description each : tests) {
+                if (filter.shouldRun(each)) {
+                    assertTrue("test in two shards: " + each, seen.add(each));
+                }
+            }
+        }
+        assertEquals(tests.size(), seen.size());
+    }
+
+    @Test
+    public void balancesShardsByRecordedDurations() throws Exception {
+        MaxHistory history = historyWithLinearDurations();
+        long total = 0;
+        for (Description each : tests) {
+            total += history.getTestDuration(each);
+        }
+        for (int shard = 0; shard < 4; shard++) {
+            Filter filter = factory.createFilter(suite, shard, 4, history);
+            long load = 0;
+            for (Description each : tests) {
+                if (filter.shouldRun(each)) {
+                    load += history.getTestDuration(each);
+                }
+            }
+            assertTrue("unbalanced shard " + shard + ": " + load,
+                    Math.abs(load - total / 4) <= 1000);
+        }
+    }
+
+    @Test
+    public void keepsSuitesWithTestsOfTheShard() throws Exception {
+        Filter filter = factory.createFilter(suite, 0, 40, null);
+        int suitesToRun = 0;
+        for (Description each : suite.getChildren()) {
+            boolean anyTest = false;
+            for (Description test : each.getChildren()) {
+                anyTest |= filter.shouldRun(test);
+            }
+            assertThat(filter.shouldRun(each), is(anyTest));
+            suitesToRun += anyTest ? 1 : 0;
+        }
+        assertThat(filter.shouldRun(suite), is(suitesToRun > 0));
+    }
+
+    @Test
+    public void assignsTestsByHashWithoutHistory() throws Exception {
+        Filter first = factory.createFilter(suite, 1, 3, null);
+        Filter second = factory.createFilter(suite, 1, 3, null);
+        for (Description each : tests) {
+            assertThat(first.shouldRun(each), is(second.shouldRun(each)));
+        }
+    }
+
+    @Test
+    public void createsFilterFromArgs() throws Exception {
+        File historyFile = tmp.newFile("history.ser");
+        historyFile.delete();
+        Filter filter = factory.createFilter(new FilterFactoryParams(suite,
+                "shard=2/5,history=" + historyFile.getPath()));
+
+        assertEquals("shard 2/5", filter.describe());
+    }
+
+    @Test
+    public void acceptsShardWithoutKey() throws Exception {
+        Filter filter = factory.createFilter(new FilterFactoryParams(suite, "0/2"));
+
+        assertEquals("shard 0/2", filter.describe());
+    }
+
+    @Test
+    public void rejectsShardOutOfRange() throws Exception {
+        expectedException.expect(FilterFactory.FilterNotCreatedException.class);
+        factory.createFilter(new FilterFactoryParams(suite, "shard=2/2"));
+    }
+
+    @Test
+    public void rejectsMissingShard() throws Exception {
+        expectedException.expect(FilterFactory.FilterNotCreatedException.class);
+        factory.createFilter(new FilterFactoryParams(suite, "history=max.ser"));
+    }
+
+    @Test
+    public void unknownTestsAreAssignedByHash() throws Exception {
+        Description unknown = Description.createTestDescription("Other", "test");
+        int shardsRunningIt = 0;
+        for (int shard = 0; shard < 3; shard++) {
+            if (factory.createFilter(suite, shard, 3, historyWithLinearDurations()).shouldRun(unknown)) {
+                shardsRunningIt++;
+            }
+        }
+        assertEquals(1, shardsRunningIt);
+    }
+
+    private MaxHistory historyWithLinearDurations() throws Exception {
+        File historyFile = new File(tmp.getRoot(), "history.ser");
+        MaxHistory history = MaxHistory.forFolder(historyFile);
+        for (int i = 0; i < tests.size(); i++) {
+            history.putTestDuration(tests.get(i), 1000L * (i + 1));
+        }
+        return history;
+    }
+}
@@ -129,6 +129,34 @@ public class JUnitCommandLineParseResultTest {
         assertThat(description.toString(), containsString("initializationError"));
     }
 
+    @Test
+    public void shouldParseRerunFailuresFile() throws Exception {
+        jUnitCommandLineParseResult.parseOptions("--rerun-failures=failed-tests.txt");
+
+        assertThat(jUnitCommandLineParseResult.getRerunFailuresFile().getPath(),
+                is("failed-tests.txt"));
+    }
+
+    @Test
+    public void shouldParseRerunManifestFile() throws Exception {
+        jUnitCommandLineParseResult.parseOptions("--rerun-manifest=failed-tests.txt");
+
+        assertThat(jUnitCommandLineParseResult.getRerunManifestFile().getPath(),
+                is("failed-tests.txt"));
+    }
+
+    @Test
+    public void shouldCreateFailureUponRerunFailuresWithTestClasses() throws Exception {
+        String[] restOfArgs = jUnitCommandLineParseResult.parseOptions(
+                "--rerun-failures=failed-tests.txt", DummyTest.class.getName());
+        jUnitCommandLineParseResult.parseParameters(restOfArgs);
+
+        Runner runner = jUnitCommandLineParseResult.createRequest(new Computer()).getRunner();
+        Description description = runner.getDescription().getChildren().get(0);
+
+        assertThat(description.toString(), containsString("initializationError"));
+    }
+
     public static class FilterFactoryStub implements FilterFactory {
         public Filter createFilter(FilterFactoryParams params) throws FilterNotCreatedException {
             throw new FilterNotCreatedException(new Exception("stub"));
@@ -0,0 +1,178 @@
+package org.junit.runner;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.tests.TestSystem;
+
+public class RerunManifestTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static int fBeforeClassCount;
+
+    private static boolean fFail;
+
+    public static class Mixed {
+        @BeforeClass
+        public static void countSetups() {
+            fBeforeClassCount++;
+        }
+
+        @Test
+        public void failsFirst() {
+            if (fFail) {
+                throw new AssertionError();
+            }
+        }
+
+        @Test
+        public void succeeds() {
+        }
+
+        @Test
+        public void failsSecond() {
+            if (fFail) {
+                throw new AssertionError();
+            }
+        }
+    }
+
+    public static class FailingSetup {
+        @BeforeClass
+        public static void failIfRequested() {
+            if (fFail) {
+                throw new AssertionError();
+            }
+        }
+
+        @Test
+        public void first() {
+        }
+
+        @Test
+        public void second() {
+        }
+    }
+
+    @Test
+    public void writesDisplayNamesOfFailedTests() throws Exception {
+        File manifest = runFailing(Mixed.class);
+
+        List<String> names = RerunManifest.readDisplayNames(manifest);
+        Collections.sort(names);
+        assertEquals(Arrays.asList(
+                Description.createTestDescription(Mixed.class, "failsFirst").getDisplayName(),
+                Description.createTestDescription(Mixed.class, "failsSecond").getDisplayName()),
+                names);
+    }
+
+    @Test
+    public void rerunsFailedTestsWithOneSetupPerClass() throws Exception {
+        File manifest = runFailing(Mixed.class);
+        fBeforeClassCount = 0;
+
+        Result result = new JUnitCore().run(RerunManifest.request(manifest));
+
+        assertThat(result.getRunCount(), is(2));
+        assertThat(result.getFailureCount(), is(0));
+        assertThat(fBeforeClassCount, is(1));
+    }
+
+    @Test
+    public void rerunsAllTestsOfClassWithFailedSetup() throws Exception {
+        File manifest = runFailing(FailingSetup.class, Mixed.class);
+
+        Result result = new JUnitCore().run(RerunManifest.request(manifest));
+
+        assertThat(result.getRunCount(), is(4));
+        assertThat(result.getFailureCount(), is(0));
+    }
+
+    @Test
+    public void skipsFailuresWithoutTestClass() throws Exception {
+        File manifest = new File(tmp.getRoot(), "failed-tests.txt");
+        Description failed = Description.createTestDescription(Mixed.class, "failsFirst");
+        RunListener writer = RerunManifest.writer(manifest);
+        writer.testFailure(new Failure(Description.TEST_MECHANISM, new Exception()));
+        writer.testFailure(new Failure(Description.createSuiteDescription("[0]"),
+                new Exception()));
+        writer.testFailure(new Failure(failed, new AssertionError()));
+        writer.testRunFinished(null);
+
+        assertEquals(Arrays.asList(failed.getDisplayName()),
+                RerunManifest.readDisplayNames(manifest));
+    }
+
+    @Test
+    public void rerunsOtherTestsIfClassIsNotFound() throws Exception {
+        File manifest = new File(tmp.getRoot(), "failed-tests.txt");
+        RerunManifest.writeDisplayNames(manifest, Arrays.asList(
+                "test(org.example.Deleted)",
+                Description.createTestDescription(Mixed.class, "failsFirst").getDisplayName()));
+
+        final List<Failure> skipped = new ArrayList<Failure>();
+        JUnitCore core = new JUnitCore();
+        core.addListener(new RunListener() {
+            @Override
+            public void testAssumptionFailure(Failure failure) {
+                skipped.add(failure);
+            }
+        });
+        Result result = core.run(RerunManifest.request(manifest));
+
+        assertThat(result.getFailureCount(), is(0));
+        assertThat(skipped.size(), is(1));
+        assertThat(skipped.get(0).getMessage(), is("Class not found: org.example.Deleted"));
+    }
+
+    @Test
+    public void writesEmptyManifestIfAllTestsPass() throws Exception {
+        File manifest = new File(tmp.getRoot(), "failed-tests.txt");
+        JUnitCore core = new JUnitCore();
+        core.addListener(RerunManifest.writer(manifest));
+        core.run(FailingSetup.class);
+
+        assertThat(RerunManifest.readDisplayNames(manifest).size(), is(0));
+        assertThat(new JUnitCore().run(RerunManifest.request(manifest)).getRunCount(), is(0));
+    }
+
+    @Test
+    public void rerunsFailuresFromCommandLine() throws Exception {
+        File manifest = runFailing(Mixed.class);
+        File nextManifest = new File(tmp.getRoot(), "next.txt");
+
+        Result result = new JUnitCore().runMain(new TestSystem(),
+                "--rerun-failures=" + manifest.getPath(),
+                "--rerun-manifest=" + nextManifest.getPath());
+
+        assertThat(result.getRunCount(), is(2));
+        assertThat(RerunManifest.readDisplayNames(nextManifest).size(), is(0));
+    }
+
+    private File runFailing(Class<?>... classes) {
+        File manifest = new File(tmp.getRoot(), "failed-tests.txt");
+        JUnitCore core = new JUnitCore();
+        core.addListener(RerunManifest.writer(manifest));
+        fFail = true;
+        try {
+            core.run(classes);
+        } finally {
+            fFail = false;
+        }
+        return manifest;
+    }
+}
@@ -0,0 +1,186 @@
+package org.junit.runner.notification;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+public class AsynchronousRunNotifierTest {
+    private final RunNotifier notifier = new RunNotifier();
+
+    private static class RecordingListener extends RunListener {
+        final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+
+        volatile Thread thread;
+
+        @Override
+        public void testStarted(Description description) throws Exception {
+            record("started " + description.getMethodName());
+        }
+
+        @Override
+        public void testFinished(Description description) throws Exception {
+            record("finished " + description.getMethodName());
+        }
+
+        @Override
+        public void testRunFinished(Result result) throws Exception {
+            record("run finished");
+        }
+
+        private void record(String event) throws InterruptedException {
+            thread = Thread.currentThread();
+            Thread.sleep(1);
+            events.add(event);
+        }
+    }
+
+    @RunListener.ThreadSafe
+    private static class ThreadSafeListener extends RecordingListener {
+    }
+
+    private static class CorruptListener extends RunListener {
+        @Override
+        public void testStarted(Description description) throws Exception {
+            throw new RuntimeException("corrupt");
+        }
+    }
+
+    @Test
+    public void deliversEventsInOrderOnAnotherThread() {
+        notifier.setAsynchronousDelivery(2);
+        RecordingListener listener = new RecordingListener();
+        notifier.addListener(listener);
+
+        for (int i = 0; i < 5; i++) {
+            Description test = Description.createTestDescription("Example", "test" + i);
+            notifier.fireTestStarted(test);
+            notifier.fireTestFinished(test);
+        }
+        notifier.fireTestRunFinished(new Result());
+
+        assertEquals(11, listener.events.size());
+        assertEquals(asList("started test0", "finished test0", "started test1"),
+                listener.events.subList(0, 3));
+        assertEquals("run finished", listener.events.get(10));
+        assertNotSame(Thread.currentThread(), listener.thread);
+    }
+
+    @Test
+    public void notifiesThreadSafeListenersDirectly() {
+        notifier.setAsynchronousDelivery(2);
+        ThreadSafeListener listener = new ThreadSafeListener();
+        notifier.addListener(listener);
+
+        notifier.fireTestStarted(Description.createTestDescription("Example", "test"));
+
+        assertSame(Thread.currentThread(), listener.thread);
+    }
+
+    @Test
+    public void deliversAllEventsBeforeListenerIsRemoved() {
+        notifier.setAsynchronousDelivery(10);
+        RecordingListener listener = new RecordingListener();
+        notifier.addListener(listener);
+
+        notifier.fireTestStarted(Description.createTestDescription("Example", "test"));
+        notifier.removeListener(listener);
+
+        assertEquals(asList("started test"), listener.events);
+    }
+
+    @Test
+    public void doesNotLockNotifierWhileDelivering() {
+        notifier.setAsynchronousDelivery(10);
+        final List<Boolean> locked = Collections.synchronizedList(new ArrayList<Boolean>());
+        notifier.addListener(new RunListener() {
+            @Override
+            public void testStarted(Description description) throws Exception {
+                locked.add(Thread.holdsLock(notifier));
+            }
+        });
+
+        notifier.fireTestStarted(Description.createTestDescription("Example", "test"));
+        notifier.fireTestRunFinished(new Result());
+
+        assertEquals(asList(false), locked);
+    }
+
+    @Test
+    public void removesListenerAddedBeforeAsynchronousDelivery() {
+        RecordingListener listener = new RecordingListener();
+        notifier.addListener(listener);
+        notifier.setAsynchronousDelivery(10);
+
+        notifier.removeListener(listener);
+        notifier.fireTestStarted(Description.createTestDescription("Example", "test"));
+
+        assertEquals(0, listener.events.size());
+    }
+
+    @Test
+    public void reportsExceptionsOfAsynchronousListenersToOtherListeners() {
+        notifier.setAsynchronousDelivery(10);
+        final List<Failure> failures = Collections.synchronizedList(new ArrayList<Failure>());
+        notifier.addListener(new CorruptListener());
+        notifier.addListener(new RunListener() {
+            @Override
+            public void testFailure(Failure failure) throws Exception {
+                failures.add(failure);
+            }
+        });
+
+        notifier.fireTestStarted(Description.createTestDescription("Example", "test"));
+        notifier.fireTestRunFinished(new Result());
+
+        assertEquals(1, failures.size());
+        assertEquals("corrupt", failures.get(0).getMessage());
+    }
+
+    @Test(timeout = 10000)
+    public void corruptAsynchronousListenersDoNotWaitForEachOther() {
+        notifier.setAsynchronousDelivery(1);
+        notifier.addListener(new CorruptListener());
+        notifier.addListener(new CorruptListener() {
+        });
+
+        for (int i = 0; i < 1000; i++) {
+            notifier.fireTestStarted(Description.createTestDescription("Example", "test" + i));
+        }
+        notifier.fireTestRunFinished(new Result());
+    }
+
+    public static class Example {
+        @Test
+        public void first() {
+        }
+
+        @Test
+        public void second() {
+        }
+    }
+
+    @Test
+    public void junitCoreReturnsAfterAllEventsHaveBeenDelivered() {
+        JUnitCore core = new JUnitCore();
+        core.setAsynchronousListenerDelivery(1);
+        RecordingListener listener = new RecordingListener();
+        core.addListener(listener);
+
+        Result result = core.run(Example.class);
+
+        assertTrue(result.wasSuccessful());
+        assertEquals(5, listener.events.size());
+        assertEquals("run finished", listener.events.get(4));
+    }
+}
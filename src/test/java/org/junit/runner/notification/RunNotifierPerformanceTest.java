@@ -0,0 +1,56 @@
+package org.junit.runner.notification;
+
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+
+/**
+ * Measures how many test events per second a {@link RunNotifier} with a few
+ * listeners can dispatch.
+ */
+public class RunNotifierPerformanceTest {
+    private static final boolean TESTING_PERFORMANCE = false;
+
+    private static final int WARM_UP_ITERATIONS = 1000000;
+
+    private static final int ITERATIONS = 10000000;
+
+    @RunListener.ThreadSafe
+    private static class CountingListener extends RunListener {
+        long events = 0;
+
+        @Override
+        public void testStarted(Description description) throws Exception {
+            events++;
+        }
+
+        @Override
+        public void testFinished(Description description) throws Exception {
+            events++;
+        }
+    }
+
+    @Test
+    public void measureEventsPerSecond() {
+        assumeTrue(TESTING_PERFORMANCE);
+        RunNotifier notifier = new RunNotifier();
+        for (int i = 0; i < 3; i++) {
+            notifier.addListener(new CountingListener());
+        }
+        Description description = Description.createTestDescription(getClass(), "test");
+
+        fireEvents(notifier, description, WARM_UP_ITERATIONS);
+        long start = System.nanoTime();
+        fireEvents(notifier, description, ITERATIONS);
+        long duration = System.nanoTime() - start;
+        System.out.println((2L * ITERATIONS * 1000000000L / duration) + " events per second");
+    }
+
+    private void fireEvents(RunNotifier notifier, Description description, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            notifier.fireTestStarted(description);
+            notifier.fireTestFinished(description);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.junit.runners;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.TestClass;
+
+public class TestClassCacheTest {
+    public static class Example {
+        @Test
+        public void test() {
+        }
+    }
+
+    static class NonPublicExample {
+        @Test
+        public void test() {
+        }
+    }
+
+    @Test
+    public void runnersOfTheSameClassShareTheTestClass() throws Exception {
+        BlockJUnit4ClassRunner first = new BlockJUnit4ClassRunner(Example.class);
+        BlockJUnit4ClassRunner second = new BlockJUnit4ClassRunner(Example.class);
+
+        assertSame(first.getTestClass(), second.getTestClass());
+    }
+
+    @Test
+    public void createsTestClassForClassWithoutEntry() {
+        TestClass testClass = TestClassCache.getTestClass(Example.class);
+
+        assertSame(Example.class, testClass.getJavaClass());
+        assertNotSame(testClass, TestClassCache.getTestClass(NonPublicExample.class));
+    }
+
+    @Test
+    public void reportsCachedValidationErrorsForEveryRunner() throws Exception {
+        List<Throwable> first = initializationErrors(NonPublicExample.class);
+        List<Throwable> second = initializationErrors(NonPublicExample.class);
+
+        assertFalse(first.isEmpty());
+        assertEquals(first.size(), second.size());
+    }
+
+    private List<Throwable> initializationErrors(Class<?> testClass) {
+        try {
+            new BlockJUnit4ClassRunner(testClass);
+            return new ArrayList<Throwable>();
+        } catch (InitializationError e) {
+            return e.getCauses();
+        }
+    }
+}
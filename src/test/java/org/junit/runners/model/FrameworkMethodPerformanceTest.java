@@ -0,0 +1,63 @@
+package org.junit.runners.model;
+
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+import org.junit.internal.runners.model.ReflectiveCallable;
+
+/**
+ * Compares the overhead of {@link FrameworkMethod#invokeExplosively(Object, Object...)}
+ * with invoking the method through a {@link ReflectiveCallable}, as it was
+ * done before.
+ */
+public class FrameworkMethodPerformanceTest {
+    private static final boolean TESTING_PERFORMANCE = false;
+
+    private static final int WARM_UP_ITERATIONS = 200000;
+
+    private static final int ITERATIONS = 10000000;
+
+    public static class Example {
+        public void test() {
+        }
+    }
+
+    @Test
+    public void compareOverheadOfInvocations() throws Throwable {
+        assumeTrue(TESTING_PERFORMANCE);
+        FrameworkMethod method = new FrameworkMethod(Example.class.getMethod("test"));
+        Example target = new Example();
+
+        measureInvokeExplosively(method, target, WARM_UP_ITERATIONS);
+        measureReflectiveCallable(method.getMethod(), target, WARM_UP_ITERATIONS);
+        System.out.println("invokeExplosively:  "
+                + measureInvokeExplosively(method, target, ITERATIONS) + " ns per call");
+        System.out.println("ReflectiveCallable: "
+                + measureReflectiveCallable(method.getMethod(), target, ITERATIONS) + " ns per call");
+    }
+
+    private double measureInvokeExplosively(FrameworkMethod method, Object target,
+            int iterations) throws Throwable {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            method.invokeExplosively(target);
+        }
+        return (System.nanoTime() - start) / (double) iterations;
+    }
+
+    private double measureReflectiveCallable(final Method method, final Object target,
+            int iterations) throws Throwable {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            new ReflectiveCallable() {
+                @Override
+                protected Object runReflectiveCall() throws Throwable {
+                    return method.invoke(target);
+                }
+            }.run();
+        }
+        return (System.nanoTime() - start) / (double) iterations;
+    }
+}
@@ -5,6 +5,11 @@ import junit.framework.Test;
 import junit.samples.money.MoneyTest;
 import org.junit.AssumptionViolatedExceptionTest;
 import org.junit.experimental.categories.CategoryFilterFactoryTest;
+import org.junit.experimental.max.HistoryStorePerformanceTest;
+import org.junit.experimental.max.HistoryStoreTest;
+import org.junit.experimental.max.MaxCoreTest;
+import org.junit.experimental.max.MaxHistoryTest;
+import org.junit.experimental.max.ShardFilterFactoryTest;
 import org.junit.internal.MethodSorterTest;
 import org.junit.internal.matchers.StacktracePrintingMatcherTest;
 import org.junit.internal.matchers.ThrowableCauseMatcherTest;
@@ -14,15 +19,20 @@ import org.junit.runner.FilterFactoriesTest;
 import org.junit.runner.FilterOptionIntegrationTest;
 import org.junit.runner.JUnitCommandLineParseResultTest;
 import org.junit.runner.JUnitCoreTest;
+import org.junit.runner.RerunManifestTest;
 import org.junit.runner.RunWith;
+import org.junit.runner.notification.AsynchronousRunNotifierTest;
 import org.junit.runner.notification.ConcurrentRunNotifierTest;
+import org.junit.runner.notification.RunNotifierPerformanceTest;
 import org.junit.runner.notification.RunNotifierTest;
 import org.junit.runner.notification.SynchronizedRunListenerTest;
 import org.junit.runners.parameterized.BlockJUnit4ClassRunnerWithParametersTest;
 import org.junit.runners.CustomBlockJUnit4ClassRunnerTest;
+import org.junit.runners.TestClassCacheTest;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 import org.junit.runners.model.FrameworkFieldTest;
+import org.junit.runners.model.FrameworkMethodPerformanceTest;
 import org.junit.runners.model.FrameworkMethodTest;
 import org.junit.runners.model.TestClassTest;
 import org.junit.runners.parameterized.ParameterizedNamesTest;
@@ -38,16 +48,21 @@ import org.junit.tests.description.TestDescriptionTest;
 import org.junit.tests.experimental.AssumptionTest;
 import org.junit.tests.experimental.ExperimentalTests;
 import org.junit.tests.experimental.MatcherTest;
+import org.junit.tests.experimental.SelectedTestsFilterFactoryTest;
 import org.junit.tests.experimental.categories.CategoriesAndParameterizedTest;
+import org.junit.tests.experimental.categories.CategoryFilterPerformanceTest;
 import org.junit.tests.experimental.categories.CategoryTest;
 import org.junit.tests.experimental.categories.CategoryValidatorTest;
 import org.junit.tests.experimental.categories.JavadocTest;
 import org.junit.tests.experimental.categories.MultiCategoryTest;
+import org.junit.tests.experimental.max.DescriptionPerformanceTest;
 import org.junit.tests.experimental.max.DescriptionTest;
 import org.junit.tests.experimental.max.JUnit38SortingTest;
+import org.junit.tests.experimental.max.LongestFirstComputerTest;
 import org.junit.tests.experimental.max.MaxStarterTest;
 import org.junit.tests.experimental.parallel.ParallelClassTest;
 import org.junit.tests.experimental.parallel.ParallelMethodTest;
+import org.junit.tests.experimental.parallel.SharedRunnerSchedulerTest;
 import org.junit.tests.experimental.rules.BlockJUnit4ClassRunnerOverrideTest;
 import org.junit.tests.experimental.rules.ClassRulesTest;
 import org.junit.tests.experimental.rules.ExpectedExceptionTest;
@@ -63,6 +78,8 @@ import org.junit.tests.experimental.rules.TestRuleTest;
 import org.junit.tests.experimental.rules.TestWatcherTest;
 import org.junit.tests.experimental.rules.TimeoutRuleTest;
 import org.junit.tests.experimental.rules.VerifierRuleTest;
+import org.junit.tests.experimental.theories.AssignmentStrategyTest;
+import org.junit.tests.experimental.theories.generators.GeneratorsTest;
 import org.junit.tests.experimental.theories.TestedOnSupplierTest;
 import org.junit.tests.experimental.theories.internal.AllMembersSupplierTest;
 import org.junit.tests.experimental.theories.internal.ParameterizedAssertionErrorTest;
@@ -70,11 +87,15 @@ import org.junit.tests.experimental.theories.internal.SpecificDataPointsSupplier
 import org.junit.tests.experimental.theories.runner.FailingDataPointMethods;
 import org.junit.tests.experimental.theories.runner.TheoriesPerformanceTest;
 import org.junit.tests.experimental.theories.runner.TypeMatchingBetweenMultiDataPointsMethod;
+import org.junit.tests.experimental.theories.runner.WithAssignmentStrategies;
+import org.junit.tests.experimental.theories.runner.WithGeneratedValues;
+import org.junit.tests.experimental.theories.runner.WithParallelAssignments;
 import org.junit.tests.experimental.theories.runner.WithAutoGeneratedDataPoints;
 import org.junit.tests.experimental.theories.runner.WithDataPointMethod;
 import org.junit.tests.experimental.theories.runner.WithNamedDataPoints;
 import org.junit.tests.experimental.theories.runner.WithParameterSupplier;
 import org.junit.tests.internal.runners.ErrorReportingRunnerTest;
+import org.junit.tests.internal.runners.statements.FailOnTimeoutPerformanceTest;
 import org.junit.tests.internal.runners.statements.FailOnTimeoutTest;
 import org.junit.tests.junit3compatibility.AllTestsTest;
 import org.junit.tests.junit3compatibility.ClassRequestTest;
@@ -110,6 +131,7 @@ import org.junit.tests.running.core.SystemExitTest;
 import org.junit.tests.running.methods.AnnotationTest;
 import org.junit.tests.running.methods.ExpectedTest;
 import org.junit.tests.running.methods.InheritedTestTest;
+import org.junit.tests.running.methods.RetryTest;
 import org.junit.tests.running.methods.ParameterizedTestMethodTest;
 import org.junit.tests.running.methods.TestMethodTest;
 import org.junit.tests.running.methods.TimeoutTest;
@@ -167,14 +189,19 @@ import org.junit.validator.PublicClassValidatorTest;
         AssumptionViolatedExceptionTest.class,
         ExperimentalTests.class,
         InheritedTestTest.class,
+        RetryTest.class,
         TestClassTest.class,
         AllMembersSupplierTest.class,
         SpecificDataPointsSupplierTest.class,
         ParameterizedAssertionErrorTest.class,
         WithDataPointMethod.class,
         WithNamedDataPoints.class,
+        WithAssignmentStrategies.class,
+        WithParallelAssignments.class,
+        WithGeneratedValues.class,
         WithAutoGeneratedDataPoints.class,
         MatcherTest.class,
+        SelectedTestsFilterFactoryTest.class,
         ObjectContractTest.class,
         TheoriesPerformanceTest.class,
         JUnit4ClassRunnerTest.class,
@@ -182,12 +209,14 @@ import org.junit.validator.PublicClassValidatorTest;
         FilterableTest.class,
         FilterTest.class,
         MaxStarterTest.class,
+        LongestFirstComputerTest.class,
         JUnit38SortingTest.class,
         MethodRulesTest.class,
         TestRuleTest.class,
         TimeoutRuleTest.class,
         ParallelClassTest.class,
         ParallelMethodTest.class,
+        SharedRunnerSchedulerTest.class,
         ParentRunnerTest.class,
         NameRulesTest.class,
         ClassRulesTest.class,
@@ -197,6 +226,7 @@ import org.junit.validator.PublicClassValidatorTest;
         ExternalResourceRuleTest.class,
         VerifierRuleTest.class,
         CategoryTest.class,
+        CategoryFilterPerformanceTest.class,
         CategoriesAndParameterizedTest.class,
         MultiCategoryTest.class,
         JavadocTest.class,
@@ -206,21 +236,34 @@ import org.junit.validator.PublicClassValidatorTest;
         RuleChainTest.class,
         BlockJUnit4ClassRunnerTest.class,
         CustomBlockJUnit4ClassRunnerTest.class,
+        TestClassCacheTest.class,
         MethodSorterTest.class,
         TestedOnSupplierTest.class,
+        AssignmentStrategyTest.class,
+        GeneratorsTest.class,
         StacktracePrintingMatcherTest.class,
         StopwatchTest.class,
         RunNotifierTest.class,
         ConcurrentRunNotifierTest.class,
+        AsynchronousRunNotifierTest.class,
+        RunNotifierPerformanceTest.class,
         SynchronizedRunListenerTest.class,
         FilterOptionIntegrationTest.class,
         JUnitCommandLineParseResultTest.class,
         FilterFactoriesTest.class,
         CategoryFilterFactoryTest.class,
+        ShardFilterFactoryTest.class,
+        HistoryStoreTest.class,
+        MaxCoreTest.class,
+        HistoryStorePerformanceTest.class,
+        MaxHistoryTest.class,
         FrameworkFieldTest.class,
         FrameworkMethodTest.class,
+        FrameworkMethodPerformanceTest.class,
         FailOnTimeoutTest.class,
+        FailOnTimeoutPerformanceTest.class,
         JUnitCoreTest.class,
+        RerunManifestTest.class,
         TestWithParametersTest.class,
         ParameterizedNamesTest.class,
         PublicClassValidatorTest.class,
@@ -236,6 +279,7 @@ import org.junit.validator.PublicClassValidatorTest;
         CategoryValidatorTest.class,
         ForwardCompatibilityPrintingTest.class,
         DescriptionTest.class,
+        DescriptionPerformanceTest.class,
         ErrorReportingRunnerTest.class,
         TemporaryFolderRuleAssuredDeletionTest.class
 })
@@ -0,0 +1,83 @@
+package org.junit.tests.experimental;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.SelectedTestsFilterFactory;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+import org.junit.runner.FilterFactoryParams;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.manipulation.Filter;
+
+public class SelectedTestsFilterFactoryTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static String log;
+
+    public static class Example {
+        @Test
+        public void a() {
+            log += "a";
+        }
+
+        @Test
+        public void b() {
+            log += "b";
+        }
+
+        @Test
+        public void c() {
+            log += "c";
+        }
+    }
+
+    private String runWithFilter(String args) throws Exception {
+        log = "";
+        Request request = Request.aClass(Example.class);
+        Filter filter = new SelectedTestsFilterFactory().createFilter(
+                new FilterFactoryParams(request.getRunner().getDescription(), args));
+        Result result = new JUnitCore().run(request.filterWith(filter));
+        assertTrue(result.wasSuccessful());
+        return log;
+    }
+
+    @Test
+    public void runsTestsGivenAsArguments() throws Exception {
+        String names = "a(" + Example.class.getName() + "), c(" + Example.class.getName() + ")";
+
+        assertEquals("ac", runWithFilter(names));
+    }
+
+    @Test
+    public void runsTestsReadFromFile() throws Exception {
+        File file = tmp.newFile("tests.txt");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        writer.write("# failed tests\n\nb(" + Example.class.getName() + ")\n");
+        writer.close();
+
+        assertEquals("b", runWithFilter("file=" + file.getPath()));
+    }
+
+    @Test
+    public void acceptsEscapedCommasInNames() throws Exception {
+        Description suite = Request.aClass(Example.class).getRunner().getDescription();
+        Filter filter = new SelectedTestsFilterFactory().createFilter(new FilterFactoryParams(suite,
+                "t[1\\, 2](org.example.Parameterized), t[\\\\](org.example.Parameterized)"));
+
+        assertTrue(filter.shouldRun(Description.createTestDescription("org.example.Parameterized", "t[1, 2]")));
+        assertTrue(filter.shouldRun(Description.createTestDescription("org.example.Parameterized", "t[\\]")));
+        assertFalse(filter.shouldRun(Description.createTestDescription("org.example.Parameterized", "t[1]")));
+    }
+}
@@ -0,0 +1,111 @@
+package org.junit.tests.experimental.categories;
+
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Categories.CategoryFilter;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.Description;
+
+/**
+ * Measures how long a {@link CategoryFilter} takes to filter a suite of
+ * 100,000 test methods, asking for each description the way nested runners
+ * do.
+ */
+public class CategoryFilterPerformanceTest {
+    private static final boolean TESTING_PERFORMANCE = false;
+
+    private static final int METHODS_PER_CLASS = 100;
+
+    public interface FastTests {
+    }
+
+    public interface SlowTests {
+    }
+
+    public interface ReallySlowTests extends SlowTests {
+    }
+
+    @Category(SlowTests.class)
+    public static class SlowClass {
+    }
+
+    public static class UncategorizedClass {
+    }
+
+    @Category(FastTests.class)
+    public void fastMethod() {
+    }
+
+    @Category(ReallySlowTests.class)
+    public void reallySlowMethod() {
+    }
+
+    @Test
+    public void measureFilteringLargeSuite() throws Exception {
+        assumeTrue(TESTING_PERFORMANCE);
+        Description suite = createSuite();
+        for (int i = 0; i < 10; i++) {
+            filter(suite);
+        }
+        int testsToRun = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            testsToRun = filter(suite);
+        }
+        long duration = (System.nanoTime() - start) / 10;
+        System.out.println(testsToRun + " of " + suite.testCount() + " tests filtered in "
+                + duration / 1000000 + " ms");
+    }
+
+    /**
+     * Creates a suite of 10 suites of 10 suites of 10 classes with 100
+     * methods each.
+     */
+    private Description createSuite() throws Exception {
+        Category fast = getClass().getMethod("fastMethod").getAnnotation(Category.class);
+        Category reallySlow = getClass().getMethod("reallySlowMethod").getAnnotation(Category.class);
+        Description suite = Description.createSuiteDescription("suite");
+        int classIndex = 0;
+        for (int i = 0; i < 10; i++) {
+            Description outer = Description.createSuiteDescription("outer" + i);
+            suite.addChild(outer);
+            for (int j = 0; j < 10; j++) {
+                Description inner = Description.createSuiteDescription("inner" + i + "_" + j);
+                outer.addChild(inner);
+                for (int k = 0; k < 10; k++) {
+                    Class<?> testClass = k % 2 == 0 ? SlowClass.class : UncategorizedClass.class;
+                    Description classDescription = Description.createSuiteDescription(
+                            testClass.getName(), classIndex++);
+                    inner.addChild(classDescription);
+                    for (int m = 0; m < METHODS_PER_CLASS; m++) {
+                        classDescription.addChild(Description.createTestDescription(testClass,
+                                "test" + classIndex + "_" + m,
+                                classIndex % 50 == 0 && m % 10 == 0 ? fast : reallySlow));
+                    }
+                }
+            }
+        }
+        return suite;
+    }
+
+    /**
+     * Asks the filter the way nested {@code ParentRunner}s do: each runner
+     * asks for the descriptions of its children and filters the children
+     * that should run.
+     */
+    private int filter(Description suite) {
+        CategoryFilter filter = CategoryFilter.include(FastTests.class);
+        return filterChildren(filter, suite);
+    }
+
+    private int filterChildren(CategoryFilter filter, Description description) {
+        int testsToRun = 0;
+        for (Description each : description.getChildren()) {
+            if (filter.shouldRun(each)) {
+                testsToRun += each.isTest() ? 1 : filterChildren(filter, each);
+            }
+        }
+        return testsToRun;
+    }
+}
@@ -0,0 +1,60 @@
+package org.junit.tests.experimental.max;
+
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+
+/**
+ * Measures the time and heap needed to create a large tree of
+ * {@link Description}s and to read the class and method names of its tests.
+ */
+public class DescriptionPerformanceTest {
+    private static final boolean TESTING_PERFORMANCE = false;
+
+    private static final int CLASSES = 2000;
+
+    private static final int METHODS_PER_CLASS = 100;
+
+    @Test
+    public void measureLargeTree() {
+        assumeTrue(TESTING_PERFORMANCE);
+        createAndReadTree();
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        Description tree = createAndReadTree();
+        long duration = System.nanoTime() - start;
+        long heapAfter = usedHeap();
+        System.out.println(tree.testCount() + " tests: " + duration / 1000000 + " ms, "
+                + (heapAfter - heapBefore) / tree.testCount() + " bytes per test");
+    }
+
+    private Description createAndReadTree() {
+        Description suite = Description.createSuiteDescription("suite");
+        for (int i = 0; i < CLASSES; i++) {
+            String className = "org.example.Test" + i;
+            Description testClass = Description.createSuiteDescription(className);
+            for (int j = 0; j < METHODS_PER_CLASS; j++) {
+                testClass.addChild(Description.createTestDescription(className, "test" + j));
+            }
+            suite.addChild(testClass);
+        }
+        for (int round = 0; round < 3; round++) {
+            for (Description testClass : suite.getChildren()) {
+                for (Description test : testClass.getChildren()) {
+                    test.getClassName();
+                    test.getMethodName();
+                }
+            }
+        }
+        return suite;
+    }
+
+    private long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
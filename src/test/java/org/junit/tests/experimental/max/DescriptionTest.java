@@ -5,7 +5,12 @@ import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.lang.annotation.Annotation;
 import java.net.URL;
 import java.net.URLClassLoader;
@@ -66,6 +71,41 @@ public class DescriptionTest {
         assertThat(description.getAnnotations().size(), equalTo(0));
     }
 
+    @Test
+    public void parsesClassNameWithParenthesesFromDisplayName() throws Exception {
+        Description description = Description.createTestDescription("Class(x)", "aTestMethod");
+
+        assertThat(description.getClassName(), equalTo("x)"));
+        assertThat(description.getMethodName(), equalTo("aTestMethod(Class"));
+    }
+
+    @Test
+    public void parsesSuiteNameLikeTestName() throws Exception {
+        Description description = Description.createSuiteDescription("aTestMethod(Class)");
+
+        assertThat(description.getClassName(), equalTo("Class"));
+        assertThat(description.getMethodName(), equalTo("aTestMethod"));
+    }
+
+    @Test
+    public void canBeSerialized() throws Exception {
+        Description suite = Description.createSuiteDescription("suite");
+        suite.addChild(Description.createTestDescription("Class", "aTestMethod"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(suite);
+        out.close();
+        Description fromStream = (Description) new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        assertEquals(suite, fromStream);
+        Description test = fromStream.getChildren().get(0);
+        assertTrue(test.isTest());
+        assertThat(test.getClassName(), equalTo("Class"));
+        assertThat(test.getMethodName(), equalTo("aTestMethod"));
+    }
+
     @Test
     public void sameNamesButDifferentUniqueIdAreNotEqual() throws Exception {
         assertThat(Description.createTestDescription("not a class name", "aTestMethod", 1),
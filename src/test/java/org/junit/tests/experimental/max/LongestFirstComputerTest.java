@@ -0,0 +1,114 @@
+package org.junit.tests.experimental.max;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.max.LongestFirstComputer;
+import org.junit.experimental.max.MaxHistory;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+public class LongestFirstComputerTest {
+    private static final List<String> fStarted = Collections.synchronizedList(new ArrayList<String>());
+
+    private File fHistoryFile;
+
+    private MaxHistory fHistory;
+
+    @Before
+    public void createHistory() {
+        fHistoryFile = new File("LongestFirstComputerTest.ser");
+        fHistoryFile.delete();
+        fHistory = MaxHistory.forFolder(fHistoryFile);
+        fStarted.clear();
+    }
+
+    @After
+    public void forgetHistory() {
+        fHistoryFile.delete();
+    }
+
+    public static class Fast {
+        @Test
+        public void fast() {
+            fStarted.add("fast");
+        }
+    }
+
+    public static class Slow {
+        @Test
+        public void slow() throws InterruptedException {
+            fStarted.add("slow");
+            Thread.sleep(50);
+        }
+    }
+
+    public static class Mixed {
+        @Test
+        public void a() {
+            fStarted.add("a");
+        }
+
+        @Test
+        public void b() throws InterruptedException {
+            fStarted.add("b");
+            Thread.sleep(50);
+        }
+    }
+
+    private Result runWithHistory(Class<?>... classes) {
+        JUnitCore core = new JUnitCore();
+        core.addListener(fHistory.listener());
+        return core.run(new LongestFirstComputer(fHistory, 1), classes);
+    }
+
+    @Test
+    public void startsClassesExpectedToTakeLongestFirst() {
+        runWithHistory(Fast.class, Slow.class);
+        fStarted.clear();
+
+        Result result = runWithHistory(Fast.class, Slow.class);
+
+        assertTrue(result.wasSuccessful());
+        assertEquals("slow", fStarted.get(0));
+    }
+
+    @Test
+    public void startsMethodsExpectedToTakeLongestFirst() {
+        runWithHistory(Mixed.class);
+        fStarted.clear();
+
+        runWithHistory(Mixed.class);
+
+        assertEquals("b", fStarted.get(0));
+    }
+
+    @Test
+    public void reportsPredictedAndActualRunTime() {
+        runWithHistory(Fast.class, Slow.class);
+        LongestFirstComputer computer = new LongestFirstComputer(fHistory, 2);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        JUnitCore core = new JUnitCore();
+        core.addListener(computer.reporter(new PrintStream(output)));
+
+        core.run(computer, Fast.class, Slow.class);
+
+        Matcher report = Pattern.compile("Predicted time: (\\d+) ms, actual time: (\\d+) ms")
+                .matcher(output.toString());
+        assertTrue(output.toString(), report.find());
+        assertTrue(Long.parseLong(report.group(1)) >= 40);
+        assertTrue(Long.parseLong(report.group(2)) >= 40);
+    }
+}
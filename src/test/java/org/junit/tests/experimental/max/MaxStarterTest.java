@@ -14,6 +14,7 @@ import java.util.List;
 import junit.framework.TestCase;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.experimental.max.MaxCore;
 import org.junit.internal.runners.JUnit38ClassRunner;
@@ -227,6 +228,86 @@ public class MaxStarterTest {
         assertEquals("Counts match up in " + testClass, coreCount, filterCount);
     }
 
+    public static class ExpensiveFixture {
+        static int fSetups = 0;
+
+        @BeforeClass
+        public static void setUpClass() {
+            fSetups++;
+        }
+
+        @Test
+        public void a() {
+        }
+
+        @Test
+        public void b() {
+        }
+
+        @Test
+        public void c() {
+        }
+    }
+
+    @Test
+    public void setsUpClassOncePerRun() {
+        fMax.run(ExpensiveFixture.class);
+        ExpensiveFixture.fSetups = 0;
+
+        Result result = fMax.run(ExpensiveFixture.class);
+
+        assertEquals(3, result.getRunCount());
+        assertEquals(1, ExpensiveFixture.fSetups);
+    }
+
+    @Test
+    public void runsRecentlyFailedTestsOfOtherClassesFirst() {
+        Request request = Request.classes(Computer.serial(), ExpensiveFixture.class, TwoTests.class);
+        fMax.run(request);
+
+        List<Description> tests = fMax.sortedLeavesForTest(request);
+
+        assertEquals(Description.createTestDescription(TwoTests.class, "dontSucceed"), tests.get(0));
+        int first = -1;
+        int last = -1;
+        for (int i = 0; i < tests.size(); i++) {
+            if (tests.get(i).getTestClass() == ExpensiveFixture.class) {
+                first = first == -1 ? i : first;
+                last = i;
+            }
+        }
+        assertEquals("tests of a class are not interleaved", 2, last - first);
+        ExpensiveFixture.fSetups = 0;
+        fMax.run(request);
+        assertEquals(1, ExpensiveFixture.fSetups);
+    }
+
+    public static class Flaky {
+        static int fRuns = 0;
+
+        @Test
+        public void flaky() {
+            if (fRuns++ % 2 == 0) {
+                fail();
+            }
+        }
+    }
+
+    @Test
+    public void runsChronicallyFlakyTestsLast() {
+        Request request = Request.classes(Computer.serial(), Flaky.class, TwoTests.class);
+        for (int i = 0; i < 3; i++) {
+            JUnitCore core = new JUnitCore();
+            core.setRetryCount(1);
+            Result result = fMax.run(request, core);
+            assertEquals(1, result.getFlakyCount());
+        }
+
+        List<Description> tests = fMax.sortedLeavesForTest(request);
+
+        assertEquals(Description.createTestDescription(Flaky.class, "flaky"), tests.get(2));
+    }
+
     private static class MalformedJUnit38Test {
         private MalformedJUnit38Test() {
         }
@@ -0,0 +1,120 @@
+package org.junit.tests.experimental.parallel;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+public class SharedRunnerSchedulerTest {
+    private static final long TIMEOUT = 15;
+    private static volatile CountDownLatch fSynchronizer;
+    private static final AtomicInteger fRunning = new AtomicInteger();
+    private static final AtomicInteger fMaxRunning = new AtomicInteger();
+    private static final Set<Thread> fThreads = Collections.synchronizedSet(new HashSet<Thread>());
+
+    public static class Synchronizing {
+        @Test
+        public void one() throws InterruptedException {
+            fSynchronizer.countDown();
+            assertTrue(fSynchronizer.await(TIMEOUT, TimeUnit.SECONDS));
+        }
+
+        @Test
+        public void two() throws InterruptedException {
+            fSynchronizer.countDown();
+            assertTrue(fSynchronizer.await(TIMEOUT, TimeUnit.SECONDS));
+        }
+    }
+
+    public abstract static class Counting {
+        @Test
+        public void one() throws InterruptedException {
+            count();
+        }
+
+        @Test
+        public void two() throws InterruptedException {
+            count();
+        }
+
+        @Test
+        public void three() throws InterruptedException {
+            count();
+        }
+
+        private void count() throws InterruptedException {
+            fThreads.add(Thread.currentThread());
+            int running = fRunning.incrementAndGet();
+            synchronized (fMaxRunning) {
+                fMaxRunning.set(Math.max(fMaxRunning.get(), running));
+            }
+            Thread.sleep(20);
+            fRunning.decrementAndGet();
+        }
+    }
+
+    public static class Counting1 extends Counting {
+    }
+
+    public static class Counting2 extends Counting {
+    }
+
+    public static class Counting3 extends Counting {
+    }
+
+    public static class Counting4 extends Counting {
+    }
+
+    @Before
+    public void init() {
+        fSynchronizer = new CountDownLatch(2);
+        fRunning.set(0);
+        fMaxRunning.set(0);
+        fThreads.clear();
+    }
+
+    @Test
+    public void methodsRunInParallel() {
+        Result result = JUnitCore.runClasses(new ParallelComputer(false, true, 2),
+                Synchronizing.class);
+        assertTrue(result.wasSuccessful());
+    }
+
+    @Test
+    public void doesNotRunMoreChildrenThanParallelismAtTheSameTime() {
+        Result result = JUnitCore.runClasses(new ParallelComputer(true, true, 3),
+                Counting1.class, Counting2.class, Counting3.class, Counting4.class);
+        assertTrue(result.wasSuccessful());
+        assertEquals(12, result.getRunCount());
+        assertTrue("at most 3 tests should run at the same time",
+                fMaxRunning.get() <= 3);
+        assertThat(fMaxRunning.get(), is(not(1)));
+    }
+
+    @Test
+    public void callingThreadRunsAllChildrenIfParallelismIsOne() {
+        Result result = JUnitCore.runClasses(new ParallelComputer(true, true, 1),
+                Counting1.class, Counting2.class);
+        assertTrue(result.wasSuccessful());
+        assertEquals(Collections.singleton(Thread.currentThread()), fThreads);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveParallelism() {
+        new ParallelComputer(true, true, 0);
+    }
+}
@@ -11,6 +11,7 @@ import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -113,6 +114,36 @@ public class TimeoutRuleTest {
         }
     }
 
+    public static class HasGlobalTimeoutOnCallingThread {
+        public static volatile Thread runningThread;
+
+        @Rule
+        public final TestRule globalTimeout = Timeout.builder()
+                .withTimeout(200, TimeUnit.MILLISECONDS)
+                .withRunningOnCallingThread(true)
+                .build();
+
+        @Test
+        public void run1() throws InterruptedException {
+            new CountDownLatch(1).await();
+        }
+
+        @Test
+        public void run2() throws InterruptedException {
+            Thread.sleep(Long.MAX_VALUE);
+        }
+
+        @Test
+        public synchronized void run3() throws InterruptedException {
+            wait();
+        }
+
+        @Test
+        public void wouldPass() {
+            runningThread = Thread.currentThread();
+        }
+    }
+
     @Before
     public void before() {
         run4done = false;
@@ -162,4 +193,13 @@ public class TimeoutRuleTest {
         Throwable cause = failure.getException().getCause();
         assertThat(cause.getMessage(), containsString("TimeUnit cannot be null"));
     }
+
+    @Test
+    public void timeoutOnCallingThread() {
+        HasGlobalTimeoutOnCallingThread.runningThread = null;
+        Result result = JUnitCore.runClasses(HasGlobalTimeoutOnCallingThread.class);
+        assertEquals(4, result.getRunCount());
+        assertEquals(3, result.getFailureCount());
+        assertEquals(Thread.currentThread(), HasGlobalTimeoutOnCallingThread.runningThread);
+    }
 }
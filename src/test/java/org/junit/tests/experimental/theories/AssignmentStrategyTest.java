@@ -0,0 +1,193 @@
+package org.junit.tests.experimental.theories;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.experimental.theories.AssignmentStrategy;
+
+public class AssignmentStrategyTest {
+    private static final int[] VALUE_COUNTS = {4, 3, 4, 2, 4, 3};
+
+    private static List<int[]> combinations(AssignmentStrategy strategy,
+            int[] valueCounts, long seed) {
+        List<int[]> combinations = new ArrayList<int[]>();
+        Iterator<int[]> iterator = strategy.combinations(valueCounts, new Random(seed));
+        while (iterator.hasNext()) {
+            combinations.add(iterator.next());
+        }
+        return combinations;
+    }
+
+    private static Set<List<Integer>> distinct(List<int[]> combinations) {
+        Set<List<Integer>> distinct = new HashSet<List<Integer>>();
+        for (int[] each : combinations) {
+            List<Integer> values = new ArrayList<Integer>();
+            for (int value : each) {
+                values.add(value);
+            }
+            distinct.add(values);
+        }
+        return distinct;
+    }
+
+    private static void assertCoversAllTuples(List<int[]> combinations, int[] valueCounts,
+            int strength) {
+        int[] parameters = new int[strength];
+        assertCoversAllTuples(combinations, valueCounts, parameters, 0, 0);
+    }
+
+    private static void assertCoversAllTuples(List<int[]> combinations, int[] valueCounts,
+            int[] parameters, int size, int nextParameter) {
+        if (size == parameters.length) {
+            Set<List<Integer>> tuples = new HashSet<List<Integer>>();
+            for (int[] each : combinations) {
+                List<Integer> tuple = new ArrayList<Integer>();
+                for (int parameter : parameters) {
+                    tuple.add(each[parameter]);
+                }
+                tuples.add(tuple);
+            }
+            int expected = 1;
+            for (int parameter : parameters) {
+                expected *= valueCounts[parameter];
+            }
+            assertEquals("tuples of " + Arrays.toString(parameters), expected, tuples.size());
+            return;
+        }
+        for (int parameter = nextParameter; parameter < valueCounts.length; parameter++) {
+            parameters[size] = parameter;
+            assertCoversAllTuples(combinations, valueCounts, parameters, size + 1, parameter + 1);
+        }
+    }
+
+    @Test
+    public void exhaustiveTriesEveryCombinationInOrder() {
+        List<int[]> combinations = combinations(new AssignmentStrategy.Exhaustive(),
+                new int[] {2, 3}, 0);
+
+        assertEquals(6, combinations.size());
+        assertArrayEquals(new int[] {0, 0}, combinations.get(0));
+        assertArrayEquals(new int[] {0, 1}, combinations.get(1));
+        assertArrayEquals(new int[] {1, 2}, combinations.get(5));
+    }
+
+    @Test
+    public void exhaustiveTriesTheoryWithoutParametersOnce() {
+        assertEquals(1, combinations(new AssignmentStrategy.Exhaustive(), new int[0], 0).size());
+    }
+
+    @Test
+    public void pairwiseCoversAllPairsWithFewCombinations() {
+        List<int[]> combinations = combinations(new AssignmentStrategy.Pairwise(),
+                VALUE_COUNTS, 42);
+
+        assertCoversAllTuples(combinations, VALUE_COUNTS, 2);
+        assertTrue("too many combinations: " + combinations.size(), combinations.size() <= 30);
+    }
+
+    @Test
+    public void threeWiseCoversAllTriples() {
+        List<int[]> combinations = combinations(new AssignmentStrategy.ThreeWise(),
+                VALUE_COUNTS, 42);
+
+        assertCoversAllTuples(combinations, VALUE_COUNTS, 3);
+        assertTrue("too many combinations: " + combinations.size(), combinations.size() < 4 * 3 * 4 * 2 * 4 * 3);
+    }
+
+    @Test
+    public void coveringArrayWithFewerParametersThanStrengthIsExhaustive() {
+        List<int[]> combinations = combinations(new AssignmentStrategy.ThreeWise(),
+                new int[] {3, 2}, 42);
+
+        assertEquals(6, distinct(combinations).size());
+    }
+
+    @Test
+    public void randomSamplingTriesEachCombinationOnce() {
+        List<int[]> combinations = combinations(new AssignmentStrategy.RandomSampling(),
+                new int[] {3, 4, 2}, 42);
+
+        assertEquals(24, combinations.size());
+        assertEquals(24, distinct(combinations).size());
+    }
+
+    @Test
+    public void randomSamplingTriesEachCombinationOfLargerSpaceOnce() {
+        List<int[]> combinations = combinations(new AssignmentStrategy.RandomSampling(),
+                new int[] {7, 11, 13}, 42);
+
+        assertEquals(1001, combinations.size());
+        assertEquals(1001, distinct(combinations).size());
+    }
+
+    @Test
+    public void randomSamplingTriesSingleCombination() {
+        List<int[]> combinations = combinations(new AssignmentStrategy.RandomSampling(),
+                new int[] {1, 1}, 42);
+
+        assertEquals(1, combinations.size());
+    }
+
+    @Test
+    public void sameSeedGivesSameCombinations() {
+        List<int[]> first = combinations(new AssignmentStrategy.RandomSampling(),
+                VALUE_COUNTS, 7);
+        List<int[]> second = combinations(new AssignmentStrategy.RandomSampling(),
+                VALUE_COUNTS, 7);
+
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertArrayEquals(first.get(i), second.get(i));
+        }
+    }
+
+    @Test
+    public void differentSeedsGiveDifferentCombinations() {
+        Iterator<int[]> first = new AssignmentStrategy.RandomSampling().combinations(
+                VALUE_COUNTS, new Random(1));
+        Iterator<int[]> second = new AssignmentStrategy.RandomSampling().combinations(
+                VALUE_COUNTS, new Random(2));
+
+        boolean different = false;
+        for (int i = 0; i < 10; i++) {
+            different |= !Arrays.equals(first.next(), second.next());
+        }
+        assertTrue(different);
+    }
+
+    @Test
+    public void randomSamplingOfHugeSpaceHasNoEnd() {
+        int[] valueCounts = new int[30];
+        Arrays.fill(valueCounts, 1000);
+        Iterator<int[]> combinations = new AssignmentStrategy.RandomSampling().combinations(
+                valueCounts, new Random(1));
+
+        for (int i = 0; i < 100; i++) {
+            combinations.next();
+        }
+        assertTrue(combinations.hasNext());
+        assertFalse(Arrays.equals(combinations.next(), combinations.next()));
+    }
+
+    @Test
+    public void diagonalTriesEachValueOnceAndWrapsAround() {
+        List<int[]> combinations = combinations(new AssignmentStrategy.Diagonal(),
+                new int[] {3, 1, 2}, 0);
+
+        assertEquals(3, combinations.size());
+        assertArrayEquals(new int[] {0, 0, 0}, combinations.get(0));
+        assertArrayEquals(new int[] {1, 0, 1}, combinations.get(1));
+        assertArrayEquals(new int[] {2, 0, 0}, combinations.get(2));
+    }
+}
@@ -0,0 +1,138 @@
+package org.junit.tests.experimental.theories.generators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.experimental.theories.Generator;
+import org.junit.experimental.theories.generators.Generators;
+
+public class GeneratorsTest {
+    private enum Color {
+        RED, GREEN, BLUE
+    }
+
+    private static <T> List<T> generate(Generator<T> generator, int count, long seed) {
+        Random random = new Random(seed);
+        List<T> values = new ArrayList<T>();
+        for (int i = 0; i < count; i++) {
+            values.add(generator.generate(random));
+        }
+        return values;
+    }
+
+    @Test
+    public void generatesSameValuesFromSameSeed() {
+        Generator<String> strings = new Generators.Strings();
+
+        assertEquals(generate(strings, 100, 42), generate(strings, 100, 42));
+    }
+
+    @Test
+    public void generatesIntsInRange() {
+        for (Integer each : generate(new Generators.Ints(-3, 7), 1000, 1)) {
+            assertTrue("out of range: " + each, each >= -3 && each <= 7);
+        }
+    }
+
+    @Test
+    public void generatesLongsInFullRange() {
+        boolean large = false;
+        for (Long each : generate(new Generators.Longs(), 1000, 1)) {
+            large |= Math.abs(each) > Integer.MAX_VALUE;
+        }
+        assertTrue(large);
+    }
+
+    @Test
+    public void generatesBoundsOfRange() {
+        List<Integer> values = generate(new Generators.Ints(), 1000, 1);
+
+        assertTrue(values.contains(Integer.MIN_VALUE));
+        assertTrue(values.contains(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void shrinksIntsTowardsZero() {
+        assertEquals(Arrays.asList(0, 50, 75, 88, 94, 97, 99),
+                new Generators.Ints().shrink(100));
+        assertEquals(Arrays.asList(0, -1), new Generators.Ints().shrink(-2));
+        assertEquals(Collections.<Integer>emptyList(), new Generators.Ints().shrink(0));
+    }
+
+    @Test
+    public void shrinksIntsTowardsBoundClosestToZero() {
+        assertEquals(Arrays.asList(10, 11), new Generators.Ints(10, 20).shrink(12));
+    }
+
+    @Test
+    public void shrinksMinValueWithoutOverflow() {
+        List<Long> smaller = new Generators.Longs().shrink(Long.MIN_VALUE);
+
+        assertEquals(Long.valueOf(0), smaller.get(0));
+        assertEquals(Long.valueOf(Long.MIN_VALUE + 1), smaller.get(smaller.size() - 1));
+    }
+
+    @Test
+    public void shrinksStringsToShorterStrings() {
+        List<String> smaller = new Generators.Strings().shrink("abcd");
+
+        assertEquals("", smaller.get(0));
+        assertTrue(smaller.contains("cd"));
+        assertTrue(smaller.contains("ab"));
+        assertTrue(smaller.contains("acd"));
+    }
+
+    @Test
+    public void shrinksCharactersOfStrings() {
+        assertTrue(new Generators.Strings().shrink("z").contains("a"));
+    }
+
+    @Test
+    public void shrinksListsToShorterListsAndSmallerElements() {
+        Generators.ListsOf<Integer> lists = new Generators.ListsOf<Integer>(new Generators.Ints());
+
+        List<List<Integer>> smaller = lists.shrink(Arrays.asList(5, 6));
+
+        assertEquals(Collections.emptyList(), smaller.get(0));
+        assertTrue(smaller.contains(Arrays.asList(6)));
+        assertTrue(smaller.contains(Arrays.asList(0, 6)));
+        assertTrue(smaller.contains(Arrays.asList(5, 0)));
+    }
+
+    @Test
+    public void generatesListsUpToMaxSize() {
+        Generators.ListsOf<Boolean> lists = new Generators.ListsOf<Boolean>(new Generators.Booleans(), 3);
+
+        for (List<Boolean> each : generate(lists, 100, 1)) {
+            assertTrue(each.size() <= 3);
+        }
+    }
+
+    @Test
+    public void shrinksEnumsTowardsFirstConstant() {
+        Generators.Enums<Color> colors = new Generators.Enums<Color>(Color.class);
+
+        assertEquals(Arrays.asList(Color.RED, Color.GREEN), colors.shrink(Color.BLUE));
+        assertEquals(Collections.<Color>emptyList(), colors.shrink(Color.RED));
+    }
+
+    @Test
+    public void choosesGeneratorByType() {
+        assertTrue(Generators.forType(int.class) instanceof Generators.Ints);
+        assertTrue(Generators.forType(Long.class) instanceof Generators.Longs);
+        assertTrue(Generators.forType(String.class) instanceof Generators.Strings);
+        assertTrue(Generators.forType(Color.class) instanceof Generators.Enums);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failsForTypeWithoutGenerator() {
+        Generators.forType(Object.class);
+    }
+}
@@ -7,16 +7,19 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.experimental.theories.DataPoint;
 import org.junit.experimental.theories.Theories;
 import org.junit.experimental.theories.Theory;
+import org.junit.rules.TestName;
 import org.junit.runner.RunWith;
 
 @RunWith(Enclosed.class)
@@ -170,6 +173,35 @@ public class SuccessfulWithDataPointFields {
         }
     }
 
+    @RunWith(Theories.class)
+    public static class RulesEachTime {
+        public static List<String> appliedRules = new ArrayList<String>();
+
+        @DataPoint
+        public static String A = "A";
+
+        @DataPoint
+        public static String B = "B";
+
+        @Rule
+        public TestName name = new TestName();
+
+        @BeforeClass
+        public static void resetCalls() {
+            appliedRules.clear();
+        }
+
+        @Theory
+        public void stringsAreOK(String string) {
+            appliedRules.add(name.getMethodName() + " " + string);
+        }
+
+        @AfterClass
+        public static void appliedTwice() {
+            assertEquals(Arrays.asList("stringsAreOK A", "stringsAreOK B"), appliedRules);
+        }
+    }
+
     @RunWith(Theories.class)
     public static class OneTestTwoAnnotations {
         public static int tests = 0;
@@ -1,14 +1,18 @@
 package org.junit.tests.experimental.theories.runner;
 
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeTrue;
 import static org.junit.experimental.results.PrintableResult.testResult;
 import static org.junit.experimental.results.ResultMatchers.isSuccessful;
 
+import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.theories.DataPoints;
 import org.junit.experimental.theories.Theories;
 import org.junit.experimental.theories.Theory;
+import org.junit.rules.TestName;
 import org.junit.runner.RunWith;
 
 public class TheoriesPerformanceTest {
@@ -23,8 +27,30 @@ public class TheoriesPerformanceTest {
         }
     }
 
+    @RunWith(Theories.class)
+    public static class FourParametersWithTwentyDataPoints {
+        @DataPoints
+        public static int[] ints = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12,
+                13, 14, 15, 16, 17, 18, 19};
+
+        @Rule
+        public TestName name = new TestName();
+
+        @Before
+        public void before() {
+        }
+
+        @Theory
+        public void fourInts(int a, int b, int c, int d) {
+            // pass always
+        }
+    }
+
     private static final boolean TESTING_PERFORMANCE = false;
 
+    // well above the time of an assignment, far below that of building a runner
+    private static final long MAX_NANOS_PER_ASSIGNMENT = 5000;
+
     // If we do not share the same instance of TestClass, repeatedly parsing the
     // class's annotations looking for @Befores and @Afters gets really costly.
     //
@@ -35,4 +61,19 @@ public class TheoriesPerformanceTest {
         assumeTrue(TESTING_PERFORMANCE);
         assertThat(testResult(UpToTen.class), isSuccessful());
     }
+
+    // 160,000 assignments; each of them used to construct a new runner and
+    // then to build its statement again.
+    @Test
+    public void measureAssignmentThroughput() {
+        assumeTrue(TESTING_PERFORMANCE);
+        for (int i = 0; i < 10; i++) {
+            testResult(FourParametersWithTwentyDataPoints.class);
+        }
+        long start = System.nanoTime();
+        assertThat(testResult(FourParametersWithTwentyDataPoints.class), isSuccessful());
+        long nanosPerAssignment = (System.nanoTime() - start) / 160000;
+        assertTrue(nanosPerAssignment + " ns per assignment",
+                nanosPerAssignment < MAX_NANOS_PER_ASSIGNMENT);
+    }
 }
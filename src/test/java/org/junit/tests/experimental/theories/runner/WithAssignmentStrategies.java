@@ -0,0 +1,207 @@
+package org.junit.tests.experimental.theories.runner;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.experimental.results.PrintableResult.testResult;
+import static org.junit.experimental.results.ResultMatchers.hasSingleFailureContaining;
+import static org.junit.experimental.results.ResultMatchers.isSuccessful;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.theories.AssignmentStrategy;
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+
+public class WithAssignmentStrategies {
+    private static final List<String> cases = new ArrayList<String>();
+
+    @After
+    public void clearSystemProperties() {
+        System.clearProperty(Theory.SEED_PROPERTY);
+        System.clearProperty(Theory.EXHAUSTIVE_PROPERTY);
+    }
+
+    @RunWith(Theories.class)
+    public static class LimitedNumberOfCases {
+        @DataPoints
+        public static int[] ints = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+
+        @Theory(maxCases = 17)
+        public void threeInts(int x, int y, int z) {
+            cases.add(x + "" + y + z);
+        }
+    }
+
+    @Test
+    public void triesAtMostMaxCases() {
+        cases.clear();
+
+        assertThat(testResult(LimitedNumberOfCases.class), isSuccessful());
+        assertEquals(17, cases.size());
+        assertEquals("000", cases.get(0));
+    }
+
+    @Test
+    public void triesAllCasesIfExhaustiveIsRequested() {
+        cases.clear();
+        System.setProperty(Theory.EXHAUSTIVE_PROPERTY, "true");
+
+        assertThat(testResult(LimitedNumberOfCases.class), isSuccessful());
+        assertEquals(1000, cases.size());
+    }
+
+    @RunWith(Theories.class)
+    public static class PairwiseTheory {
+        @DataPoints
+        public static int[] ints = {0, 1, 2, 3, 4};
+
+        @DataPoints
+        public static boolean[] booleans = {true, false};
+
+        @Theory(strategy = AssignmentStrategy.Pairwise.class)
+        public void fourParameters(int a, int b, boolean c, int d) {
+            cases.add(a + " " + b + " " + c + " " + d);
+        }
+    }
+
+    @Test
+    public void triesEveryPairOfValues() {
+        cases.clear();
+
+        assertThat(testResult(PairwiseTheory.class), isSuccessful());
+        assertTrue("too many cases: " + cases.size(), cases.size() < 5 * 5 * 2 * 5 / 2);
+        Set<String> pairsOfAAndD = new HashSet<String>();
+        for (String each : cases) {
+            String[] values = each.split(" ");
+            pairsOfAAndD.add(values[0] + values[3]);
+        }
+        assertEquals(25, pairsOfAAndD.size());
+    }
+
+    @Test
+    public void rejectsTooManyPairsOfValues() {
+        try {
+            new AssignmentStrategy.Pairwise().combinations(new int[] {100000, 100000},
+                    new Random());
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString("tuples of 2 values"));
+            return;
+        }
+        fail("expected IllegalArgumentException");
+    }
+
+    @RunWith(Theories.class)
+    public static class RandomlySampledTheory {
+        @DataPoints
+        public static int[] ints = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+
+        @Theory(strategy = AssignmentStrategy.RandomSampling.class, maxCases = 20)
+        public void threeInts(int x, int y, int z) {
+            cases.add(x + "" + y + z);
+        }
+    }
+
+    private List<String> casesWithSeed(long seed) {
+        cases.clear();
+        System.setProperty(Theory.SEED_PROPERTY, Long.toString(seed));
+        assertThat(testResult(RandomlySampledTheory.class), isSuccessful());
+        return new ArrayList<String>(cases);
+    }
+
+    @Test
+    public void reproducesRandomCasesFromSeed() {
+        long seed = new Random().nextLong();
+
+        List<String> first = casesWithSeed(seed);
+        List<String> second = casesWithSeed(seed);
+
+        assertEquals(20, first.size());
+        assertEquals(first, second);
+    }
+
+    @RunWith(Theories.class)
+    public static class FailingRandomlySampledTheory {
+        @DataPoints
+        public static int[] ints = {0, 1, 2, 3};
+
+        @Theory(strategy = AssignmentStrategy.RandomSampling.class, maxCases = 100, seed = 42)
+        public void neverThree(int x) {
+            assertTrue(x != 3);
+        }
+    }
+
+    @Test
+    public void reportsFailureOfRandomlySampledTheory() {
+        assertThat(testResult(FailingRandomlySampledTheory.class),
+                hasSingleFailureContaining("neverThree(\"3\" <from ints[3]>)"));
+    }
+
+    @RunWith(Theories.class)
+    public static class RandomlySampledTheoryWithoutLimit {
+        @DataPoints
+        public static int[] ints = {0, 1, 2, 3};
+
+        @Theory(strategy = AssignmentStrategy.RandomSampling.class)
+        public void anyInt(int x) {
+        }
+    }
+
+    @Test
+    public void randomSamplingRequiresLimit() {
+        assertThat(testResult(RandomlySampledTheoryWithoutLimit.class).toString(),
+                containsString("must limit maxCases or maxMillis to use random sampling"));
+    }
+
+    @RunWith(Theories.class)
+    public static class TheoryWithLimitedTime {
+        @DataPoints
+        public static int[] ints = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+
+        @Theory(maxMillis = 50)
+        public void slow(int x, int y) throws InterruptedException {
+            cases.add(x + "" + y);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void stopsTryingCasesWhenTimeIsUp() {
+        cases.clear();
+
+        assertThat(testResult(TheoryWithLimitedTime.class), isSuccessful());
+        assertTrue("too many cases: " + cases.size(), cases.size() < 100);
+    }
+
+    public static class StrategyWithoutDefaultConstructor extends AssignmentStrategy.CoveringArray {
+        public StrategyWithoutDefaultConstructor(int strength) {
+            super(strength);
+        }
+    }
+
+    @RunWith(Theories.class)
+    public static class TheoryWithInvalidStrategy {
+        @DataPoints
+        public static int[] ints = {0, 1};
+
+        @Theory(strategy = StrategyWithoutDefaultConstructor.class)
+        public void theory(int x) {
+        }
+    }
+
+    @Test
+    public void strategyMustHaveZeroArgumentConstructor() {
+        assertThat(testResult(TheoryWithInvalidStrategy.class).toString(),
+                containsString("must have a public zero-argument constructor"));
+    }
+}
@@ -17,6 +17,7 @@ import java.util.List;
 import org.hamcrest.Matcher;
 import org.junit.Test;
 import org.junit.experimental.theories.DataPoint;
+import org.junit.experimental.theories.DataPoints;
 import org.junit.experimental.theories.Theories;
 import org.junit.experimental.theories.Theory;
 import org.junit.runner.JUnitCore;
@@ -43,7 +44,7 @@ public class WithDataPointMethod {
 
     @RunWith(Theories.class)
     public static class DataPointMethodReturnsMutableObject {
-        @DataPoint
+        @DataPoint(fresh = true)
         public static List<Object> empty() {
             return new ArrayList<Object>();
         }
@@ -66,6 +67,44 @@ public class WithDataPointMethod {
         assertThat(failures(DataPointMethodReturnsMutableObject.class), empty());
     }
 
+    @RunWith(Theories.class)
+    public static class DataPointMethodsAreInvokedOncePerRun {
+        static int singleInvocations = 0;
+
+        static int multipleInvocations = 0;
+
+        @DataPoint
+        public static String single() {
+            singleInvocations++;
+            return "single";
+        }
+
+        @DataPoints
+        public static String[] multiple() {
+            multipleInvocations++;
+            return new String[] {"a", "b"};
+        }
+
+        @Theory
+        public void first(String a, String b, String c) {
+        }
+
+        @Theory
+        public void second(String a, String b) {
+        }
+    }
+
+    @Test
+    public void dataPointValuesAreSharedByAllAssignmentsOfARun() {
+        DataPointMethodsAreInvokedOncePerRun.singleInvocations = 0;
+        DataPointMethodsAreInvokedOncePerRun.multipleInvocations = 0;
+
+        assertThat(testResult(DataPointMethodsAreInvokedOncePerRun.class), isSuccessful());
+
+        assertThat(DataPointMethodsAreInvokedOncePerRun.singleInvocations, is(1));
+        assertThat(DataPointMethodsAreInvokedOncePerRun.multipleInvocations, is(1));
+    }
+
     @RunWith(Theories.class)
     public static class HasDateMethod {
         @DataPoint
@@ -0,0 +1,179 @@
+package org.junit.tests.experimental.theories.runner;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.experimental.results.PrintableResult.testResult;
+import static org.junit.experimental.results.ResultMatchers.hasSingleFailureContaining;
+import static org.junit.experimental.results.ResultMatchers.isSuccessful;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.theories.AssignmentStrategy;
+import org.junit.experimental.theories.ForAll;
+import org.junit.experimental.theories.Generator;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.experimental.theories.generators.Generators;
+import org.junit.runner.RunWith;
+
+public class WithGeneratedValues {
+    private static final List<String> cases = new ArrayList<String>();
+
+    @After
+    public void clearSystemProperties() {
+        System.clearProperty(Theory.SEED_PROPERTY);
+    }
+
+    @RunWith(Theories.class)
+    public static class GeneratedInts {
+        @Theory
+        public void anyInt(@ForAll(count = 500) int x) {
+            cases.add(Integer.toString(x));
+        }
+    }
+
+    @Test
+    public void triesCountGeneratedValues() {
+        cases.clear();
+
+        assertThat(testResult(GeneratedInts.class), isSuccessful());
+        assertEquals(500, cases.size());
+    }
+
+    private List<String> casesWithSeed(long seed) {
+        cases.clear();
+        System.setProperty(Theory.SEED_PROPERTY, Long.toString(seed));
+        assertThat(testResult(GeneratedInts.class), isSuccessful());
+        return new ArrayList<String>(cases);
+    }
+
+    @Test
+    public void reproducesGeneratedValuesFromSeed() {
+        long seed = new Random().nextLong();
+
+        assertEquals(casesWithSeed(seed), casesWithSeed(seed));
+        assertFalse(casesWithSeed(seed).equals(casesWithSeed(seed + 1)));
+    }
+
+    @RunWith(Theories.class)
+    public static class TwoGeneratedParameters {
+        @Theory(strategy = AssignmentStrategy.Diagonal.class)
+        public void twoInts(@ForAll(count = 50) int x, @ForAll(count = 50) int y) {
+            cases.add(x + " " + y);
+        }
+    }
+
+    @Test
+    public void diagonalStrategyPairsGeneratedValues() {
+        cases.clear();
+
+        assertThat(testResult(TwoGeneratedParameters.class), isSuccessful());
+        assertEquals(50, cases.size());
+        int equal = 0;
+        for (String each : cases) {
+            String[] values = each.split(" ");
+            equal += values[0].equals(values[1]) ? 1 : 0;
+        }
+        assertTrue("parameters get the same values", equal < 25);
+    }
+
+    @RunWith(Theories.class)
+    public static class FailingForLargeInts {
+        @Theory
+        public void small(@ForAll(count = 1000) int x) {
+            assertTrue(x < 1000);
+        }
+    }
+
+    @Test
+    public void shrinksFailingIntToSmallestCounterexample() {
+        assertThat(testResult(FailingForLargeInts.class),
+                hasSingleFailureContaining("small(\"1000\" <shrunk from generated value"));
+    }
+
+    @RunWith(Theories.class)
+    public static class FailingForStringsWithX {
+        @Theory
+        public void noX(@ForAll(count = 1000) String s) {
+            assertFalse(s.contains("x"));
+        }
+    }
+
+    @Test
+    public void shrinksFailingStringToSmallestCounterexample() {
+        assertThat(testResult(FailingForStringsWithX.class),
+                hasSingleFailureContaining("noX(\"x\" <shrunk from generated value"));
+    }
+
+    @Test
+    public void failureTellsSeed() {
+        System.setProperty(Theory.SEED_PROPERTY, "42");
+
+        assertThat(testResult(FailingForStringsWithX.class),
+                hasSingleFailureContaining("[seed 42; set the system property "
+                        + Theory.SEED_PROPERTY + "=42 to reproduce it]"));
+    }
+
+    public static class Points extends Generator<int[]> {
+        private final Generators.Ints coordinates = new Generators.Ints(-100, 100);
+
+        @Override
+        public int[] generate(Random random) {
+            return new int[] {coordinates.generate(random), coordinates.generate(random)};
+        }
+
+        @Override
+        public List<int[]> shrink(int[] value) {
+            List<int[]> smaller = new ArrayList<int[]>();
+            for (Integer x : coordinates.shrink(value[0])) {
+                smaller.add(new int[] {x, value[1]});
+            }
+            for (Integer y : coordinates.shrink(value[1])) {
+                smaller.add(new int[] {value[0], y});
+            }
+            return smaller;
+        }
+    }
+
+    @RunWith(Theories.class)
+    public static class FailingForFarPoints {
+        @Theory
+        public void near(@ForAll(generator = Points.class, count = 1000) int[] point) {
+            assertTrue("far point " + point[0] + "," + point[1],
+                    Math.abs(point[0]) + Math.abs(point[1]) < 10);
+        }
+    }
+
+    @Test
+    public void shrinksValuesOfUserGenerator() {
+        String failure = testResult(FailingForFarPoints.class).toString();
+
+        // shrinking one coordinate at a time ends at any point at a distance of 10
+        Matcher point = Pattern.compile("far point (-?\\d+),(-?\\d+)").matcher(failure);
+        assertTrue(failure, point.find());
+        assertEquals(failure, 10, Math.abs(Integer.parseInt(point.group(1)))
+                + Math.abs(Integer.parseInt(point.group(2))));
+    }
+
+    @RunWith(Theories.class)
+    public static class UnsupportedType {
+        @Theory
+        public void objects(@ForAll Object o) {
+        }
+    }
+
+    @Test
+    public void failsForTypeWithoutGenerator() {
+        assertThat(testResult(UnsupportedType.class).toString(),
+                containsString("There is no generator for java.lang.Object"));
+    }
+}
@@ -0,0 +1,130 @@
+package org.junit.tests.experimental.theories.runner;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.experimental.results.PrintableResult.testResult;
+import static org.junit.experimental.results.ResultMatchers.hasSingleFailureContaining;
+import static org.junit.experimental.results.ResultMatchers.isSuccessful;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+
+public class WithParallelAssignments {
+    private static final Set<String> cases = Collections.synchronizedSet(new HashSet<String>());
+
+    private static final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+
+    @RunWith(Theories.class)
+    public static class ParallelTheory {
+        @DataPoints
+        public static int[] ints = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+
+        @Theory(parallelism = 4)
+        public void threeInts(int x, int y, int z) {
+            cases.add(x + "" + y + z);
+            threads.add(Thread.currentThread());
+        }
+    }
+
+    @Test
+    public void triesEveryAssignmentOnce() {
+        cases.clear();
+        threads.clear();
+
+        assertThat(testResult(ParallelTheory.class), isSuccessful());
+        assertEquals(1000, cases.size());
+        assertTrue("too many threads: " + threads.size(), threads.size() <= 4);
+    }
+
+    @RunWith(Theories.class)
+    public static class ConcurrentTheory {
+        static CountDownLatch bothStarted;
+
+        @DataPoints
+        public static int[] ints = {0, 1};
+
+        @Theory(parallelism = 2)
+        public void waitsForOtherBranch(int x) throws InterruptedException {
+            bothStarted.countDown();
+            assertTrue("branches do not run concurrently",
+                    bothStarted.await(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void exploresBranchesConcurrently() {
+        ConcurrentTheory.bothStarted = new CountDownLatch(2);
+
+        assertThat(testResult(ConcurrentTheory.class), isSuccessful());
+    }
+
+    @RunWith(Theories.class)
+    public static class TheoryFailingInSeveralBranches {
+        @DataPoints
+        public static int[] ints = {0, 1, 2, 3, 4, 5};
+
+        @Theory(parallelism = 3)
+        public void notBothLarge(int x, int y) throws InterruptedException {
+            if (x == 2) {
+                // let later branches fail first
+                Thread.sleep(50);
+            }
+            assertTrue(x < 2 || y < 4);
+        }
+    }
+
+    @Test
+    public void reportsFirstFailingAssignmentInEnumerationOrder() {
+        assertThat(testResult(TheoryFailingInSeveralBranches.class),
+                hasSingleFailureContaining("notBothLarge(\"2\" <from ints[2]>, \"4\" <from ints[4]>)"));
+    }
+
+    @RunWith(Theories.class)
+    public static class LimitedParallelTheory {
+        static final AtomicInteger count = new AtomicInteger();
+
+        @DataPoints
+        public static int[] ints = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+
+        @Theory(parallelism = 4, maxCases = 25)
+        public void twoInts(int x, int y) {
+            count.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void triesAtMostMaxCasesInParallel() {
+        LimitedParallelTheory.count.set(0);
+
+        assertThat(testResult(LimitedParallelTheory.class), isSuccessful());
+        assertEquals(25, LimitedParallelTheory.count.get());
+    }
+
+    @RunWith(Theories.class)
+    public static class TheoryWithInvalidParallelism {
+        @DataPoints
+        public static int[] ints = {0, 1};
+
+        @Theory(parallelism = 0)
+        public void theory(int x) {
+        }
+    }
+
+    @Test
+    public void parallelismMustBePositive() {
+        assertThat(testResult(TheoryWithInvalidParallelism.class).toString(),
+                containsString("must have a positive parallelism but has 0"));
+    }
+}
@@ -0,0 +1,49 @@
+package org.junit.tests.internal.runners.statements;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assume.assumeTrue;
+import static org.junit.internal.runners.statements.FailOnTimeout.builder;
+
+import org.junit.Test;
+import org.junit.internal.runners.statements.FailOnTimeout;
+import org.junit.runners.model.Statement;
+
+/**
+ * Compares the per-test overhead of running a statement with a timeout on a
+ * new thread and on the calling thread.
+ */
+public class FailOnTimeoutPerformanceTest {
+    private static final boolean TESTING_PERFORMANCE = false;
+
+    private static final int WARM_UP_ITERATIONS = 20000;
+
+    private static final int ITERATIONS = 100000;
+
+    private static final Statement EMPTY_STATEMENT = new Statement() {
+        @Override
+        public void evaluate() throws Throwable {
+        }
+    };
+
+    @Test
+    public void compareOverheadOfNewThreadAndCallingThread() throws Throwable {
+        assumeTrue(TESTING_PERFORMANCE);
+        FailOnTimeout onNewThread = builder().withTimeout(30, SECONDS)
+                .build(EMPTY_STATEMENT);
+        FailOnTimeout onCallingThread = builder().withTimeout(30, SECONDS)
+                .withRunningOnCallingThread(true).build(EMPTY_STATEMENT);
+
+        measure(onNewThread, WARM_UP_ITERATIONS);
+        measure(onCallingThread, WARM_UP_ITERATIONS);
+        System.out.println("new thread:     " + measure(onNewThread, ITERATIONS) + " ns per test");
+        System.out.println("calling thread: " + measure(onCallingThread, ITERATIONS) + " ns per test");
+    }
+
+    private long measure(Statement statement, int iterations) throws Throwable {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            statement.evaluate();
+        }
+        return (System.nanoTime() - start) / iterations;
+    }
+}
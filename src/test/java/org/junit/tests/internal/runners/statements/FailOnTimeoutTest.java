@@ -193,4 +193,59 @@ public class FailOnTimeoutTest {
             }
         }
     }
+
+    @Test
+    public void runsStatementOnCallingThreadIfRequested() throws Throwable {
+        final Thread[] executingThread = new Thread[1];
+        FailOnTimeout onCallingThread = builder().withTimeout(TIMEOUT, MILLISECONDS)
+                .withRunningOnCallingThread(true).build(new Statement() {
+                    @Override
+                    public void evaluate() throws Throwable {
+                        executingThread[0] = Thread.currentThread();
+                    }
+                });
+
+        onCallingThread.evaluate();
+
+        assertEquals(Thread.currentThread(), executingThread[0]);
+    }
+
+    @Test
+    public void throwsTestTimedOutExceptionOnCallingThread() throws Throwable {
+        FailOnTimeout onCallingThread = builder().withTimeout(TIMEOUT, MILLISECONDS)
+                .withRunningOnCallingThread(true).build(statement);
+        statement.nextException = null;
+        statement.waitDuration = DURATION_THAT_EXCEEDS_TIMEOUT;
+        try {
+            onCallingThread.evaluate();
+            fail("No exception was thrown when test timed out");
+        } catch (TestTimedOutException e) {
+            assertEquals(TIMEOUT, e.getTimeout());
+            assertFalse("Interrupt leaked out of the statement", Thread.interrupted());
+        }
+    }
+
+    @Test
+    public void sendUpExceptionThrownByStatementOnCallingThread() throws Throwable {
+        RuntimeException exception = new RuntimeException();
+        thrown.expect(is(exception));
+        statement.nextException = exception;
+        statement.waitDuration = 0;
+        builder().withTimeout(TIMEOUT, MILLISECONDS).withRunningOnCallingThread(true)
+                .build(statement).evaluate();
+    }
+
+    @Test
+    public void stackTraceOnCallingThreadContainsOnlyTheStatement() throws Throwable {
+        FailOnTimeout stuckTimeout = builder().withTimeout(TIMEOUT, MILLISECONDS)
+                .withRunningOnCallingThread(true).build(new StuckStatement());
+        try {
+            stuckTimeout.evaluate();
+            fail("Expected timeout exception");
+        } catch (TestTimedOutException timeoutException) {
+            StackTraceElement[] stackTrace = timeoutException.getStackTrace();
+            assertEquals("theRealCauseOfTheTimeout", stackTrace[stackTrace.length - 2].getMethodName());
+            assertEquals("evaluate", stackTrace[stackTrace.length - 1].getMethodName());
+        }
+    }
 }
@@ -1,7 +1,12 @@
 package org.junit.tests.manipulation;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
 
 import org.junit.Test;
 import org.junit.runner.Description;
@@ -47,4 +52,44 @@ public class FilterTest {
         assertSame(a, Filter.ALL.intersect(a));
         assertSame(Filter.ALL, Filter.ALL.intersect(Filter.ALL));
     }
+
+    @Test
+    public void matchMethodDescriptionsRunsOnlySelectedTests() {
+        Description suite = Description.createSuiteDescription("suite");
+        Description selectedClass = Description.createSuiteDescription("Selected");
+        Description otherClass = Description.createSuiteDescription("Other");
+        Description selected = Description.createTestDescription("Selected", "selected");
+        Description notSelected = Description.createTestDescription("Selected", "notSelected");
+        Description other = Description.createTestDescription("Other", "other");
+        suite.addChild(selectedClass);
+        suite.addChild(otherClass);
+        selectedClass.addChild(selected);
+        selectedClass.addChild(notSelected);
+        otherClass.addChild(other);
+
+        Filter filter = Filter.matchMethodDescriptions(Arrays.asList(selected,
+                Description.createTestDescription("Missing", "missing")));
+
+        assertTrue(filter.shouldRun(suite));
+        assertTrue(filter.shouldRun(selectedClass));
+        assertFalse(filter.shouldRun(otherClass));
+        assertTrue(filter.shouldRun(selected));
+        assertFalse(filter.shouldRun(notSelected));
+        assertFalse(filter.shouldRun(other));
+        assertEquals("2 selected methods", filter.describe());
+    }
+
+    @Test
+    public void matchMethodDescriptionsDistinguishesSuitesWithSameName() {
+        Description first = Description.createSuiteDescription("[0]");
+        first.addChild(Description.createTestDescription("First", "test[0]"));
+        Description second = Description.createSuiteDescription("[0]");
+        second.addChild(Description.createTestDescription("Second", "test[0]"));
+
+        Filter filter = Filter.matchMethodDescriptions(Collections.singleton(
+                Description.createSuiteDescription("test[0](Second)")));
+
+        assertFalse(filter.shouldRun(first));
+        assertTrue(filter.shouldRun(second));
+    }
 }
@@ -8,10 +8,15 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.experimental.results.PrintableResult.testResult;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -23,10 +28,13 @@ import org.junit.runner.Result;
 import org.junit.runner.RunWith;
 import org.junit.runner.Runner;
 import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameter;
 import org.junit.runners.Parameterized.Parameters;
 import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+import org.junit.runners.Suite;
+import org.junit.runners.Suite.SuiteClasses;
 import org.junit.runners.model.InitializationError;
 import org.junit.runners.parameterized.ParametersRunnerFactory;
 import org.junit.runners.parameterized.TestWithParameters;
@@ -492,4 +500,342 @@ public class ParameterizedTestTest {
                 UseParameterizedFactoryTest.class,
                 "Called ExceptionThrowingRunnerFactory.");
     }
+
+    @RunWith(Parameterized.class)
+    public static class ParallelParametersTest {
+        static final AtomicInteger running = new AtomicInteger();
+
+        static final AtomicInteger maxRunning = new AtomicInteger();
+
+        static final Map<Integer, List<String>> executedMethods =
+                new ConcurrentHashMap<Integer, List<String>>();
+
+        @Parameters(parallelism = 3)
+        public static Iterable<? extends Object> data() {
+            return asList(0, 1, 2, 3, 4, 5, 6, 7);
+        }
+
+        @Parameter
+        public int index;
+
+        @Test
+        public void a() throws Exception {
+            execute("a");
+        }
+
+        @Test
+        public void b() throws Exception {
+            execute("b");
+            assertTrue("failed for parameter 5", index != 5);
+        }
+
+        @Test
+        public void c() throws Exception {
+            execute("c");
+        }
+
+        private void execute(String method) throws InterruptedException {
+            List<String> methods = executedMethods.get(index);
+            if (methods == null) {
+                methods = Collections.synchronizedList(new ArrayList<String>());
+                executedMethods.put(index, methods);
+            }
+            methods.add(method);
+            int nowRunning = running.incrementAndGet();
+            int max;
+            do {
+                max = maxRunning.get();
+            } while (nowRunning > max && !maxRunning.compareAndSet(max, nowRunning));
+            Thread.sleep(20);
+            running.decrementAndGet();
+        }
+    }
+
+    @Test
+    public void runsBoundedNumberOfParameterSetsInParallel() {
+        ParallelParametersTest.maxRunning.set(0);
+        ParallelParametersTest.executedMethods.clear();
+
+        Result result = JUnitCore.runClasses(ParallelParametersTest.class);
+
+        assertEquals(24, result.getRunCount());
+        int maxRunning = ParallelParametersTest.maxRunning.get();
+        assertTrue("max running " + maxRunning, maxRunning > 1 && maxRunning <= 3);
+    }
+
+    @Test
+    public void runsMethodsOfParameterSetInOrder() {
+        ParallelParametersTest.executedMethods.clear();
+
+        JUnitCore.runClasses(ParallelParametersTest.class);
+
+        assertEquals(8, ParallelParametersTest.executedMethods.size());
+        for (List<String> each : ParallelParametersTest.executedMethods.values()) {
+            assertEquals(asList("a", "b", "c"), each);
+        }
+    }
+
+    @Test
+    public void attributesFailureOfParallelParameterSetToItsTest() {
+        Result result = JUnitCore.runClasses(ParallelParametersTest.class);
+
+        assertEquals(1, result.getFailureCount());
+        Failure failure = result.getFailures().get(0);
+        assertEquals("b[5]", failure.getDescription().getMethodName());
+        assertEquals("failed for parameter 5", failure.getMessage());
+    }
+
+    @Test
+    public void reportsEventsOfParallelParameterSetsInOrder() {
+        final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+        JUnitCore core = new JUnitCore();
+        core.addListener(new RunListener() {
+            @Override
+            public void testStarted(Description description) {
+                events.add("started " + description.getMethodName());
+            }
+
+            @Override
+            public void testFinished(Description description) {
+                events.add("finished " + description.getMethodName());
+            }
+        });
+
+        core.run(ParallelParametersTest.class);
+
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 8; i++) {
+            for (String method : asList("a", "b", "c")) {
+                expected.add("started " + method + "[" + i + "]");
+                expected.add("finished " + method + "[" + i + "]");
+            }
+        }
+        assertEquals(expected, events);
+    }
+
+    @Test
+    public void keepsDescriptionsOfParallelParameterSets() {
+        Description description = Request.aClass(ParallelParametersTest.class)
+                .getRunner().getDescription();
+
+        List<Description> children = description.getChildren();
+        assertEquals(8, children.size());
+        for (int i = 0; i < children.size(); i++) {
+            assertEquals("[" + i + "]", children.get(i).getDisplayName());
+        }
+    }
+
+    @RunWith(Parameterized.class)
+    public static class NonPositiveParallelismTest {
+        @Parameters(parallelism = 0)
+        public static Iterable<? extends Object> data() {
+            return asList(1, 2);
+        }
+
+        @Parameter
+        public int value;
+
+        @Test
+        public void test() {
+        }
+    }
+
+    @Test
+    public void failsForNonPositiveParallelism() {
+        assertTestCreatesSingleFailureWithMessage(NonPositiveParallelismTest.class,
+                "The parallelism of the parameters method data must be positive but was 0");
+    }
+
+    @RunWith(Parameterized.class)
+    public static class StreamingTest {
+        static final int ROWS = 1000;
+
+        static final AtomicInteger createdRows = new AtomicInteger();
+
+        static final AtomicInteger maxRowsAhead = new AtomicInteger();
+
+        static final List<Integer> executedRows =
+                Collections.synchronizedList(new ArrayList<Integer>());
+
+        @Parameters(name = "row {0}", streaming = true)
+        public static Iterable<Object> data() {
+            return new Iterable<Object>() {
+                public Iterator<Object> iterator() {
+                    return new Iterator<Object>() {
+                        private int row = 0;
+
+                        public boolean hasNext() {
+                            return row < ROWS;
+                        }
+
+                        public Object next() {
+                            createdRows.incrementAndGet();
+                            return row++;
+                        }
+
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+                    };
+                }
+            };
+        }
+
+        @Parameter
+        public int row;
+
+        @Test
+        public void test() {
+            int ahead = createdRows.get() - executedRows.size();
+            if (ahead > maxRowsAhead.get()) {
+                maxRowsAhead.set(ahead);
+            }
+            executedRows.add(row);
+        }
+    }
+
+    private static void resetStreamingTest() {
+        StreamingTest.createdRows.set(0);
+        StreamingTest.maxRowsAhead.set(0);
+        StreamingTest.executedRows.clear();
+    }
+
+    @Test
+    public void streamsParameterSets() {
+        resetStreamingTest();
+
+        Result result = JUnitCore.runClasses(StreamingTest.class);
+
+        assertEquals(StreamingTest.ROWS, result.getRunCount());
+        assertTrue("rows created ahead " + StreamingTest.maxRowsAhead,
+                StreamingTest.maxRowsAhead.get() <= 2);
+        for (int i = 0; i < StreamingTest.ROWS; i++) {
+            assertEquals(Integer.valueOf(i), StreamingTest.executedRows.get(i));
+        }
+    }
+
+    @Test
+    public void describesStreamedParameterSetsWhenTheyAreRun() {
+        resetStreamingTest();
+        Runner runner = Request.aClass(StreamingTest.class).getRunner();
+
+        assertEquals(0, runner.getDescription().getChildren().size());
+        assertEquals(0, StreamingTest.createdRows.get());
+    }
+
+    @Test
+    public void filtersStreamedParameterSets() {
+        resetStreamingTest();
+        Request request = Request.aClass(StreamingTest.class).filterWith(
+                Description.createTestDescription(StreamingTest.class, "test[row 42]"));
+
+        Result result = new JUnitCore().run(request);
+
+        assertEquals(1, result.getRunCount());
+        assertEquals(asList(42), StreamingTest.executedRows);
+    }
+
+    @RunWith(Parameterized.class)
+    public static class ParallelStreamingTest {
+        static final AtomicInteger createdRows = new AtomicInteger();
+
+        static final AtomicInteger executedRows = new AtomicInteger();
+
+        static final AtomicInteger maxRowsAhead = new AtomicInteger();
+
+        @Parameters(streaming = true, parallelism = 2)
+        public static Iterable<Object> data() {
+            return new Iterable<Object>() {
+                public Iterator<Object> iterator() {
+                    return new Iterator<Object>() {
+                        private int row = 0;
+
+                        public boolean hasNext() {
+                            return row < 200;
+                        }
+
+                        public Object next() {
+                            createdRows.incrementAndGet();
+                            return row++;
+                        }
+
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+                    };
+                }
+            };
+        }
+
+        @Parameter
+        public int row;
+
+        @Test
+        public void test() {
+            int ahead = createdRows.get() - executedRows.get();
+            int max;
+            do {
+                max = maxRowsAhead.get();
+            } while (ahead > max && !maxRowsAhead.compareAndSet(max, ahead));
+            executedRows.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void boundsStreamedParameterSetsThatAreRunInParallel() {
+        Result result = JUnitCore.runClasses(ParallelStreamingTest.class);
+
+        assertEquals(200, result.getRunCount());
+        assertTrue("rows created ahead " + ParallelStreamingTest.maxRowsAhead,
+                ParallelStreamingTest.maxRowsAhead.get() <= 8 + 1);
+    }
+
+    @RunWith(Parameterized.class)
+    public static class StreamingCollectionTest {
+        @Parameters(streaming = true)
+        public static Collection<Object[]> data() {
+            return Arrays.asList(new Object[][] { { 1 }, { 2 }, { 3 } });
+        }
+
+        @Parameter
+        public int value;
+
+        @Test
+        public void a() {
+        }
+
+        @Test
+        public void b() {
+        }
+    }
+
+    @Test
+    public void countsTestsOfStreamedCollection() {
+        Runner runner = Request.aClass(StreamingCollectionTest.class).getRunner();
+
+        assertEquals(6, runner.testCount());
+    }
+
+    @RunWith(Suite.class)
+    @SuiteClasses(StreamingCollectionTest.class)
+    public static class SuiteWithStreamingClass {
+    }
+
+    @Test
+    public void countsTestsOfStreamedCollectionInSuite() {
+        Runner runner = Request.aClass(SuiteWithStreamingClass.class).getRunner();
+
+        assertEquals(6, runner.testCount());
+    }
+
+    @Test
+    public void filtersStreamedTestsInSuite() {
+        Request request = Request.aClass(SuiteWithStreamingClass.class).filterWith(
+                Description.createTestDescription(StreamingCollectionTest.class, "a[1]"));
+
+        Result result = new JUnitCore().run(request);
+
+        assertTrue(result.wasSuccessful());
+        assertEquals(1, result.getRunCount());
+    }
 }
\ No newline at end of file
@@ -3,8 +3,11 @@ package org.junit.tests.running.classes;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 
+import java.util.Comparator;
 import java.util.List;
 
 import org.hamcrest.Matcher;
@@ -19,6 +22,7 @@ import org.junit.runner.JUnitCore;
 import org.junit.runner.Request;
 import org.junit.runner.Result;
 import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.Sorter;
 import org.junit.runner.notification.Failure;
 import org.junit.runner.notification.RunListener;
 import org.junit.runner.notification.RunNotifier;
@@ -107,6 +111,36 @@ public class ParentRunnerTest {
         }
     }
 
+    @Test
+    public void sharesDescriptionUntilChildrenAreFiltered() throws Exception {
+        ParentRunner<?> runner = new BlockJUnit4ClassRunner(ExampleTest.class);
+        Description description = runner.getDescription();
+
+        assertSame(description, runner.getDescription());
+        assertEquals(3, runner.testCount());
+
+        runner.filter(new Exclude("test1"));
+
+        assertNotSame(description, runner.getDescription());
+        assertEquals(2, runner.getDescription().getChildren().size());
+        assertEquals(2, runner.testCount());
+    }
+
+    @Test
+    public void createsNewDescriptionWhenChildrenAreSorted() throws Exception {
+        ParentRunner<?> runner = new BlockJUnit4ClassRunner(ExampleTest.class);
+        Description description = runner.getDescription();
+
+        runner.sort(new Sorter(new Comparator<Description>() {
+            public int compare(Description o1, Description o2) {
+                return o2.getMethodName().compareTo(o1.getMethodName());
+            }
+        }));
+
+        assertNotSame(description, runner.getDescription());
+        assertEquals("test3", runner.getDescription().getChildren().get(0).getMethodName());
+    }
+
     public static class ExampleTest {
         @Test
         public void test1() throws Exception {
@@ -0,0 +1,160 @@
+package org.junit.tests.running.methods;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.internal.TextListener;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+public class RetryTest {
+    private static int fRuns;
+
+    private static int fInstances;
+
+    @Before
+    public void resetCounters() {
+        fRuns = 0;
+        fInstances = 0;
+    }
+
+    public static class FailsOnce {
+        private boolean fRun = false;
+
+        public FailsOnce() {
+            fInstances++;
+        }
+
+        @Test
+        public void test() {
+            // fails if the instance is reused
+            assertFalse(fRun);
+            fRun = true;
+            if (fRuns++ == 0) {
+                throw new AssertionError("first run");
+            }
+        }
+    }
+
+    public static class FailsAlways {
+        @Test
+        public void test() {
+            throw new AssertionError("run " + fRuns++);
+        }
+    }
+
+    public static class FailsOnceThenViolatesAssumption {
+        @Test
+        public void test() {
+            assumeTrue(fRuns++ == 0);
+            throw new AssertionError("first run");
+        }
+    }
+
+    private Result run(int retryCount, Class<?> testClass, RunListener listener) {
+        JUnitCore core = new JUnitCore();
+        core.setRetryCount(retryCount);
+        if (listener != null) {
+            core.addListener(listener);
+        }
+        return core.run(testClass);
+    }
+
+    @Test
+    public void failedTestsAreNotRunAgainByDefault() {
+        Result result = new JUnitCore().run(FailsOnce.class);
+
+        assertEquals(1, result.getFailureCount());
+        assertEquals(0, result.getFlakyCount());
+        assertEquals(1, fRuns);
+    }
+
+    @Test
+    public void testThatPassesWhenRunAgainIsFlaky() {
+        Result result = run(2, FailsOnce.class, null);
+
+        assertTrue(result.wasSuccessful());
+        assertEquals(1, result.getRunCount());
+        assertEquals(1, result.getFlakyCount());
+        assertEquals("first run", result.getFlakyFailures().get(0).getMessage());
+        assertEquals(2, fRuns);
+    }
+
+    @Test
+    public void testIsRunAgainWithNewInstance() {
+        run(2, FailsOnce.class, null);
+
+        assertEquals(2, fInstances);
+    }
+
+    @Test
+    public void testThatFailsEveryTimeIsReportedWithLastFailure() {
+        Result result = run(2, FailsAlways.class, null);
+
+        assertEquals(3, fRuns);
+        assertEquals(1, result.getFailureCount());
+        assertEquals("run 2", result.getFailures().get(0).getMessage());
+        assertEquals(0, result.getFlakyCount());
+    }
+
+    @Test
+    public void testWhoseAssumptionFailsWhenRunAgainIsReportedWithFirstFailure() {
+        Result result = run(2, FailsOnceThenViolatesAssumption.class, null);
+
+        assertEquals(2, fRuns);
+        assertEquals(1, result.getFailureCount());
+        assertEquals("first run", result.getFailures().get(0).getMessage());
+        assertEquals(0, result.getFlakyCount());
+    }
+
+    @Test
+    public void listenersAreNotifiedOfFlakyTests() {
+        final List<String> events = new ArrayList<String>();
+        run(1, FailsOnce.class, new RunListener() {
+            @Override
+            public void testStarted(Description description) {
+                events.add("started");
+            }
+
+            @Override
+            public void testFailure(Failure failure) {
+                events.add("failure");
+            }
+
+            @Override
+            public void testFlaky(Failure failure) {
+                events.add("flaky");
+            }
+
+            @Override
+            public void testFinished(Description description) {
+                events.add("finished");
+            }
+        });
+
+        assertEquals("[started, flaky, finished]", events.toString());
+    }
+
+    @Test
+    public void textListenerPrintsFlakyTests() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        run(1, FailsOnce.class, new TextListener(new PrintStream(output)));
+
+        assertThat(output.toString(), containsString("There was 1 flaky test"));
+        assertThat(output.toString(), containsString("first run"));
+    }
+}